@@ -0,0 +1,31 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+/**
+ * Notified while a DataStoreArchive exports or imports data
+ */
+public interface ArchiveListener {
+    /**
+     * @param processed - the number of values exported or imported so far, failed ones included
+     */
+    void progress(int processed);
+
+    /**
+     * @param username - the player the data belongs to, or null for game data and for archive lines that cannot be parsed
+     * @param key      - the name of the data, or null for archive lines that cannot be parsed
+     * @param reason   - why the value could not be exported or imported
+     */
+    void failed(String username, String key, String reason);
+}
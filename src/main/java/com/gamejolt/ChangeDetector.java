@@ -0,0 +1,46 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers a 64 bit hash of the serialized bytes last stored successfully under each key, so storing the same
+ * bytes again can be skipped
+ */
+class ChangeDetector {
+    private final HashFunction hashFunction = Hashing.murmur3_128();
+    private final Map<DataKey, Long> storedHashes = new ConcurrentHashMap<DataKey, Long>();
+
+    long hash(byte[] data) {
+        return hashFunction.hashBytes(data).asLong();
+    }
+
+    boolean isUnchanged(DataKey key, long hash) {
+        Long stored = storedHashes.get(key);
+        return stored != null && stored == hash;
+    }
+
+    void stored(DataKey key, long hash) {
+        storedHashes.put(key, hash);
+    }
+
+    void forget(DataKey key) {
+        storedHashes.remove(key);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the chunks a large value was split into, it is stored under the value's own key as plain text.
+ * <p/>
+ * The chunks are kept under reserved keys starting with CHUNK_KEY_PREFIX, which never show up when keys are listed.
+ * Every write of a value puts its chunks under a generation of their own, so the chunks of the previous write stay
+ * readable until the new manifest replaces the old one.
+ */
+class ChunkManifest {
+    static final String CHUNK_KEY_PREFIX = "gamejolt-chunks/";
+    private static final String PREFIX = "gamejolt-chunks:";
+    private static final String GENERATION_PREFIX = PREFIX + "2:";
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(Charsets.US_ASCII);
+
+    private final String generation;
+    private final List<String> checksums;
+
+    /**
+     * @param generation - identifies the write the chunks belong to
+     * @param checksums  - the checksum of each chunk
+     */
+    ChunkManifest(String generation, List<String> checksums) {
+        this.generation = generation;
+        this.checksums = checksums;
+    }
+
+    /**
+     * @param text - the text stored under a key
+     * @return the manifest, or null if the text is not a manifest
+     */
+    static ChunkManifest parse(String text) {
+        if (!text.startsWith(GENERATION_PREFIX)) {
+            return null;
+        }
+        int separator = text.indexOf(':', GENERATION_PREFIX.length());
+        if (separator < 0) {
+            return null;
+        }
+        String generation = text.substring(GENERATION_PREFIX.length(), separator);
+        String checksums = text.substring(separator + 1);
+        if (checksums.length() == 0) {
+            return new ChunkManifest(generation, new ArrayList<String>());
+        }
+        return new ChunkManifest(generation, Splitter.on(',').splitToList(checksums));
+    }
+
+    /**
+     * @return true if the stored bytes hold a manifest rather than sanitized data
+     */
+    static boolean isManifest(byte[] content, int offset, int length) {
+        if (length < PREFIX_BYTES.length) {
+            return false;
+        }
+        for (int i = 0; i < PREFIX_BYTES.length; i++) {
+            if (content[offset + i] != PREFIX_BYTES[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String chunkKey(String key, int index) {
+        return CHUNK_KEY_PREFIX + key + "/" + generation + "/" + index;
+    }
+
+    String getGeneration() {
+        return generation;
+    }
+
+    int getChunkCount() {
+        return checksums.size();
+    }
+
+    String getChecksum(int index) {
+        return checksums.get(index);
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChunkManifest)) return false;
+        return toString().equals(o.toString());
+    }
+
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    public String toString() {
+        return GENERATION_PREFIX + generation + ":" + Joiner.on(',').join(checksums);
+    }
+}
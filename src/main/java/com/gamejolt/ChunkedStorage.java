@@ -0,0 +1,217 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.util.Checksum;
+import com.gamejolt.util.Threads;
+import com.google.common.base.Joiner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static com.gamejolt.util.MessageFormat.format;
+
+/**
+ * Stores large values split over several keys.
+ * <p/>
+ * The sanitized value is cut into chunks stored under reserved keys, see ChunkManifest, and once every chunk is stored
+ * a manifest holding the checksum of each chunk is stored under the key itself. Only then are the chunks of the value
+ * it replaced removed, so a failed write leaves the previous value intact. A write that Game Jolt rejects is reported
+ * to a StoreListener, one that fails any other way throws, the way storing a plain value does. Chunks are sent and
+ * fetched in parallel.
+ * A null session means the data belongs to the game rather than a player.
+ */
+class ChunkedStorage {
+    private static final String MISSING_CHUNK = "Chunk {0} of {1} is missing";
+    private static final String CORRUPT_CHUNK = "Chunk {0} of {1} does not match its checksum";
+    private static final String CHUNK_NOT_STORED = "Chunk {0} of {1} could not be stored";
+    private static final String MANIFEST_NOT_STORED = "The manifest of {0} could not be stored";
+    private static final int GENERATION_LENGTH = 12;
+
+    private final GameJolt gameJolt;
+    private final Checksum checksum = new Checksum();
+    private volatile int chunkSize = 4096;
+    private volatile int maxConcurrentRequests = 4;
+
+    ChunkedStorage(GameJolt gameJolt) {
+        this.gameJolt = gameJolt;
+    }
+
+    void store(final UserSession session, final String key, Object data, Listener listener) {
+        String sanitized = gameJolt.sanitize(data);
+        ChunkManifest previous = fetchManifest(session, key);
+
+        List<String> chunks = new ArrayList<String>();
+        List<String> checksums = new ArrayList<String>();
+        for (int start = 0; start < sanitized.length(); start += chunkSize) {
+            String chunk = sanitized.substring(start, Math.min(sanitized.length(), start + chunkSize));
+            chunks.add(chunk);
+            checksums.add(checksum.md5(chunk));
+        }
+        String generation = checksum.md5(Joiner.on(',').join(checksums)).substring(0, GENERATION_LENGTH);
+        final ChunkManifest manifest = new ChunkManifest(generation, checksums);
+        if (manifest.equals(previous)) {
+            listener.success();
+            return;
+        }
+
+        List<Callable<Boolean>> uploads = new ArrayList<Callable<Boolean>>();
+        for (int index = 0; index < chunks.size(); index++) {
+            final String chunkKey = manifest.chunkKey(key, index);
+            final String chunk = chunks.get(index);
+            uploads.add(new Callable<Boolean>() {
+                public Boolean call() {
+                    return gameJolt.storeRawData(session, chunkKey, chunk);
+                }
+            });
+        }
+        String failure;
+        try {
+            int failed = runAll(uploads).indexOf(Boolean.FALSE);
+            if (failed >= 0) {
+                failure = format(CHUNK_NOT_STORED, failed + 1, chunks.size());
+            } else if (!gameJolt.storeRawData(session, key, manifest.toString())) {
+                failure = format(MANIFEST_NOT_STORED, key);
+            } else {
+                failure = null;
+            }
+        } catch (RuntimeException e) {
+            discardChunks(session, key, manifest);
+            throw e;
+        }
+        if (failure != null) {
+            discardChunks(session, key, manifest);
+            GameJolt.storeFailed(listener, failure);
+            return;
+        }
+        if (previous != null) {
+            removeChunks(session, key, previous);
+        }
+        listener.success();
+    }
+
+    Object get(UserSession session, String key) {
+        String stored = gameJolt.getRawData(session, key);
+        if (stored == null) {
+            return null;
+        }
+        String sanitized = resolve(session, key, stored);
+        return sanitized == null ? null : gameJolt.unsanitize(sanitized);
+    }
+
+    /**
+     * @param stored - the text stored under the key
+     * @return the sanitized data, joined from its chunks if a manifest was stored, or null if it was removed meanwhile
+     */
+    String resolve(UserSession session, String key, String stored) {
+        ChunkManifest manifest = ChunkManifest.parse(stored);
+        if (manifest == null) {
+            return stored;
+        }
+        try {
+            return join(session, key, manifest);
+        } catch (GameJoltException e) {
+            String current = gameJolt.getRawData(session, key);
+            if (current == null) {
+                return null;
+            }
+            if (current.equals(stored)) {
+                throw e;
+            }
+            ChunkManifest replacement = ChunkManifest.parse(current);
+            return replacement == null ? current : join(session, key, replacement);
+        }
+    }
+
+    void remove(UserSession session, String key, Listener listener) {
+        ChunkManifest manifest = fetchManifest(session, key);
+        if (!gameJolt.removeRawData(session, key)) {
+            return;
+        }
+        if (manifest != null) {
+            removeChunks(session, key, manifest);
+        }
+        listener.success();
+    }
+
+    void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    private String join(UserSession session, String key, ChunkManifest manifest) {
+        List<Callable<String>> downloads = new ArrayList<Callable<String>>();
+        for (int index = 0; index < manifest.getChunkCount(); index++) {
+            downloads.add(download(session, key, manifest, index));
+        }
+        StringBuilder sanitized = new StringBuilder();
+        for (String chunk : runAll(downloads)) {
+            sanitized.append(chunk);
+        }
+        return sanitized.toString();
+    }
+
+    private Callable<String> download(final UserSession session, final String key, final ChunkManifest manifest, final int index) {
+        return new Callable<String>() {
+            public String call() {
+                String chunk = gameJolt.getRawData(session, manifest.chunkKey(key, index));
+                if (chunk == null) {
+                    throw new GameJoltException(format(MISSING_CHUNK, index + 1, manifest.getChunkCount()));
+                }
+                if (!checksum.md5(chunk).equals(manifest.getChecksum(index))) {
+                    throw new GameJoltException(format(CORRUPT_CHUNK, index + 1, manifest.getChunkCount()));
+                }
+                return chunk;
+            }
+        };
+    }
+
+    private ChunkManifest fetchManifest(UserSession session, String key) {
+        String stored = gameJolt.getRawData(session, key);
+        return stored == null ? null : ChunkManifest.parse(stored);
+    }
+
+    /**
+     * Removes the chunks of a write that failed, nothing refers to them so failing to remove them only leaves them
+     * behind
+     */
+    private void discardChunks(UserSession session, String key, ChunkManifest manifest) {
+        try {
+            removeChunks(session, key, manifest);
+        } catch (RuntimeException e) {
+            // unreachable chunks are harmless
+        }
+    }
+
+    private void removeChunks(final UserSession session, final String key, ChunkManifest manifest) {
+        List<Callable<Boolean>> removals = new ArrayList<Callable<Boolean>>();
+        for (int index = 0; index < manifest.getChunkCount(); index++) {
+            final String chunkKey = manifest.chunkKey(key, index);
+            removals.add(new Callable<Boolean>() {
+                public Boolean call() {
+                    return gameJolt.removeRawData(session, chunkKey);
+                }
+            });
+        }
+        runAll(removals);
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        return Threads.runAll(gameJolt.backgroundExecutor(), tasks, maxConcurrentRequests);
+    }
+}
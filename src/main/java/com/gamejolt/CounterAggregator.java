@@ -0,0 +1,185 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.net.DataStoreOperation;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.gamejolt.util.Threads.daemonThreads;
+
+/**
+ * Adds up increments of the same counter locally and sends them to Game Jolt as a single atomic update once per flush
+ * interval.
+ * <p/>
+ * Increments are only sent again when they certainly were not applied, i.e. Game Jolt rejected the update or it could
+ * not connect at all, and at most MAX_ATTEMPTS times in a row per counter. Any other failure, e.g. a timeout waiting
+ * for the response, may have applied the update already, so those increments are given up instead of risking them
+ * being counted twice. Given up increments are reported to the CounterFailureListener.
+ */
+class CounterAggregator {
+    static final int MAX_ATTEMPTS = 3;
+    private final GameJolt gameJolt;
+    private final Map<DataKey, PendingCount> pending = new LinkedHashMap<DataKey, PendingCount>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("gamejolt-counters-%d"));
+
+    private volatile CounterFailureListener failureListener;
+
+    CounterAggregator(GameJolt gameJolt, long intervalMillis, CounterFailureListener failureListener) {
+        this.gameJolt = gameJolt;
+        this.failureListener = failureListener;
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                flush();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void increment(UserSession session, String name, long amount) {
+        DataKey key = DataKey.of(session, name);
+        synchronized (pending) {
+            PendingCount count = pending.get(key);
+            if (count == null) {
+                count = new PendingCount(key, session, name);
+                pending.put(key, count);
+            }
+            count.amount += amount;
+        }
+    }
+
+    /**
+     * Sends all pending increments right away on the calling thread
+     */
+    void flush() {
+        List<PendingCount> counts;
+        synchronized (pending) {
+            counts = new ArrayList<PendingCount>(pending.values());
+            pending.clear();
+        }
+        for (PendingCount count : counts) {
+            if (count.amount != 0) {
+                send(count);
+            }
+        }
+    }
+
+    void setFailureListener(CounterFailureListener failureListener) {
+        this.failureListener = failureListener;
+    }
+
+    /**
+     * Stops the scheduled flushes and sends all pending increments on the calling thread. Increments that still fail
+     * are retried right away, at most MAX_ATTEMPTS times, and whatever is left is reported as given up.
+     */
+    void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && hasPending(); attempt++) {
+            flush();
+        }
+        List<PendingCount> left;
+        synchronized (pending) {
+            left = new ArrayList<PendingCount>(pending.values());
+            pending.clear();
+        }
+        for (PendingCount count : left) {
+            if (count.amount != 0) {
+                report(count, "The counter aggregator was shut down");
+            }
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (pending) {
+            return !pending.isEmpty();
+        }
+    }
+
+    private void send(PendingCount count) {
+        String reason;
+        boolean notApplied;
+        try {
+            DataStoreOperation operation = count.amount > 0 ? DataStoreOperation.ADD : DataStoreOperation.SUBTRACT;
+            if (gameJolt.updateData(count.session, count.name, operation, String.valueOf(Math.abs(count.amount))) != null) {
+                return;
+            }
+            reason = "The update was rejected";
+            notApplied = true;
+        } catch (RuntimeException err) {
+            reason = String.valueOf(err.getMessage());
+            notApplied = couldNotConnect(err);
+        }
+        count.attempts++;
+        if (notApplied && count.attempts < MAX_ATTEMPTS) {
+            requeue(count);
+        } else {
+            report(count, reason);
+        }
+    }
+
+    private void report(PendingCount count, String reason) {
+        CounterFailureListener listener = failureListener;
+        if (listener != null) {
+            listener.failed(count.key.getUsername(), count.name, count.amount, reason);
+        }
+    }
+
+    private void requeue(PendingCount count) {
+        synchronized (pending) {
+            PendingCount current = pending.get(count.key);
+            if (current == null) {
+                pending.put(count.key, count);
+            } else {
+                current.amount += count.amount;
+                current.attempts = count.attempts;
+            }
+        }
+    }
+
+    private boolean couldNotConnect(Throwable err) {
+        for (Throwable cause = err; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException || cause instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class PendingCount {
+        final DataKey key;
+        final UserSession session;
+        final String name;
+        long amount;
+        int attempts;
+
+        PendingCount(DataKey key, UserSession session, String name) {
+            this.key = key;
+            this.session = session;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+/**
+ * Notified when increments held back by the counter flush interval are given up
+ */
+public interface CounterFailureListener {
+    /**
+     * @param username - the player the counter belongs to, or null for game data
+     * @param name     - the name of the counter
+     * @param amount   - the sum of the increments that were given up
+     * @param reason   - why they could not be sent
+     */
+    void failed(String username, String name, long amount, String reason);
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Identifies a piece of stored data, either the game's or a player's
+ */
+final class DataKey {
+    private final String username;
+    private final String key;
+
+    private DataKey(String username, String key) {
+        this.username = username;
+        this.key = key;
+    }
+
+    /**
+     * @param session - the player the data belongs to, or null for game data
+     * @param key     - the name of the data
+     */
+    static DataKey of(UserSession session, String key) {
+        return new DataKey(session == null ? null : session.getUsername(), key);
+    }
+
+    /**
+     * @param key - the name of the data
+     * @return true for the keys this library keeps its own bookkeeping under, they are left out whenever keys are listed
+     */
+    static boolean isReserved(String key) {
+        return key.startsWith(GameDataVersions.PREFIX) || key.startsWith(ChunkManifest.CHUNK_KEY_PREFIX);
+    }
+
+    /**
+     * @param keys - listed keys
+     * @return the keys that are not reserved
+     */
+    static List<String> withoutReserved(List<String> keys) {
+        List<String> visible = new ArrayList<String>(keys.size());
+        for (String key : keys) {
+            if (!isReserved(key)) {
+                visible.add(key);
+            }
+        }
+        return visible;
+    }
+
+    boolean isReserved() {
+        return isReserved(key);
+    }
+
+    boolean isGameData() {
+        return username == null;
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DataKey)) return false;
+        DataKey other = (DataKey) o;
+        return key.equals(other.key) && (username == null ? other.username == null : username.equals(other.username));
+    }
+
+    public int hashCode() {
+        return 31 * (username == null ? 0 : username.hashCode()) + key.hashCode();
+    }
+
+    public String toString() {
+        return isGameData() ? key : username + "/" + key;
+    }
+}
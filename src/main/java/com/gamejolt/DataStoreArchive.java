@@ -0,0 +1,477 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.gamejolt.util.Threads.await;
+import static com.gamejolt.util.Threads.daemonThreads;
+
+/**
+ * Backs up and restores data stores as newline delimited JSON, one value per line:
+ * <pre>
+ * {"key":"level","value":"H4sIAAAAAAAAAC..."}
+ * {"username":"player","key":"save","value":"H4sIAAAAAAAAAC..."}
+ * </pre>
+ * Values are archived exactly as they are kept in the data store, so they are never deserialized and values stored as
+ * plain text survive as well. Only a few values are held in memory at any time, no matter how large the data store
+ * is. Run it from the command line with:
+ * <pre>
+ * java com.gamejolt.DataStoreArchive export|import &lt;game id&gt; &lt;private key&gt; &lt;archive file&gt; [username:token]...
+ * </pre>
+ */
+public class DataStoreArchive {
+    private static final ArchiveListener NO_LISTENER = new ArchiveListener() {
+        public void progress(int processed) {
+        }
+
+        public void failed(String username, String key, String reason) {
+        }
+    };
+
+    private final GameJolt gameJolt;
+    private int maxConcurrentRequests = 4;
+    private double requestsPerSecond = 10;
+    private ArchiveListener listener = NO_LISTENER;
+
+    public DataStoreArchive(GameJolt gameJolt) {
+        this.gameJolt = gameJolt;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.out.println("usage: DataStoreArchive export|import <game id> <private key> <archive file> [username:token]...");
+            return;
+        }
+        GameJolt gameJolt = new GameJolt(Integer.parseInt(args[1]), args[2]);
+        List<UserSession> sessions = new ArrayList<UserSession>();
+        for (int i = 4; i < args.length; i++) {
+            String[] credentials = args[i].split(":", 2);
+            sessions.add(gameJolt.openSession(credentials[0], credentials[1]));
+        }
+
+        DataStoreArchive archive = new DataStoreArchive(gameJolt);
+        archive.setListener(new ArchiveListener() {
+            public void progress(int processed) {
+                if (processed % 100 == 0) {
+                    System.out.println(processed + " values processed");
+                }
+            }
+
+            public void failed(String username, String key, String reason) {
+                System.out.println("Failed: " + (username == null ? key : username + "/" + key) + " -- " + reason);
+            }
+        });
+
+        File file = new File(args[3]);
+        int count;
+        if (args[0].equals("export")) {
+            Writer output = Files.newWriter(file, Charsets.UTF_8);
+            try {
+                count = archive.exportGameData(output);
+                for (UserSession session : sessions) {
+                    count += archive.exportUserData(session, output);
+                }
+            } finally {
+                output.close();
+            }
+        } else {
+            Reader input = Files.newReader(file, Charsets.UTF_8);
+            try {
+                count = archive.importArchive(input, sessions);
+            } finally {
+                input.close();
+            }
+        }
+        System.out.println(args[0] + "ed " + count + " values");
+    }
+
+    /**
+     * Writes all game data to the archive
+     *
+     * @param output - where the archive is written to, it is not closed
+     * @return the number of values written
+     * @throws IOException if the archive could not be written
+     */
+    public int exportGameData(Writer output) throws IOException {
+        return export(null, listKeys(null), output);
+    }
+
+    /**
+     * Writes all of the player's data to the archive
+     *
+     * @param session - the player whose data is written
+     * @param output  - where the archive is written to, it is not closed
+     * @return the number of values written
+     * @throws IOException if the archive could not be written
+     */
+    public int exportUserData(UserSession session, Writer output) throws IOException {
+        return export(session, listKeys(session), output);
+    }
+
+    /**
+     * Stores every value of the archive, several at a time and no faster than the configured rate
+     *
+     * @param input    - the archive to restore, it is not closed
+     * @param sessions - the players whose data is restored, data of any other player and lines that cannot be parsed
+     *                 are reported as failed
+     * @return the number of values stored
+     * @throws IOException if the archive could not be read
+     */
+    public int importArchive(Reader input, Collection<UserSession> sessions) throws IOException {
+        final Map<String, UserSession> sessionsByUsername = new HashMap<String, UserSession>();
+        for (UserSession session : sessions) {
+            sessionsByUsername.put(session.getUsername(), session);
+        }
+
+        final RateLimiter rateLimiter = RateLimiter.create(requestsPerSecond);
+        final Semaphore inFlight = new Semaphore(maxConcurrentRequests * 2);
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger stored = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentRequests, daemonThreads("gamejolt-archive-%d"));
+        try {
+            BufferedReader reader = new BufferedReader(input);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().length() == 0) {
+                    continue;
+                }
+                final Record record;
+                try {
+                    record = Record.parse(line, lineNumber);
+                } catch (GameJoltException err) {
+                    listener.failed(null, null, err.getMessage());
+                    listener.progress(processed.incrementAndGet());
+                    continue;
+                }
+                final UserSession session = record.username == null ? null : sessionsByUsername.get(record.username);
+                if (record.username != null && session == null) {
+                    listener.failed(record.username, record.key, "no session for the player");
+                    listener.progress(processed.incrementAndGet());
+                    continue;
+                }
+
+                acquire(inFlight);
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            rateLimiter.acquire();
+                            if (gameJolt.storeRawData(session, record.key, record.value)) {
+                                stored.incrementAndGet();
+                            } else {
+                                listener.failed(record.username, record.key, "Game Jolt did not store the value");
+                            }
+                        } catch (RuntimeException err) {
+                            listener.failed(record.username, record.key, String.valueOf(err.getMessage()));
+                        } finally {
+                            inFlight.release();
+                            listener.progress(processed.incrementAndGet());
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+        return stored.get();
+    }
+
+    /**
+     * Sets how many values are fetched or stored at the same time, 4 by default
+     *
+     * @param maxConcurrentRequests - the maximum number of requests in flight
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * Sets how many values are stored per second at most while importing, 10 by default
+     *
+     * @param requestsPerSecond - the maximum rate of store requests
+     */
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * @param listener - notified of the progress and of every value that failed
+     */
+    public void setListener(ArchiveListener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    private List<String> listKeys(UserSession session) {
+        final List<String> found = new ArrayList<String>();
+        DataKeysListener keysListener = new DataKeysListener() {
+            public void keys(List<String> keys) {
+                found.addAll(keys);
+            }
+        };
+        if (session == null) {
+            gameJolt.getGameDataKeys(keysListener);
+        } else {
+            gameJolt.getUserDataKeys(session, keysListener);
+        }
+        return found;
+    }
+
+    private int export(final UserSession session, List<String> keys, Writer output) throws IOException {
+        String username = session == null ? null : session.getUsername();
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentRequests, daemonThreads("gamejolt-archive-%d"));
+        Deque<Future<String>> window = new ArrayDeque<Future<String>>();
+        Deque<String> windowKeys = new ArrayDeque<String>();
+        int processed = 0;
+        int written = 0;
+        try {
+            for (int i = 0; i <= keys.size(); i++) {
+                if (i < keys.size()) {
+                    final String key = keys.get(i);
+                    window.add(executor.submit(new Callable<String>() {
+                        public String call() {
+                            return gameJolt.getStoredData(session, key);
+                        }
+                    }));
+                    windowKeys.add(key);
+                }
+                while (window.size() > maxConcurrentRequests || (i == keys.size() && !window.isEmpty())) {
+                    String key = windowKeys.remove();
+                    String value;
+                    try {
+                        value = await(window.remove());
+                    } catch (RuntimeException err) {
+                        listener.failed(username, key, String.valueOf(err.getMessage()));
+                        listener.progress(++processed);
+                        continue;
+                    }
+                    if (value == null) {
+                        listener.failed(username, key, "no value found");
+                    } else {
+                        new Record(username, key, value).write(output);
+                        written++;
+                    }
+                    listener.progress(++processed);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        output.flush();
+        return written;
+    }
+
+    private static void acquire(Semaphore semaphore) {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+            throw new GameJoltException(err);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            }
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+            throw new GameJoltException(err);
+        }
+    }
+
+    /**
+     * One line of the archive, a flat JSON object holding only string fields
+     */
+    static class Record {
+        final String username;
+        final String key;
+        final String value;
+
+        Record(String username, String key, String value) {
+            this.username = username;
+            this.key = key;
+            this.value = value;
+        }
+
+        void write(Writer output) throws IOException {
+            output.write('{');
+            if (username != null) {
+                writeField(output, "username", username);
+                output.write(',');
+            }
+            writeField(output, "key", key);
+            output.write(',');
+            writeField(output, "value", value);
+            output.write("}\n");
+        }
+
+        static Record parse(String line, int lineNumber) {
+            Map<String, String> fields = new HashMap<String, String>();
+            int[] position = {skipWhitespace(line, 0)};
+            expect(line, position, '{', lineNumber);
+            boolean more = peek(line, position) != '}';
+            while (more) {
+                String name = readString(line, position, lineNumber);
+                expect(line, position, ':', lineNumber);
+                if (line.startsWith("null", position[0])) {
+                    position[0] = skipWhitespace(line, position[0] + 4);
+                    fields.put(name, null);
+                } else {
+                    fields.put(name, readString(line, position, lineNumber));
+                }
+                more = peek(line, position) == ',';
+                if (more) {
+                    expect(line, position, ',', lineNumber);
+                }
+            }
+            expect(line, position, '}', lineNumber);
+            if (fields.get("key") == null || fields.get("value") == null) {
+                throw malformed(lineNumber);
+            }
+            return new Record(fields.get("username"), fields.get("key"), fields.get("value"));
+        }
+
+        private static void writeField(Writer output, String name, String value) throws IOException {
+            output.write('"');
+            output.write(name);
+            output.write("\":\"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        output.write("\\\"");
+                        break;
+                    case '\\':
+                        output.write("\\\\");
+                        break;
+                    case '\n':
+                        output.write("\\n");
+                        break;
+                    case '\r':
+                        output.write("\\r");
+                        break;
+                    case '\t':
+                        output.write("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            output.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            output.write(c);
+                        }
+                }
+            }
+            output.write('"');
+        }
+
+        private static String readString(String line, int[] position, int lineNumber) {
+            if (peek(line, position) != '"') {
+                throw malformed(lineNumber);
+            }
+            StringBuilder builder = new StringBuilder();
+            int i = position[0] + 1;
+            while (i < line.length() && line.charAt(i) != '"') {
+                char c = line.charAt(i++);
+                if (c == '\\') {
+                    if (i >= line.length()) {
+                        throw malformed(lineNumber);
+                    }
+                    char escaped = line.charAt(i++);
+                    switch (escaped) {
+                        case 'n':
+                            builder.append('\n');
+                            break;
+                        case 'r':
+                            builder.append('\r');
+                            break;
+                        case 't':
+                            builder.append('\t');
+                            break;
+                        case 'b':
+                            builder.append('\b');
+                            break;
+                        case 'f':
+                            builder.append('\f');
+                            break;
+                        case 'u':
+                            if (i + 4 > line.length()) {
+                                throw malformed(lineNumber);
+                            }
+                            try {
+                                builder.append((char) Integer.parseInt(line.substring(i, i + 4), 16));
+                            } catch (NumberFormatException err) {
+                                throw malformed(lineNumber);
+                            }
+                            i += 4;
+                            break;
+                        default:
+                            builder.append(escaped);
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+            position[0] = i;
+            expect(line, position, '"', lineNumber);
+            return builder.toString();
+        }
+
+        private static char peek(String line, int[] position) {
+            return position[0] < line.length() ? line.charAt(position[0]) : 0;
+        }
+
+        private static void expect(String line, int[] position, char expected, int lineNumber) {
+            if (peek(line, position) != expected) {
+                throw malformed(lineNumber);
+            }
+            position[0] = skipWhitespace(line, position[0] + 1);
+        }
+
+        private static int skipWhitespace(String line, int position) {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            return position;
+        }
+
+        private static GameJoltException malformed(int lineNumber) {
+            return new GameJoltException("Malformed archive line " + lineNumber);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps data read from or stored to the data store in memory, so reading it again does not cost a request.
+ * <p/>
+ * Each entry holds the sanitized bytes as sent over the wire. Stores write through to the cache once they succeed and
+ * removals invalidate it. The least recently used entries are evicted once the maximum size is reached, and entries
+ * expire the given time after they were written.
+ * <p/>
+ * By default every read deserializes a fresh object from the cached bytes, so callers are free to modify what they
+ * read. Turn on object sharing to keep the object deserialized by the first read and hand out that same object on
+ * every later hit, objects read from the cache must then be treated as read only. The object passed to a store is
+ * never cached, it still belongs to the caller.
+ */
+public class DataStoreCache {
+    private final Cache<DataKey, Entry> entries;
+    private volatile boolean shareObjects;
+
+    /**
+     * @param maximumSize - the maximum number of entries kept
+     * @param duration    - how long an entry is kept after it was written
+     * @param unit        - the unit of the duration
+     */
+    public DataStoreCache(long maximumSize, long duration, TimeUnit unit) {
+        this(maximumSize, duration, unit, Ticker.systemTicker());
+    }
+
+    DataStoreCache(long maximumSize, long duration, TimeUnit unit, Ticker ticker) {
+        this.entries = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(duration, unit)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Sets whether the cached object is handed out on a hit, or a fresh one is deserialized from the cached bytes
+     *
+     * @param shareObjects - true to hand out the cached object, false to deserialize on every hit (the default)
+     */
+    public void setShareObjects(boolean shareObjects) {
+        this.shareObjects = shareObjects;
+    }
+
+    /**
+     * The hit, miss and eviction counts of the cache
+     *
+     * @return the statistics gathered since the cache was created
+     */
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Forget all cached data
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    Entry get(DataKey key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * @param sanitized - the sanitized bytes stored under the key
+     * @param data      - the object deserialized from them to be shared, or null
+     */
+    void put(DataKey key, byte[] sanitized, Object data) {
+        entries.put(key, new Entry(sanitized, data));
+    }
+
+    void invalidate(DataKey key) {
+        entries.invalidate(key);
+    }
+
+    void invalidateUser(String username) {
+        for (DataKey key : entries.asMap().keySet()) {
+            if (username.equals(key.getUsername())) {
+                entries.invalidate(key);
+            }
+        }
+    }
+
+    boolean isSharingObjects() {
+        return shareObjects;
+    }
+
+    static class Entry {
+        final byte[] sanitized;
+        volatile Object data;
+
+        Entry(byte[] sanitized, Object data) {
+            this.sanitized = sanitized;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.CountingInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a copy of all game data on disk so a server can start without downloading everything again.
+ * <p/>
+ * The file starts with an index of every key, the version it was stored with and where its data lives, followed by the
+ * sanitized data itself. The data is only read when a key is actually needed, the file is opened for each read rather than
+ * memory mapped, so it is never held open and can be replaced on every platform. Which keys are still
+ * current is decided by the version markers GameJolt keeps in the data store, see GameJolt.setGameDataDiskCache.
+ * <p/>
+ * The file is rewritten as a whole after data changed, the old file is replaced only once the new one is complete.
+ */
+public class GameDataDiskCache {
+    private static final int MAGIC = 0x474a4443;
+    private static final int FORMAT_VERSION = 1;
+
+    private final File file;
+    private Map<String, IndexEntry> index;
+    private long dataStart;
+
+    /**
+     * @param file - the file the cache is kept in, it is created when missing
+     */
+    public GameDataDiskCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Forget everything cached, the file is deleted
+     */
+    public synchronized void invalidateAll() {
+        index = new LinkedHashMap<String, IndexEntry>();
+        file.delete();
+    }
+
+    synchronized Map<String, String> versions() {
+        Map<String, String> versions = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, IndexEntry> entry : index().entrySet()) {
+            versions.put(entry.getKey(), entry.getValue().version);
+        }
+        return versions;
+    }
+
+    synchronized String read(String key) {
+        IndexEntry entry = index().get(key);
+        if (entry == null) {
+            return null;
+        }
+        byte[] bytes = new byte[entry.length];
+        try {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, dataStart + entry.offset + buffer.position()) < 0) {
+                        return null;
+                    }
+                }
+            } finally {
+                randomAccessFile.close();
+            }
+        } catch (IOException err) {
+            return null;
+        }
+        return new String(bytes, Charsets.US_ASCII);
+    }
+
+    /**
+     * Replaces the contents of the cache
+     *
+     * @param versions - the version of each key
+     * @param values   - the sanitized data of each key
+     */
+    synchronized void write(Map<String, String> versions, Map<String, String> values) {
+        File temporary = new File(file.getPath() + ".tmp");
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+            try {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(values.size());
+                int offset = 0;
+                for (Map.Entry<String, String> value : values.entrySet()) {
+                    output.writeUTF(value.getKey());
+                    output.writeUTF(versions.get(value.getKey()));
+                    output.writeInt(offset);
+                    output.writeInt(value.getValue().length());
+                    offset += value.getValue().length();
+                }
+                for (String value : values.values()) {
+                    output.write(value.getBytes(Charsets.US_ASCII));
+                }
+            } finally {
+                output.close();
+            }
+            index = null;
+            if (!temporary.renameTo(file) && !(file.delete() && temporary.renameTo(file))) {
+                throw new IOException("Could not replace " + file);
+            }
+        } catch (IOException err) {
+            temporary.delete();
+            throw new GameJoltException(err);
+        }
+    }
+
+    private Map<String, IndexEntry> index() {
+        if (index == null) {
+            load();
+        }
+        return index;
+    }
+
+    private void load() {
+        index = new LinkedHashMap<String, IndexEntry>();
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            dataStart = readIndex();
+            if (dataStart < 0) {
+                index.clear();
+            }
+        } catch (IOException err) {
+            index.clear();
+        }
+    }
+
+    private long readIndex() throws IOException {
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        DataInputStream input = new DataInputStream(counter);
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return -1;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = input.readUTF();
+                String version = input.readUTF();
+                index.put(key, new IndexEntry(version, input.readInt(), input.readInt()));
+            }
+            return counter.getCount();
+        } finally {
+            input.close();
+        }
+    }
+
+    private static class IndexEntry {
+        final String version;
+        final int offset;
+        final int length;
+
+        IndexEntry(String version, int offset, int length) {
+            this.version = version;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.util.Checksum;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.gamejolt.util.Threads.await;
+import static com.gamejolt.util.Threads.daemonThreads;
+
+/**
+ * The versions of the game data, kept in the data store as one marker key per game data key.
+ * <p/>
+ * A marker is named after the md5 of the text stored under its key, so the versions of all keys are found by listing
+ * the game data keys, without fetching anything. Before game data is stored through a GameJolt using a
+ * GameDataDiskCache, the marker of the new version is stored, and the store fails if it cannot be. Once the data is
+ * stored the marker it replaced is removed in the background, each change only touches the markers of its own key.
+ * <p/>
+ * A key without a marker or with several markers has no known version and is downloaded again. So if the data write
+ * fails, or the old marker is never removed, the key is left with several markers and a disk cache never serves its
+ * stale copy. Data changed any other way, e.g. from the Game Jolt dashboard, is only noticed once its marker is
+ * removed.
+ */
+class GameDataVersions {
+    static final String PREFIX = "gamejolt-versions/";
+    static final String UNKNOWN_VERSION = "00000000000000000000000000000000";
+    private static final int VERSION_LENGTH = 32;
+
+    private final GameJolt gameJolt;
+    private final Checksum checksum = new Checksum();
+    private final Map<String, Set<String>> markers = new HashMap<String, Set<String>>();
+    private ExecutorService recorder;
+    private Future<?> lastChange;
+
+    GameDataVersions(GameJolt gameJolt) {
+        this.gameJolt = gameJolt;
+    }
+
+    String version(String stored) {
+        return checksum.md5(stored);
+    }
+
+    /**
+     * @param keys - all game data keys, including the reserved ones
+     * @return the version of each key that has exactly one marker
+     */
+    Map<String, String> versions(List<String> keys) {
+        Map<String, Set<String>> listed = new HashMap<String, Set<String>>();
+        for (String key : keys) {
+            if (key.startsWith(PREFIX) && key.length() > PREFIX.length() + VERSION_LENGTH) {
+                String version = key.substring(PREFIX.length(), PREFIX.length() + VERSION_LENGTH);
+                String dataKey = key.substring(PREFIX.length() + VERSION_LENGTH + 1);
+                if (!listed.containsKey(dataKey)) {
+                    listed.put(dataKey, new LinkedHashSet<String>());
+                }
+                listed.get(dataKey).add(version);
+            }
+        }
+        Map<String, String> versions = new HashMap<String, String>();
+        for (Map.Entry<String, Set<String>> entry : listed.entrySet()) {
+            if (entry.getValue().size() == 1) {
+                versions.put(entry.getKey(), entry.getValue().iterator().next());
+            }
+        }
+        synchronized (markers) {
+            markers.clear();
+            markers.putAll(listed);
+        }
+        return versions;
+    }
+
+    /**
+     * Stores the marker of the version about to be written, waiting for the markers of earlier changes first
+     *
+     * @param key    - the key about to change
+     * @param stored - the text about to be stored under the key, or null if it is only known once stored
+     * @throws GameJoltException if the marker could not be stored, the data must not be written then
+     */
+    void changing(final String key, String stored) {
+        final String version = stored == null ? UNKNOWN_VERSION : version(stored);
+        Future<Boolean> marked;
+        synchronized (this) {
+            marked = recorder().submit(new Callable<Boolean>() {
+                public Boolean call() {
+                    synchronized (markers) {
+                        if (markers.containsKey(key) && markers.get(key).contains(version)) {
+                            return true;
+                        }
+                    }
+                    if (!gameJolt.storeRawData(null, markerKey(key, version), version)) {
+                        return false;
+                    }
+                    synchronized (markers) {
+                        if (!markers.containsKey(key)) {
+                            markers.put(key, new LinkedHashSet<String>());
+                        }
+                        markers.get(key).add(version);
+                    }
+                    return true;
+                }
+            });
+            lastChange = marked;
+        }
+        if (!await(marked)) {
+            throw new GameJoltException("Could not record the version of game data " + key);
+        }
+    }
+
+    /**
+     * @param key    - the key that changed
+     * @param stored - the text now stored under the key, or null if it was removed
+     */
+    void changed(String key, String stored) {
+        record(key, stored == null ? null : version(stored));
+    }
+
+    /**
+     * Replaces the markers of a key in the background
+     *
+     * @param key     - the game data key
+     * @param version - the version now stored under the key, or null if it was removed
+     */
+    synchronized void record(final String key, final String version) {
+        lastChange = recorder().submit(new Runnable() {
+            public void run() {
+                Set<String> previous;
+                synchronized (markers) {
+                    previous = markers.containsKey(key) ? markers.remove(key) : Collections.<String>emptySet();
+                }
+                Set<String> remaining = new LinkedHashSet<String>();
+                try {
+                    if (version != null && (previous.contains(version) || gameJolt.storeRawData(null, markerKey(key, version), version))) {
+                        remaining.add(version);
+                    }
+                    for (String old : previous) {
+                        if (!old.equals(version) && !gameJolt.removeRawData(null, markerKey(key, old))) {
+                            remaining.add(old);
+                        }
+                    }
+                } catch (GameJoltException err) {
+                    // best effort, a key left without a marker or with several is downloaded again
+                }
+                if (!remaining.isEmpty()) {
+                    synchronized (markers) {
+                        markers.put(key, remaining);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits for the markers of all changes made so far to be recorded
+     */
+    void flush() {
+        Future<?> change;
+        synchronized (this) {
+            change = lastChange;
+        }
+        if (change != null) {
+            await(change);
+        }
+    }
+
+    /**
+     * Records markers on the given executor instead of a background thread of their own
+     *
+     * @param recorder - the executor the markers are recorded on
+     */
+    synchronized void setRecorder(ExecutorService recorder) {
+        this.recorder = recorder;
+    }
+
+    private synchronized ExecutorService recorder() {
+        if (recorder == null) {
+            recorder = Executors.newSingleThreadExecutor(daemonThreads("gamejolt-versions-%d"));
+        }
+        return recorder;
+    }
+
+    private static String markerKey(String key, String version) {
+        return PREFIX + version + "/" + key;
+    }
+}
@@ -14,45 +14,91 @@
 package com.gamejolt;
 
 import com.gamejolt.highscore.Highscore;
+import com.gamejolt.highscore.HighscoreColumns;
 import com.gamejolt.highscore.HighscoreParser;
+import com.gamejolt.highscore.HighscoreTable;
 import com.gamejolt.io.BinarySanitizer;
+import com.gamejolt.io.CompressionDictionary;
 import com.gamejolt.io.ObjectSerializer;
 import com.gamejolt.io.StandardJavaObjectSerializer;
+import com.gamejolt.io.StreamingObjectSerializer;
+import com.gamejolt.net.DataStoreOperation;
+import com.gamejolt.net.DumpResponseHandler;
 import com.gamejolt.net.HttpRequest;
 import com.gamejolt.net.HttpResponse;
 import com.gamejolt.net.HttpResponseHandlerAdapter;
 import com.gamejolt.net.PropertiesListHttpResponseHandler;
 import com.gamejolt.net.RequestFactory;
+import com.gamejolt.net.StreamingHttpResponseHandler;
 import com.gamejolt.net.SuccessResponseHandler;
 import com.gamejolt.net.TrophyHttpResponseHandler;
 import com.gamejolt.util.PropertiesParser;
 import com.gamejolt.util.TrophyParser;
+import com.google.common.base.Charsets;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.gamejolt.util.MessageFormat.format;
+import static com.gamejolt.util.Threads.await;
+import static com.gamejolt.util.Threads.daemonThreads;
+import static com.gamejolt.util.Threads.runAll;
 
 
+/**
+ * The entry point to the Game Jolt API.
+ * <p/>
+ * A GameJolt instance is safe to share between threads once it has been configured. It acts for the player verified
+ * through verifyUser, and it can also hand out a UserSession per player so one instance can serve many players at once.
+ */
 public class GameJolt {
     private static final String NULL_BYTES = "ObjectSerializer serialized {0} to a null byte array, please give at least an empty byte array";
+    private static final int MAX_CONCURRENT_HIGHSCORE_REQUESTS = 4;
     private static final String STORE_NULL_OBJECT = "You supplied a null object for storing. This is invalid, if you would like to remove data, please use the {0} method";
+    private static final String STORE_REJECTED = "Game Jolt rejected the data stored under {0}";
 
+    private int gameId;
     private RequestFactory requestFactory;
-    private boolean verified;
-    private String username;
-    private String userToken;
+    private volatile UserSession session;
+    private VerificationCache verificationCache;
+    private final ChunkedStorage chunkedStorage = new ChunkedStorage(this);
+    private volatile ChangeDetector changeDetector;
+    private volatile WriteCoalescer writeCoalescer;
+    private volatile CounterAggregator counterAggregator;
+    private volatile CounterFailureListener counterFailureListener;
+    private volatile MissingLookupCache missingLookupCache;
+    private volatile KeyIndex gameKeyIndex;
+    private volatile HighscoreCache highscoreCache;
+    private final ConcurrentMap<String, KeyIndex> userKeyIndexes = new ConcurrentHashMap<String, KeyIndex>();
+    private volatile DataStoreCache dataStoreCache;
+    private volatile GameDataDiskCache gameDataDiskCache;
+    private final GameDataVersions gameDataVersions = new GameDataVersions(this);
     private TrophyParser trophyParser;
     private PropertiesParser propertiesParser;
     private ObjectSerializer objectSerializer;
     private BinarySanitizer binarySanitizer;
     private NumberFormat highscoreFormatter;
     private HighscoreParser highscoreParser;
+    private ThreadPoolExecutor backgroundExecutor;
 
     /**
      * Let the Game Jolt experience begin! :)
@@ -65,6 +111,7 @@ public class GameJolt {
      * @param privateKey - your personal privatekey
      */
     public GameJolt(int gameId, String privateKey) {
+        this.gameId = gameId;
         this.requestFactory = new RequestFactory(gameId, privateKey);
         this.trophyParser = new TrophyParser();
         this.propertiesParser = new PropertiesParser();
@@ -85,20 +132,80 @@ public class GameJolt {
         if (doesNotNeedToVerify(username, userToken)) {
             return;
         }
-        HttpRequest request = requestFactory.buildVerifyUserRequest(username, userToken);
-        request.execute(new SuccessResponseHandler(propertiesParser) {
-            protected void handleSuccess() {
-                verified = true;
-                GameJolt.this.username = username;
-                GameJolt.this.userToken = userToken;
-                listener.verified(username);
-            }
+        if (verify(username, userToken)) {
+            session = new UserSession(this, username, userToken);
+            listener.verified(username);
+        } else {
+            session = null;
+            listener.failedVerification(username);
+        }
+    }
 
-            protected void handleFailure() {
-                verified = false;
-                listener.failedVerification(username);
+    /**
+     * Verifies the given player and hands back a session acting on their behalf.
+     * <p/>
+     * Sessions share this instance's connection settings, parsers and serializers, so a server can keep one GameJolt
+     * and a small session per connected player. Sessions can be used from any thread.
+     *
+     * @param username  - player's username
+     * @param userToken - player's usertoken
+     * @return a verified session for the player
+     * @throws UnverifiedUserException is thrown if the player could not be verified
+     */
+    public UserSession openSession(String username, String userToken) throws UnverifiedUserException {
+        if (!verify(username, userToken)) {
+            throw new UnverifiedUserException();
+        }
+        return new UserSession(this, username, userToken);
+    }
+
+    /**
+     * Verifies many players at once, for example everyone reconnecting after a server restart.
+     * <p/>
+     * At most maxConcurrentRequests verifications are in flight at the same time. Players that fail verification are
+     * left out of the result.
+     *
+     * @param userTokens            - each player's usertoken keyed by their username
+     * @param maxConcurrentRequests - the maximum number of verification requests sent at the same time
+     * @return a verified session for each player that passed verification, keyed by username
+     */
+    public Map<String, UserSession> openSessions(Map<String, String> userTokens, int maxConcurrentRequests) {
+        Map<String, UserSession> sessions = new LinkedHashMap<String, UserSession>();
+        if (userTokens.isEmpty()) {
+            return sessions;
+        }
+
+        List<String> usernames = new ArrayList<String>(userTokens.keySet());
+        List<Callable<UserSession>> verifications = new ArrayList<Callable<UserSession>>();
+        for (final Map.Entry<String, String> entry : userTokens.entrySet()) {
+            verifications.add(new Callable<UserSession>() {
+                public UserSession call() {
+                    if (verify(entry.getKey(), entry.getValue())) {
+                        return new UserSession(GameJolt.this, entry.getKey(), entry.getValue());
+                    }
+                    return null;
+                }
+            });
+        }
+
+        List<UserSession> verified = runAll(backgroundExecutor(), verifications, maxConcurrentRequests);
+        for (int i = 0; i < usernames.size(); i++) {
+            if (verified.get(i) != null) {
+                sessions.put(usernames.get(i), verified.get(i));
             }
-        });
+        }
+        return sessions;
+    }
+
+    /**
+     * Share verified players between GameJolt instances, or across restarts of a player's connection.
+     * <p/>
+     * By default no cache is used and every new set of credentials is verified with Game Jolt.
+     *
+     * @param verificationCache - the cache of verified players, for example VerificationCache.shared()
+     */
+    public void setVerificationCache(VerificationCache verificationCache) {
+        this.verificationCache = verificationCache;
     }
 
     /**
@@ -109,11 +216,14 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void achievedTrophy(final int trophyId, final TrophyAchievedListener listener) throws UnverifiedUserException {
-        assertVerified();
-        HttpRequest request = requestFactory.buildAchievedTrophyRequest(username, userToken, String.valueOf(trophyId));
+        achievedTrophy(currentSession(), trophyId, listener);
+    }
+
+    void achievedTrophy(final UserSession session, final int trophyId, final TrophyAchievedListener listener) {
+        HttpRequest request = requestFactory.buildAchievedTrophyRequest(session.getUsername(), session.getUserToken(), String.valueOf(trophyId));
         request.execute(new SuccessResponseHandler(propertiesParser) {
             protected void handleSuccess() {
-                getTrophy(trophyId, new TrophyLookupListenerAdaptor() {
+                getTrophy(session, trophyId, new TrophyLookupListenerAdaptor() {
                     public void found(Trophy trophy) {
                         listener.achieved(trophy);
                     }
@@ -130,11 +240,22 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void getTrophy(final int trophyId, final TrophyLookupListener listener) throws UnverifiedUserException {
-        assertVerified();
-        HttpRequest request = requestFactory.buildTrophyRequest(username, userToken, String.valueOf(trophyId));
+        getTrophy(currentSession(), trophyId, listener);
+    }
+
+    void getTrophy(UserSession session, final int trophyId, final TrophyLookupListener listener) {
+        final MissingLookupCache missing = missingLookupCache;
+        if (missing != null && missing.isTrophyMissing(trophyId)) {
+            listener.notFound(trophyId);
+            return;
+        }
+        HttpRequest request = requestFactory.buildTrophyRequest(session.getUsername(), session.getUserToken(), String.valueOf(trophyId));
         request.execute(new TrophyHttpResponseHandler(trophyParser) {
             protected void handle(List<Trophy> trophies) {
                 if (trophies.isEmpty()) {
+                    if (missing != null) {
+                        missing.trophyMissing(trophyId);
+                    }
                     listener.notFound(trophyId);
                 } else {
                     listener.found(trophies.get(0));
@@ -150,7 +271,7 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void getAllTrophies(TrophiesLookupListener listener) throws UnverifiedUserException {
-        getTrophies("empty", listener);
+        getTrophies(currentSession(), "empty", listener);
     }
 
     /**
@@ -160,7 +281,7 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void getAchievedTrophies(TrophiesLookupListener listener) throws UnverifiedUserException {
-        getTrophies("true", listener);
+        getTrophies(currentSession(), "true", listener);
     }
 
     /**
@@ -170,7 +291,7 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void getUnachievedTrophies(TrophiesLookupListener listener) throws UnverifiedUserException {
-        getTrophies("false", listener);
+        getTrophies(currentSession(), "false", listener);
     }
 
     /**
@@ -187,24 +308,18 @@ public class GameJolt {
      *
      * @param name - the name given to the data
      * @param data - the data to be stored
-     * @param listener - the callback that is notified on success
+     * @param listener - the callback that is notified on success, and on failure if it is a StoreListener
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void storeUserData(String name, Object data, final Listener listener) throws UnverifiedUserException {
-        assertVerified();
+        storeUserData(currentSession(), name, data, listener);
+    }
+
+    void storeUserData(UserSession session, String name, Object data, final Listener listener) {
         if (data == null) {
             throw new NullPointerException(format(STORE_NULL_OBJECT, "removeUserData"));
         }
-        byte[] bytes = objectSerializer.serialize(data);
-        if (bytes == null) {
-            throw new NullPointerException(format(NULL_BYTES, data.getClass()));
-        }
-        HttpRequest request = requestFactory.buildStoreUserDataRequest(username, userToken, name, binarySanitizer.sanitize(bytes));
-        request.execute(new SuccessResponseHandler(propertiesParser) {
-            protected void handleSuccess() {
-                listener.success();
-            }
-        });
+        storeData(session, name, data, listener);
     }
 
     /**
@@ -212,22 +327,14 @@ public class GameJolt {
      *
      * @param name - the name given to the data
      * @param data - the data to be stored
-     * @param listener - the callback that is notified on success
+     * @param listener - the callback that is notified on success, and on failure if it is a StoreListener
+     * @throws GameJoltException is thrown if a game data disk cache is used and the new version could not be marked
      */
     public void storeGameData(String name, Object data, final Listener listener) {
         if (data == null) {
             throw new NullPointerException(format(STORE_NULL_OBJECT, "removeGameData"));
         }
-        byte[] bytes = objectSerializer.serialize(data);
-        if (bytes == null) {
-            throw new NullPointerException(format(NULL_BYTES, data.getClass()));
-        }
-        HttpRequest request = requestFactory.buildStoreGameDataRequest(name, binarySanitizer.sanitize(bytes));
-        request.execute(new SuccessResponseHandler(propertiesParser) {
-            protected void handleSuccess() {
-                listener.success();
-            }
-        });
+        storeData(null, name, data, listener);
     }
 
     /**
@@ -238,10 +345,16 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void removeUserData(String name, final Listener listener) throws UnverifiedUserException {
-        assertVerified();
-        HttpRequest request = requestFactory.buildRemoveUserDataRequest(username, userToken, name);
+        removeUserData(currentSession(), name, listener);
+    }
+
+    void removeUserData(UserSession session, String name, final Listener listener) {
+        final DataKey key = DataKey.of(session, name);
+        forgetStoredData(key);
+        HttpRequest request = requestFactory.buildRemoveUserDataRequest(session.getUsername(), session.getUserToken(), name);
         request.execute(new SuccessResponseHandler(propertiesParser) {
             protected void handleSuccess() {
+                indexKey(key, false);
                 listener.success();
             }
         });
@@ -253,10 +366,13 @@ public class GameJolt {
      * @param name - the name of the data to be removed
      * @param listener - the callback that is notified on success
      */
-    public void removeGameData(String name, final Listener listener) {
+    public void removeGameData(final String name, final Listener listener) {
+        forgetStoredData(DataKey.of(null, name));
         HttpRequest request = requestFactory.buildRemoveGameDataRequest(name);
         request.execute(new SuccessResponseHandler(propertiesParser) {
             protected void handleSuccess() {
+                versionChanged(DataKey.of(null, name), null);
+                indexKey(DataKey.of(null, name), false);
                 listener.success();
             }
         });
@@ -268,14 +384,69 @@ public class GameJolt {
      * @param listener - all callback that provides the keys
      */
     public void getGameDataKeys(final DataKeysListener listener) {
+        listAllGameDataKeys(new DataKeysListener() {
+            public void keys(List<String> keys) {
+                listener.keys(DataKey.withoutReserved(keys));
+            }
+        });
+    }
+
+    private void listAllGameDataKeys(final DataKeysListener listener) {
         HttpRequest request = requestFactory.buildGameDataKeysRequest();
         request.execute(new PropertiesListHttpResponseHandler(propertiesParser) {
             protected void handle(List<String> values) {
+                List<String> visible = DataKey.withoutReserved(values);
+                MissingLookupCache missing = missingLookupCache;
+                if (missing != null) {
+                    missing.listed(null, visible);
+                }
+                if (gameKeyIndex != null) {
+                    gameKeyIndex = new KeyIndex(visible);
+                }
                 listener.keys(values);
             }
         });
     }
 
+    /**
+     * Look up the keys referencing game data that match the given pattern, the matching is done by Game Jolt
+     *
+     * @param pattern  - the pattern the keys have to match, * matches any number of characters, e.g. level_*
+     * @param listener - the callback that provides the matching keys
+     */
+    public void getGameDataKeys(String pattern, final DataKeysListener listener) {
+        HttpRequest request = requestFactory.buildGameDataKeysRequest(pattern);
+        request.execute(new PropertiesListHttpResponseHandler(propertiesParser) {
+            protected void handle(List<String> values) {
+                listener.keys(DataKey.withoutReserved(values));
+            }
+        });
+    }
+
+    /**
+     * Finds the keys of game data starting with the given prefix in a local index of all keys.
+     * <p/>
+     * The index is built by listing all keys the first time it is needed, after that it is kept up to date as data is
+     * stored and removed through this GameJolt. Data stored any other way shows up the next time all keys are listed.
+     *
+     * @param prefix - the prefix of the keys, e.g. season3/
+     * @return the matching keys in lexicographic order
+     */
+    public List<String> findGameDataKeys(String prefix) {
+        KeyIndex index = gameKeyIndex;
+        if (index == null) {
+            final AtomicReference<KeyIndex> listed = new AtomicReference<KeyIndex>(new KeyIndex());
+            getGameDataKeys(new DataKeysListener() {
+                public void keys(List<String> keys) {
+                    listed.set(new KeyIndex(keys));
+                }
+            });
+            index = listed.get();
+            gameKeyIndex = index;
+        }
+        return index.keysWithPrefix(prefix);
+    }
+
     /**
      * Look up all the keys referencing user data
      *
@@ -283,23 +454,131 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void getUserDataKeys(final DataKeysListener listener) throws UnverifiedUserException {
-        assertVerified();
-        HttpRequest request = requestFactory.buildUserDataKeysRequest(username, userToken);
+        getUserDataKeys(currentSession(), listener);
+    }
+
+    void getUserDataKeys(final UserSession session, final DataKeysListener listener) {
+        listAllUserDataKeys(session, new DataKeysListener() {
+            public void keys(List<String> keys) {
+                listener.keys(DataKey.withoutReserved(keys));
+            }
+        });
+    }
+
+    private void listAllUserDataKeys(final UserSession session, final DataKeysListener listener) {
+        HttpRequest request = requestFactory.buildUserDataKeysRequest(session.getUsername(), session.getUserToken());
         request.execute(new PropertiesListHttpResponseHandler(propertiesParser) {
             protected void handle(List<String> values) {
                 values.remove("success");
+                List<String> visible = DataKey.withoutReserved(values);
+                MissingLookupCache missing = missingLookupCache;
+                if (missing != null) {
+                    missing.listed(session, visible);
+                }
+                if (userKeyIndexes.containsKey(session.getUsername())) {
+                    userKeyIndexes.put(session.getUsername(), new KeyIndex(visible));
+                }
                 listener.keys(values);
             }
         });
     }
 
+    /**
+     * Look up the keys referencing user data that match the given pattern, the matching is done by Game Jolt
+     *
+     * @param pattern  - the pattern the keys have to match, * matches any number of characters, e.g. level_*
+     * @param listener - the callback that provides the matching keys
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public void getUserDataKeys(String pattern, DataKeysListener listener) throws UnverifiedUserException {
+        getUserDataKeys(currentSession(), pattern, listener);
+    }
+
+    void getUserDataKeys(UserSession session, String pattern, final DataKeysListener listener) {
+        HttpRequest request = requestFactory.buildUserDataKeysRequest(session.getUsername(), session.getUserToken(), pattern);
+        request.execute(new PropertiesListHttpResponseHandler(propertiesParser) {
+            protected void handle(List<String> values) {
+                values.remove("success");
+                listener.keys(DataKey.withoutReserved(values));
+            }
+        });
+    }
+
+    /**
+     * Finds the keys of the verified player's data starting with the given prefix in a local index of all keys
+     *
+     * @param prefix - the prefix of the keys, e.g. season3/
+     * @return the matching keys in lexicographic order
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @see #findGameDataKeys(String)
+     */
+    public List<String> findUserDataKeys(String prefix) throws UnverifiedUserException {
+        return findUserDataKeys(currentSession(), prefix);
+    }
+
+    List<String> findUserDataKeys(UserSession session, String prefix) {
+        KeyIndex index = userKeyIndexes.get(session.getUsername());
+        if (index == null) {
+            final AtomicReference<KeyIndex> listed = new AtomicReference<KeyIndex>(new KeyIndex());
+            getUserDataKeys(session, new DataKeysListener() {
+                public void keys(List<String> keys) {
+                    listed.set(new KeyIndex(keys));
+                }
+            });
+            index = listed.get();
+            userKeyIndexes.put(session.getUsername(), index);
+        }
+        return index.keysWithPrefix(prefix);
+    }
+
+    /**
+     * Marks the version of game data as changing before it is written, so the game data disk cache never serves a
+     * stale copy of it
+     *
+     * @param key    - the key about to change
+     * @param stored - the text about to be stored under the key, or null if it is only known once stored
+     * @throws GameJoltException is thrown if the change could not be marked, the data must not be written then
+     */
+    private void versionChanging(DataKey key, String stored) {
+        if (key.isGameData() && !key.isReserved() && gameDataDiskCache != null) {
+            gameDataVersions.changing(key.getKey(), stored);
+        }
+    }
+
+    /**
+     * Keeps the versions used by the game data disk cache up to date
+     *
+     * @param key    - the key that changed
+     * @param stored - the text now stored under the key, or null if it was removed
+     */
+    private void versionChanged(DataKey key, String stored) {
+        if (key.isGameData() && !key.isReserved() && gameDataDiskCache != null) {
+            gameDataVersions.changed(key.getKey(), stored);
+        }
+    }
+
+    private void indexKey(DataKey key, boolean exists) {
+        if (key.isReserved()) {
+            return;
+        }
+        KeyIndex index = key.isGameData() ? gameKeyIndex : userKeyIndexes.get(key.getUsername());
+        if (index == null) {
+            return;
+        }
+        if (exists) {
+            index.add(key.getKey());
+        } else {
+            index.remove(key.getKey());
+        }
+    }
+
     /**
      * Clear all game data stored
      *
      * @param listener - a callback that notifies when all the data has been deleted successfully
      */
     public void clearAllGameData(final Listener listener) {
-        getGameDataKeys(new DataKeysListener() {
+        listAllGameDataKeys(new DataKeysListener() {
             public void keys(final List<String> keys) {
                 final ArrayList<String> deletedData = new ArrayList();
                 for (final String key : keys) {
@@ -326,11 +605,19 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public void clearAllUserData(final Listener listener) throws UnverifiedUserException {
-        getUserDataKeys(new DataKeysListener() {
+        clearAllUserData(currentSession(), listener);
+    }
+
+    void clearAllUserData(final UserSession session, final Listener listener) {
+        DataStoreCache cache = dataStoreCache;
+        if (cache != null) {
+            cache.invalidateUser(session.getUsername());
+        }
+        listAllUserDataKeys(session, new DataKeysListener() {
             public void keys(final List<String> keys) {
                 final ArrayList<String> deletedData = new ArrayList();
                 for (final String key : keys) {
-                    removeUserData(key, new Listener() {
+                    removeUserData(session, key, new Listener() {
                         public void success() {
                             deletedData.add(key);
 
@@ -351,8 +638,7 @@ public class GameJolt {
      * @return returns null if no data was found with that name, otherwise return the object stored
      */
     public Object getGameData(String name) {
-        HttpRequest request = requestFactory.buildGetGameDataRequest(name);
-        return deserializeData(request);
+        return getData(null, name);
     }
 
     /**
@@ -363,157 +649,830 @@ public class GameJolt {
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
     public Object getUserData(String name) throws UnverifiedUserException {
-        assertVerified();
-        HttpRequest request = requestFactory.buildGetUserDataRequest(username, userToken, name);
-        return deserializeData(request);
+        return getUserData(currentSession(), name);
+    }
+
+    Object getUserData(UserSession session, String name) {
+        return getData(session, name);
     }
 
     /**
-     * Loads all the game data stored
+     * Applies the operation to the game data with the given name on Game Jolt's side, so concurrent updates are never
+     * lost and nothing has to be read first.
+     * <p/>
+     * Updated data is kept as plain text rather than as a serialized object, read it with getGameDataText.
      *
-     * @return a Map<String,Object> containing all persisted data
+     * @param name      - the name given to the data
+     * @param operation - the operation to apply
+     * @param value     - the operand, e.g. the amount to add or the text to append
+     * @return the data after the update, or null if the update failed
+     * @throws GameJoltException is thrown if a game data disk cache is used and the change could not be marked
      */
-    public Map<String, Object> loadAllGameData() {
-        final Map<String, Object> data = new LinkedHashMap<String, Object>();
-        getGameDataKeys(new DataKeysListener() {
-            public void keys(List<String> keys) {
-                for (String key : keys) {
-                    data.put(key, getGameData(key));
-                }
-            }
-        });
-        return data;
+    public String updateGameData(String name, DataStoreOperation operation, String value) {
+        return updateData(null, name, operation, value);
     }
 
     /**
-     * Loads all the user data stored
+     * Applies the operation to the verified player's data with the given name on Game Jolt's side
      *
-     * @return a Map<String,Object> containing all persisted data
+     * @param name      - the name given to the data
+     * @param operation - the operation to apply
+     * @param value     - the operand, e.g. the amount to add or the text to append
+     * @return the data after the update, or null if the update failed
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @see #updateGameData(String, com.gamejolt.net.DataStoreOperation, String)
      */
-    public Map<String, Object> loadAllUserData() throws UnverifiedUserException {
-        final Map<String, Object> data = new LinkedHashMap<String, Object>();
-        getUserDataKeys(new DataKeysListener() {
-            public void keys(List<String> keys) {
-                for (String key : keys) {
-                    data.put(key, getUserData(key));
-                }
-            }
-        });
-        return data;
+    public String updateUserData(String name, DataStoreOperation operation, String value) throws UnverifiedUserException {
+        return updateData(currentSession(), name, operation, value);
     }
 
     /**
-     * Grab a limited number of highscores
+     * Get game data kept as plain text, e.g. a counter changed with updateGameData
      *
-     * @param limit - the maximum number of scores
-     * @return a List of highscores
+     * @param name - the name given to the data stored
+     * @return returns null if no data was found with that name, otherwise the text stored
      */
-    public List<Highscore> getAllHighscores(int limit) {
-        return highscoreParser.parse(processRequest(requestFactory.buildAllHighscoresRequest(limit)));
+    public String getGameDataText(String name) {
+        return getRawData(null, name);
     }
 
     /**
-     * Grab the top 10 highscores
+     * Get the verified player's data kept as plain text, e.g. a counter changed with updateUserData
      *
-     * @return a List of highscores
+     * @param name - the name given to the data stored
+     * @return returns null if no data was found with that name, otherwise the text stored
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
      */
-    public List<Highscore> getTop10Highscores() {
-        return getAllHighscores(10);
+    public String getUserDataText(String name) throws UnverifiedUserException {
+        return getRawData(currentSession(), name);
     }
 
     /**
-     * Grab a limited number of user highscores
+     * Adds the amount to the game data counter with the given name, a negative amount is subtracted.
+     * <p/>
+     * With a counter flush interval set, increments are added up locally and sent as one update per interval.
      *
-     * @param limit - the maximum number of scores
-     * @return a List of highscores
-     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @param name   - the name given to the counter
+     * @param amount - the amount to add
      */
-    public List<Highscore> getUserHighscores(int limit) throws UnverifiedUserException {
-        assertVerified();
-        return highscoreParser.parse(processRequest(requestFactory.buildUserHighscoresRequest(username, userToken, limit)));
+    public void incrementGameData(String name, long amount) {
+        increment(null, name, amount);
     }
 
     /**
-     * Grab the user's top 10 highscores
+     * Adds the amount to the verified player's counter with the given name, a negative amount is subtracted
      *
-     * @return a List of highscores
+     * @param name   - the name given to the counter
+     * @param amount - the amount to add
      * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @see #incrementGameData(String, long)
      */
-    public List<Highscore> getTop10UserHighscores() throws UnverifiedUserException {
-        return getUserHighscores(10);
+    public void incrementUserData(String name, long amount) throws UnverifiedUserException {
+        increment(currentSession(), name, amount);
     }
 
     /**
-     * User has achieved a new highscore
+     * Adds up increments of the same counter locally and sends them as a single update once per interval.
+     * <p/>
+     * Call flushCounters before your game exits so no increments are lost. Changing the interval or turning it off
+     * sends the pending increments first, any that cannot be sent are reported to the CounterFailureListener. Turned
+     * off by default.
      *
-     * @param displayedText - the text to be displayed on Game Jolt
-     * @param score         - the literal score which will be used to determine if this score is higher than the other scores
-     * @param extra         - extra data to be displayed
-     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
-     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @param interval - the time between updates, 0 to send every increment right away
+     * @param unit     - the unit of the interval
      */
-    public boolean userAchievedHighscore(String displayedText, int score, String extra) throws UnverifiedUserException {
-        assertVerified();
-        return wasSuccessful(requestFactory.buildUserAchievedHighscoreRequest(username, userToken, displayedText, score, extra));
+    public void setCounterFlushInterval(long interval, TimeUnit unit) {
+        CounterAggregator previous = counterAggregator;
+        counterAggregator = interval > 0 ? new CounterAggregator(this, unit.toMillis(interval), counterFailureListener) : null;
+        if (previous != null) {
+            previous.shutdown();
+        }
     }
 
     /**
-     * User has achieved a new highscore
-     * <p/>
-     * The score display formatting is using Java's NumberFormat class.
+     * Notified when increments held back by the counter flush interval are given up.
      * <p/>
-     * By default the score's formatting is "###,###,###,###,###", if you do not like this formatting you can easily change the formatting by calling the setter for the HighscoreFormatter.
+     * Increments are sent again with the next flush, a few times at most, only when they certainly were not applied:
+     * Game Jolt rejected the update or could not be reached. After any other failure the update may have been applied
+     * already, so the increments are given up rather than risk counting them twice.
      *
-     * @param score - the score achieved
-     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
-     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @param counterFailureListener - the listener, or null to give up increments silently
      */
-    public boolean userAchievedHighscore(int score) throws UnverifiedUserException {
-        return userAchievedHighscore(highscoreFormatter.format(score), score, "");
-    }
-
-    public void setObjectSerializer(com.gamejolt.io.ObjectSerializer objectSerializer) {
-        this.objectSerializer = objectSerializer;
+    public void setCounterFailureListener(CounterFailureListener counterFailureListener) {
+        this.counterFailureListener = counterFailureListener;
+        CounterAggregator aggregator = counterAggregator;
+        if (aggregator != null) {
+            aggregator.setFailureListener(counterFailureListener);
+        }
     }
 
-    public void setHighscoreFormatter(NumberFormat highscoreFormatter) {
-        this.highscoreFormatter = highscoreFormatter;
+    /**
+     * Sends all increments held back by the counter flush interval right away
+     */
+    public void flushCounters() {
+        CounterAggregator aggregator = counterAggregator;
+        if (aggregator != null) {
+            aggregator.flush();
+        }
     }
 
-    protected void setBinarySanitizer(BinarySanitizer binarySanitizer) {
-        this.binarySanitizer = binarySanitizer;
+    void increment(UserSession session, String name, long amount) {
+        CounterAggregator aggregator = counterAggregator;
+        if (aggregator != null) {
+            aggregator.increment(session, name, amount);
+        } else if (amount != 0) {
+            DataStoreOperation operation = amount > 0 ? DataStoreOperation.ADD : DataStoreOperation.SUBTRACT;
+            updateData(session, name, operation, String.valueOf(Math.abs(amount)));
+        }
     }
 
-    @Deprecated
-    private boolean wasSuccessful(HttpRequest request) {
-        final AtomicBoolean result = new AtomicBoolean(false);
-        request.execute(new SuccessResponseHandler(propertiesParser) {
-            protected void handleSuccess() {
-                result.set(true);
-            }
-
-            protected void handleFailure() {
-                result.set(false);
-            }
-        });
+    String updateData(UserSession session, final String name, DataStoreOperation operation, String value) {
+        final DataKey key = DataKey.of(session, name);
+        DataStoreCache cache = dataStoreCache;
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+        ChangeDetector detector = changeDetector;
+        if (detector != null) {
+            detector.forget(key);
+        }
+        MissingLookupCache missing = missingLookupCache;
+        if (missing != null) {
+            missing.stored(key);
+        }
 
-        return result.get();
-    }
+        versionChanging(key, null);
 
-    @Deprecated
-    private String processRequest(HttpRequest request) {
-        final StringBuilder stringBuilder = new StringBuilder();
-        request.execute(new HttpResponseHandlerAdapter() {
-            public void handle(HttpResponse response) {
-                stringBuilder.append(response.getContentAsString());
+        HttpRequest request;
+        if (session == null) {
+            request = requestFactory.buildUpdateGameDataRequest(name, operation, value);
+        } else {
+            request = requestFactory.buildUpdateUserDataRequest(session.getUsername(), session.getUserToken(), name, operation, value);
+        }
+        final AtomicReference<String> data = new AtomicReference<String>();
+        request.execute(new DumpResponseHandler() {
+            protected void handleSuccess(byte[] content, int offset, int length) {
+                String updated = new String(content, offset, length);
+                versionChanged(key, updated);
+                indexKey(key, true);
+                data.set(updated);
             }
         });
-        return stringBuilder.toString();
+        return data.get();
     }
 
-    private boolean doesNotNeedToVerify(String username, String userToken) {
-        return verified && username.equals(this.username) && userToken.equals(this.userToken);
+    /**
+     * Store a large object specific to the game, split over several keys.
+     * <p/>
+     * Use this for data too large for a single request, like replays or levels. The chunks are sent in parallel and
+     * the listener is only notified once all of them are stored.
+     *
+     * @param name - the name given to the data
+     * @param data - the data to be stored
+     * @param listener - the callback that is notified on success, and on failure if it is a StoreListener
+     */
+    public void storeChunkedGameData(String name, Object data, Listener listener) {
+        if (data == null) {
+            throw new NullPointerException(format(STORE_NULL_OBJECT, "removeChunkedGameData"));
+        }
+        chunkedStorage.store(null, name, data, listener);
+    }
+
+    /**
+     * Store a large object specific to the verified player, split over several keys
+     *
+     * @param name - the name given to the data
+     * @param data - the data to be stored
+     * @param listener - the callback that is notified on success, and on failure if it is a StoreListener
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @see #storeChunkedGameData(String, Object, Listener)
+     */
+    public void storeChunkedUserData(String name, Object data, Listener listener) throws UnverifiedUserException {
+        storeChunkedUserData(currentSession(), name, data, listener);
+    }
+
+    void storeChunkedUserData(UserSession session, String name, Object data, Listener listener) {
+        if (data == null) {
+            throw new NullPointerException(format(STORE_NULL_OBJECT, "removeChunkedUserData"));
+        }
+        chunkedStorage.store(session, name, data, listener);
+    }
+
+    /**
+     * Get game data stored with storeChunkedGameData, the chunks are fetched in parallel and checked against their
+     * checksums. Data stored with storeGameData is read as well.
+     *
+     * @param name - the name of the data
+     * @return the object found or null if not found
+     */
+    public Object getChunkedGameData(String name) {
+        return chunkedStorage.get(null, name);
+    }
+
+    /**
+     * Get the verified player's data stored with storeChunkedUserData
+     *
+     * @param name - the name of the data
+     * @return the object found or null if not found
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     * @see #getChunkedGameData(String)
+     */
+    public Object getChunkedUserData(String name) throws UnverifiedUserException {
+        return getChunkedUserData(currentSession(), name);
+    }
+
+    Object getChunkedUserData(UserSession session, String name) {
+        return chunkedStorage.get(session, name);
+    }
+
+    /**
+     * Remove game data stored with storeChunkedGameData along with all its chunks
+     *
+     * @param name - the name of the data to be removed
+     * @param listener - the callback that is notified on success
+     */
+    public void removeChunkedGameData(String name, Listener listener) {
+        chunkedStorage.remove(null, name, listener);
+    }
+
+    /**
+     * Remove the verified player's data stored with storeChunkedUserData along with all its chunks
+     *
+     * @param name - the name of the data to be removed
+     * @param listener - the callback that is notified on success
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public void removeChunkedUserData(String name, Listener listener) throws UnverifiedUserException {
+        removeChunkedUserData(currentSession(), name, listener);
+    }
+
+    void removeChunkedUserData(UserSession session, String name, Listener listener) {
+        chunkedStorage.remove(session, name, listener);
+    }
+
+    /**
+     * Loads all the game data stored
+     *
+     * @return a Map<String,Object> containing all persisted data
+     */
+    public Map<String, Object> loadAllGameData() {
+        GameDataDiskCache diskCache = gameDataDiskCache;
+        if (diskCache != null) {
+            return loadAllGameData(diskCache);
+        }
+        final Map<String, Object> data = new LinkedHashMap<String, Object>();
+        getGameDataKeys(new DataKeysListener() {
+            public void keys(List<String> keys) {
+                for (String key : keys) {
+                    data.put(key, getGameData(key));
+                }
+            }
+        });
+        return data;
+    }
+
+    /**
+     * Lists all the game data stored without fetching any of it, each value is fetched the first time it is read
+     *
+     * @return a LazyDataMap containing all persisted data
+     */
+    public LazyDataMap lazyLoadAllGameData() {
+        final List<String> found = new ArrayList<String>();
+        getGameDataKeys(new DataKeysListener() {
+            public void keys(List<String> keys) {
+                found.addAll(keys);
+            }
+        });
+        return new LazyDataMap(this, backgroundExecutor(), null, found);
+    }
+
+    /**
+     * Keeps a copy of all game data on disk, so loadAllGameData only downloads the keys that changed since it last ran.
+     * <p/>
+     * Which keys changed is tracked by a version marker per key kept in the data store. Storing or updating game data
+     * through a GameJolt using a disk cache first stores the marker of the new version, and fails if it cannot, then
+     * removes the marker it replaced in the background: each game data write costs an extra request before it and
+     * another one after it. Data changed any other way, e.g. from the Game Jolt dashboard, is only noticed once its
+     * marker is removed, a key without a marker or with several markers is always downloaded.
+     *
+     * @param gameDataDiskCache - the disk cache, or null to always download all game data
+     */
+    public void setGameDataDiskCache(GameDataDiskCache gameDataDiskCache) {
+        this.gameDataDiskCache = gameDataDiskCache;
+    }
+
+    /**
+     * Records the version markers of the game data disk cache on the given executor
+     *
+     * @param versionRecorder - the executor the markers are recorded on
+     */
+    void setVersionRecorder(ExecutorService versionRecorder) {
+        gameDataVersions.setRecorder(versionRecorder);
+    }
+
+    /**
+     * The threads shared by all requests this instance sends in parallel, each caller limits how many it uses at once.
+     * Created on first use, idle threads go away after a while.
+     *
+     * @return the executor lending its threads to parallel requests
+     */
+    synchronized Executor backgroundExecutor() {
+        if (backgroundExecutor == null) {
+            backgroundExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), daemonThreads("gamejolt-background-%d"));
+        }
+        return backgroundExecutor;
+    }
+
+    private Map<String, Object> loadAllGameData(GameDataDiskCache diskCache) {
+        gameDataVersions.flush();
+        final List<String> keys = new ArrayList<String>();
+        listAllGameDataKeys(new DataKeysListener() {
+            public void keys(List<String> found) {
+                keys.addAll(found);
+            }
+        });
+        Map<String, String> published = gameDataVersions.versions(keys);
+        Map<String, String> cached = diskCache.versions();
+        Map<String, String> sanitized = new LinkedHashMap<String, String>();
+        Map<String, String> versions = new LinkedHashMap<String, String>();
+        boolean changed = false;
+        for (String key : DataKey.withoutReserved(keys)) {
+            String version = published.get(key);
+            String value = version != null && version.equals(cached.get(key)) ? diskCache.read(key) : null;
+            if (value == null) {
+                String stored = getRawData(null, key);
+                value = stored == null ? null : chunkedStorage.resolve(null, key, stored);
+                String current = stored == null ? null : gameDataVersions.version(stored);
+                if (current == null ? version != null : !current.equals(version)) {
+                    gameDataVersions.record(key, current);
+                }
+                version = current;
+                changed = true;
+            }
+            if (value != null) {
+                sanitized.put(key, value);
+                versions.put(key, version);
+            }
+        }
+        changed |= !cached.keySet().equals(sanitized.keySet());
+        if (changed) {
+            diskCache.write(versions, sanitized);
+        }
+
+        Map<String, Object> data = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, String> entry : sanitized.entrySet()) {
+            data.put(entry.getKey(), unsanitize(entry.getValue()));
+        }
+        return data;
+    }
+
+    /**
+     * Loads all the user data stored
+     *
+     * @return a Map<String,Object> containing all persisted data
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public Map<String, Object> loadAllUserData() throws UnverifiedUserException {
+        return loadAllUserData(currentSession());
+    }
+
+    Map<String, Object> loadAllUserData(final UserSession session) {
+        final Map<String, Object> data = new LinkedHashMap<String, Object>();
+        getUserDataKeys(session, new DataKeysListener() {
+            public void keys(List<String> keys) {
+                for (String key : keys) {
+                    data.put(key, getUserData(session, key));
+                }
+            }
+        });
+        return data;
+    }
+
+    /**
+     * Lists all the user data stored without fetching any of it, each value is fetched the first time it is read
+     *
+     * @return a LazyDataMap containing all persisted data
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public LazyDataMap lazyLoadAllUserData() throws UnverifiedUserException {
+        return lazyLoadAllUserData(currentSession());
+    }
+
+    LazyDataMap lazyLoadAllUserData(UserSession session) {
+        final List<String> found = new ArrayList<String>();
+        getUserDataKeys(session, new DataKeysListener() {
+            public void keys(List<String> keys) {
+                found.addAll(keys);
+            }
+        });
+        return new LazyDataMap(this, backgroundExecutor(), session, found);
+    }
+
+    /**
+     * Grab a limited number of highscores
+     *
+     * @param limit - the maximum number of scores
+     * @return a List of highscores
+     */
+    public List<Highscore> getAllHighscores(int limit) {
+        return getHighscores(null, limit);
+    }
+
+    /**
+     * Grab a limited number of highscores of the given table
+     *
+     * @param limit   - the maximum number of scores
+     * @param tableId - the id of the highscore table
+     * @return a List of highscores
+     */
+    public List<Highscore> getAllHighscores(int limit, int tableId) {
+        return getHighscores(tableId, limit);
+    }
+
+    /**
+     * Grab a limited number of highscores of each of the given tables, the tables are looked up concurrently
+     *
+     * @param limit    - the maximum number of scores per table
+     * @param tableIds - the ids of the highscore tables
+     * @return the highscores of each table keyed by its id, in the order the ids were given
+     */
+    public Map<Integer, List<Highscore>> getAllHighscores(final int limit, Collection<Integer> tableIds) {
+        Map<Integer, List<Highscore>> scores = new LinkedHashMap<Integer, List<Highscore>>();
+        if (tableIds.isEmpty()) {
+            return scores;
+        }
+
+        List<Integer> ids = new ArrayList<Integer>(tableIds);
+        List<Callable<List<Highscore>>> lookups = new ArrayList<Callable<List<Highscore>>>();
+        for (final Integer tableId : ids) {
+            lookups.add(new Callable<List<Highscore>>() {
+                public List<Highscore> call() {
+                    return getHighscores(tableId, limit);
+                }
+            });
+        }
+
+        List<List<Highscore>> found = runAll(backgroundExecutor(), lookups, MAX_CONCURRENT_HIGHSCORE_REQUESTS);
+        for (int i = 0; i < ids.size(); i++) {
+            scores.put(ids.get(i), found.get(i));
+        }
+        return scores;
+    }
+
+    /**
+     * Grab a limited number of highscores in a compact form meant for large score lists, these are not cached
+     *
+     * @param limit - the maximum number of scores
+     * @return the highscores kept in columns
+     */
+    public HighscoreColumns getAllHighscoreColumns(int limit) {
+        return highscoreParser.parseColumns(processRequest(requestFactory.buildAllHighscoresRequest(limit)));
+    }
+
+    /**
+     * Grab a limited number of highscores of the given table in a compact form meant for large score lists, these are not cached
+     *
+     * @param limit   - the maximum number of scores
+     * @param tableId - the id of the highscore table
+     * @return the highscores kept in columns
+     */
+    public HighscoreColumns getAllHighscoreColumns(int limit, int tableId) {
+        return highscoreParser.parseColumns(processRequest(requestFactory.buildAllHighscoresRequest(limit, tableId)));
+    }
+
+    /**
+     * Walks through all highscores a page at a time, each page is parsed as it is downloaded and the next page is
+     * fetched while the current one is being read. Close the iterator when stopping before the end.
+     *
+     * @param pageSize - the number of scores to request per page, at most 100
+     * @return an iterator over the highscores, best score first
+     */
+    public HighscoreIterator iterateAllHighscores(int pageSize) {
+        return new HighscoreIterator(this, backgroundExecutor(), null, pageSize);
+    }
+
+    /**
+     * Walks through all highscores of the given table a page at a time, each page is parsed as it is downloaded and
+     * the next page is fetched while the current one is being read. Close the iterator when stopping before the end.
+     *
+     * @param pageSize - the number of scores to request per page, at most 100
+     * @param tableId  - the id of the highscore table
+     * @return an iterator over the highscores, best score first
+     */
+    public HighscoreIterator iterateAllHighscores(int pageSize, int tableId) {
+        return new HighscoreIterator(this, backgroundExecutor(), tableId, pageSize);
+    }
+
+    HighscoreColumns getHighscorePage(Integer tableId, int limit, Integer worseThan) {
+        final AtomicReference<HighscoreColumns> page = new AtomicReference<HighscoreColumns>();
+        requestFactory.buildHighscoresPageRequest(limit, tableId, worseThan).execute(new StreamingHttpResponseHandler() {
+            public void handle(InputStream content) throws IOException {
+                page.set(highscoreParser.parseColumns(new InputStreamReader(content, Charsets.UTF_8)));
+            }
+        });
+        return page.get();
+    }
+
+    /**
+     * Grab the top 10 highscores
+     *
+     * @return a List of highscores
+     */
+    public List<Highscore> getTop10Highscores() {
+        return getAllHighscores(10);
+    }
+
+    /**
+     * Grab the top 10 highscores of the given table
+     *
+     * @param tableId - the id of the highscore table
+     * @return a List of highscores
+     */
+    public List<Highscore> getTop10Highscores(int tableId) {
+        return getAllHighscores(10, tableId);
+    }
+
+    /**
+     * Grab all highscore tables of your game
+     *
+     * @return a List of highscore tables
+     */
+    public List<HighscoreTable> getHighscoreTables() {
+        return highscoreParser.parseTables(processRequest(requestFactory.buildHighscoreTablesRequest()));
+    }
+
+    /**
+     * Keeps the highscores of each table in memory for the given duration, turned off by default.
+     * <p/>
+     * Scores submitted through this GameJolt drop what is cached for their table, scores submitted any other way show
+     * up once the cached scores expire. Cached lists cannot be modified.
+     *
+     * @param duration - how long highscores are kept, 0 to always ask Game Jolt
+     * @param unit     - the unit of the duration
+     */
+    public void setHighscoreCacheDuration(long duration, TimeUnit unit) {
+        this.highscoreCache = duration > 0 ? new HighscoreCache(duration, unit) : null;
+    }
+
+    private List<Highscore> getHighscores(final Integer tableId, final int limit) {
+        HighscoreCache cache = highscoreCache;
+        if (cache == null) {
+            return fetchHighscores(tableId, limit);
+        }
+        return cache.get(tableId, limit, new Callable<List<Highscore>>() {
+            public List<Highscore> call() {
+                return fetchHighscores(tableId, limit);
+            }
+        });
+    }
+
+    private List<Highscore> fetchHighscores(Integer tableId, int limit) {
+        HttpRequest request;
+        if (tableId == null) {
+            request = requestFactory.buildAllHighscoresRequest(limit);
+        } else {
+            request = requestFactory.buildAllHighscoresRequest(limit, tableId);
+        }
+        return highscoreParser.parse(processRequest(request));
+    }
+
+    /**
+     * Grab a limited number of user highscores
+     *
+     * @param limit - the maximum number of scores
+     * @return a List of highscores
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public List<Highscore> getUserHighscores(int limit) throws UnverifiedUserException {
+        return getUserHighscores(currentSession(), limit);
+    }
+
+    List<Highscore> getUserHighscores(UserSession session, int limit) {
+        return highscoreParser.parse(processRequest(requestFactory.buildUserHighscoresRequest(session.getUsername(), session.getUserToken(), limit)));
+    }
+
+    /**
+     * Grab a limited number of user highscores of the given table
+     *
+     * @param limit   - the maximum number of scores
+     * @param tableId - the id of the highscore table
+     * @return a List of highscores
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public List<Highscore> getUserHighscores(int limit, int tableId) throws UnverifiedUserException {
+        return getUserHighscores(currentSession(), limit, tableId);
+    }
+
+    List<Highscore> getUserHighscores(UserSession session, int limit, int tableId) {
+        return highscoreParser.parse(processRequest(requestFactory.buildUserHighscoresRequest(session.getUsername(), session.getUserToken(), limit, tableId)));
+    }
+
+    /**
+     * Grab the user's top 10 highscores
+     *
+     * @return a List of highscores
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public List<Highscore> getTop10UserHighscores() throws UnverifiedUserException {
+        return getUserHighscores(10);
+    }
+
+    /**
+     * User has achieved a new highscore
+     *
+     * @param displayedText - the text to be displayed on Game Jolt
+     * @param score         - the literal score which will be used to determine if this score is higher than the other scores
+     * @param extra         - extra data to be displayed
+     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public boolean userAchievedHighscore(String displayedText, int score, String extra) throws UnverifiedUserException {
+        return userAchievedHighscore(currentSession(), displayedText, score, extra);
+    }
+
+    boolean userAchievedHighscore(UserSession session, String displayedText, int score, String extra) {
+        return submittedHighscore(null, requestFactory.buildUserAchievedHighscoreRequest(session.getUsername(), session.getUserToken(), displayedText, score, extra));
+    }
+
+    /**
+     * User has achieved a new highscore on the given table
+     *
+     * @param displayedText - the text to be displayed on Game Jolt
+     * @param score         - the literal score which will be used to determine if this score is higher than the other scores
+     * @param extra         - extra data to be displayed
+     * @param tableId       - the id of the highscore table
+     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public boolean userAchievedHighscore(String displayedText, int score, String extra, int tableId) throws UnverifiedUserException {
+        return userAchievedHighscore(currentSession(), displayedText, score, extra, tableId);
+    }
+
+    boolean userAchievedHighscore(UserSession session, String displayedText, int score, String extra, int tableId) {
+        return submittedHighscore(tableId, requestFactory.buildUserAchievedHighscoreRequest(session.getUsername(), session.getUserToken(), displayedText, score, extra, tableId));
+    }
+
+    /**
+     * User has achieved a new highscore
+     * <p/>
+     * The score display formatting is using Java's NumberFormat class.
+     * <p/>
+     * By default the score's formatting is "###,###,###,###,###", if you do not like this formatting you can easily change the formatting by calling the setter for the HighscoreFormatter.
+     *
+     * @param score - the score achieved
+     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
+     * @throws UnverifiedUserException is thrown if the given player has not be verified yet
+     */
+    public boolean userAchievedHighscore(int score) throws UnverifiedUserException {
+        return userAchievedHighscore(currentSession(), score);
+    }
+
+    boolean userAchievedHighscore(UserSession session, int score) {
+        return userAchievedHighscore(session, formatHighscore(score), score, "");
+    }
+
+    /**
+     * A player without a Game Jolt account has achieved a new highscore
+     *
+     * @param guest         - the name the guest goes by
+     * @param displayedText - the text to be displayed on Game Jolt
+     * @param score         - the literal score which will be used to determine if this score is higher than the other scores
+     * @param extra         - extra data to be displayed
+     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
+     */
+    public boolean guestAchievedHighscore(String guest, String displayedText, int score, String extra) {
+        return submittedHighscore(null, requestFactory.buildGuestAchievedHighscoreRequest(guest, displayedText, score, extra));
+    }
+
+    /**
+     * A player without a Game Jolt account has achieved a new highscore on the given table
+     *
+     * @param guest         - the name the guest goes by
+     * @param displayedText - the text to be displayed on Game Jolt
+     * @param score         - the literal score which will be used to determine if this score is higher than the other scores
+     * @param extra         - extra data to be displayed
+     * @param tableId       - the id of the highscore table
+     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
+     */
+    public boolean guestAchievedHighscore(String guest, String displayedText, int score, String extra, int tableId) {
+        return submittedHighscore(tableId, requestFactory.buildGuestAchievedHighscoreRequest(guest, displayedText, score, extra, tableId));
+    }
+
+    /**
+     * A player without a Game Jolt account has achieved a new highscore, formatted with the HighscoreFormatter
+     *
+     * @param guest - the name the guest goes by
+     * @param score - the score achieved
+     * @return <p>true - successfully added highscore</p><p>false - failed adding highscore</p>
+     */
+    public boolean guestAchievedHighscore(String guest, int score) {
+        return guestAchievedHighscore(guest, formatHighscore(score), score, "");
+    }
+
+    private boolean submittedHighscore(Integer tableId, HttpRequest request) {
+        boolean added = wasSuccessful(request);
+        HighscoreCache cache = highscoreCache;
+        if (added && cache != null) {
+            cache.invalidateTable(tableId);
+        }
+        return added;
+    }
+
+    public void setObjectSerializer(com.gamejolt.io.ObjectSerializer objectSerializer) {
+        this.objectSerializer = objectSerializer;
+    }
+
+    public void setHighscoreFormatter(NumberFormat highscoreFormatter) {
+        this.highscoreFormatter = highscoreFormatter;
+    }
+
+    /**
+     * Replaces how stored data is compressed and encoded, e.g. with a BinarySanitizer set to url safe encoding
+     *
+     * @param binarySanitizer - the sanitizer used for all data store requests
+     */
+    public void setBinarySanitizer(BinarySanitizer binarySanitizer) {
+        this.binarySanitizer = binarySanitizer;
+    }
+
+    /**
+     * Registers a dictionary so stored data compressed with it can be read
+     *
+     * @param dictionary - a dictionary stored data may have been compressed with
+     */
+    public void registerCompressionDictionary(CompressionDictionary dictionary) {
+        binarySanitizer.addDictionary(dictionary);
+    }
+
+    /**
+     * Compresses all stored data with the given dictionary from now on, it is registered for reading as well
+     *
+     * @param dictionary - the dictionary to compress with, or null to stop using one
+     */
+    public void useCompressionDictionary(CompressionDictionary dictionary) {
+        binarySanitizer.setDictionary(dictionary);
+    }
+
+    @Deprecated
+    private boolean wasSuccessful(HttpRequest request) {
+        final AtomicBoolean result = new AtomicBoolean(false);
+        request.execute(new SuccessResponseHandler(propertiesParser) {
+            protected void handleSuccess() {
+                result.set(true);
+            }
+
+            protected void handleFailure() {
+                result.set(false);
+            }
+        });
+
+        return result.get();
+    }
+
+    @Deprecated
+    private String processRequest(HttpRequest request) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        request.execute(new HttpResponseHandlerAdapter() {
+            public void handle(HttpResponse response) {
+                stringBuilder.append(response.getContentAsString());
+            }
+        });
+        return stringBuilder.toString();
+    }
+
+    private boolean verify(final String username, final String userToken) {
+        if (verificationCache == null) {
+            return requestVerification(username, userToken);
+        }
+        return verificationCache.verify(gameId, username, userToken, new Callable<Boolean>() {
+            public Boolean call() {
+                return requestVerification(username, userToken);
+            }
+        });
+    }
+
+    private boolean requestVerification(String username, String userToken) {
+        final AtomicBoolean verified = new AtomicBoolean(false);
+        HttpRequest request = requestFactory.buildVerifyUserRequest(username, userToken);
+        request.execute(new SuccessResponseHandler(propertiesParser) {
+            protected void handleSuccess() {
+                verified.set(true);
+            }
+        });
+        return verified.get();
+    }
+
+    private boolean doesNotNeedToVerify(String username, String userToken) {
+        UserSession current = session;
+        return current != null && username.equals(current.getUsername()) && userToken.equals(current.getUserToken());
+    }
+
+    private String formatHighscore(int score) {
+        NumberFormat formatter = highscoreFormatter;
+        synchronized (formatter) {
+            return formatter.format(score);
+        }
     }
 
     protected void setRequestFactory(RequestFactory requestFactory) {
@@ -528,33 +1487,389 @@ public class GameJolt {
         this.propertiesParser = propertiesParser;
     }
 
-    private void getTrophies(String achieved, final TrophiesLookupListener listener) {
-        assertVerified();
-        HttpRequest request = requestFactory.buildTrophiesRequest(username, userToken, achieved);
+    void getTrophies(UserSession session, final String achieved, final TrophiesLookupListener listener) {
+        HttpRequest request = requestFactory.buildTrophiesRequest(session.getUsername(), session.getUserToken(), achieved);
         request.execute(new TrophyHttpResponseHandler(trophyParser) {
             protected void handle(List<Trophy> trophies) {
+                MissingLookupCache missing = missingLookupCache;
+                if (missing != null && "empty".equals(achieved)) {
+                    missing.trophiesListed(trophies);
+                }
                 listener.foundTrophies(trophies);
             }
         });
     }
 
-    private Object deserializeData(HttpRequest request) {
-        String responseContent = processRequest(request);
-        String[] lines = responseContent.split("\r\n|\n");
-        String successOrFailure = lines[0];
-        if ("SUCCESS".equalsIgnoreCase(successOrFailure)) {
-            String data = lines[1];
-            return objectSerializer.deserialize(binarySanitizer.unsanitize(data));
+    /**
+     * Sets the number of characters of sanitized data stored per chunk by the chunked data methods, 4096 by default
+     *
+     * @param chunkSize - the size of a chunk
+     */
+    public void setChunkSize(int chunkSize) {
+        chunkedStorage.setChunkSize(chunkSize);
+    }
+
+    /**
+     * Sets how many chunks are sent or fetched at the same time by the chunked data methods, 4 by default
+     *
+     * @param maxConcurrentChunkRequests - the maximum number of chunk requests in flight
+     */
+    public void setMaxConcurrentChunkRequests(int maxConcurrentChunkRequests) {
+        chunkedStorage.setMaxConcurrentRequests(maxConcurrentChunkRequests);
+    }
+
+    /**
+     * Skips storing data when its serialized bytes are the same as the bytes last stored successfully under its name.
+     * <p/>
+     * Only a hash of the stored bytes is kept per name and player. Turned off by default.
+     *
+     * @param skipUnchangedData - true to skip storing unchanged data
+     */
+    public void setSkipUnchangedData(boolean skipUnchangedData) {
+        this.changeDetector = skipUnchangedData ? new ChangeDetector() : null;
+    }
+
+    /**
+     * Holds back data stores for the given window, when the same name is stored again within the window only the
+     * latest data is sent.
+     * <p/>
+     * Storing becomes asynchronous, the data is serialized when it is sent and listeners are notified from a
+     * background thread. A store that fails or is rejected is retried after another window, a few times at most,
+     * before it is given up, StoreListeners are told why and its failure is thrown by the next flushCoalescedData.
+     * Call flushCoalescedData before your game exits so no data is lost. Turned off by default.
+     *
+     * @param window - the time to wait for more data stored under the same name, 0 to turn coalescing off
+     * @param unit   - the unit of the window
+     */
+    public void setDataCoalescingWindow(long window, TimeUnit unit) {
+        WriteCoalescer previous = writeCoalescer;
+        writeCoalescer = window > 0 ? new WriteCoalescer(this, unit.toMillis(window)) : null;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Sends all data held back by the coalescing window right away
+     *
+     * @throws GameJoltException is thrown if data could not be stored, neither now after a few attempts nor in the
+     *                           background since the last flush
+     */
+    public void flushCoalescedData() {
+        WriteCoalescer coalescer = writeCoalescer;
+        if (coalescer != null) {
+            coalescer.flush();
+        }
+    }
+
+    private void storeData(UserSession session, String name, Object data, Listener listener) {
+        WriteCoalescer coalescer = writeCoalescer;
+        if (coalescer != null) {
+            coalescer.write(session, name, data, listener);
+        } else {
+            sendData(session, name, data, listener);
+        }
+    }
+
+    void sendData(UserSession session, String name, final Object data, final Listener listener) {
+        final DataKey key = DataKey.of(session, name);
+        final ChangeDetector detector = changeDetector;
+        final DataStoreCache cache = dataStoreCache;
+        final String sanitized;
+        final long hash;
+        if (detector == null) {
+            sanitized = sanitize(data);
+            hash = 0;
+        } else {
+            byte[] bytes = serialize(data);
+            hash = detector.hash(bytes);
+            if (detector.isUnchanged(key, hash)) {
+                listener.success();
+                return;
+            }
+            sanitized = binarySanitizer.sanitize(bytes);
+        }
+
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+        final MissingLookupCache missing = missingLookupCache;
+        if (missing != null) {
+            missing.stored(key);
+        }
+        versionChanging(key, sanitized);
+        buildStoreRequest(session, name, sanitized).execute(new SuccessResponseHandler(propertiesParser) {
+            protected void handleSuccess() {
+                if (detector != null) {
+                    detector.stored(key, hash);
+                }
+                versionChanged(key, sanitized);
+                if (cache != null) {
+                    cache.put(key, sanitized.getBytes(Charsets.US_ASCII), null);
+                }
+                indexKey(key, true);
+                listener.success();
+            }
+
+            protected void handleFailure() {
+                storeFailed(listener, format(STORE_REJECTED, key.getKey()));
+            }
+        });
+    }
+
+    /**
+     * Tells the listener of a store why it failed, if it wants to know
+     */
+    static void storeFailed(Listener listener, String reason) {
+        if (listener instanceof StoreListener) {
+            ((StoreListener) listener).failed(reason);
+        }
+    }
+
+    /**
+     * Remembers data keys and trophy ids that do not exist, so looking them up again returns right away.
+     * <p/>
+     * Listing data keys remembers every key that exists, any other key is then known to be missing, and listing all
+     * trophies does the same for trophy ids. Storing data through this GameJolt makes its key exist again, but data and
+     * trophies added any other way are only noticed after forgetMissingLookups or listing the keys again. Turned off by
+     * default.
+     *
+     * @param rememberMissingLookups - true to remember missing keys and trophies
+     */
+    public void setRememberMissingLookups(boolean rememberMissingLookups) {
+        this.missingLookupCache = rememberMissingLookups ? new MissingLookupCache() : null;
+    }
+
+    /**
+     * Forgets every data key and trophy id remembered as missing
+     */
+    public void forgetMissingLookups() {
+        MissingLookupCache missing = missingLookupCache;
+        if (missing != null) {
+            missing.invalidateAll();
+        }
+    }
+
+    /**
+     * Keeps data read from and stored to the data store in memory, turned off by default
+     *
+     * @param dataStoreCache - the cache to use, or null to always read from Game Jolt
+     */
+    public void setDataStoreCache(DataStoreCache dataStoreCache) {
+        this.dataStoreCache = dataStoreCache;
+    }
+
+    Object getData(UserSession session, String name) {
+        DataKey key = DataKey.of(session, name);
+        MissingLookupCache missing = missingLookupCache;
+        if (missing != null && missing.isMissing(key)) {
+            return null;
+        }
+        DataStoreCache cache = dataStoreCache;
+        if (cache == null) {
+            Object data = deserializeData(session, name);
+            if (data == null && missing != null) {
+                missing.missing(key);
+            }
+            return data;
+        }
+
+        DataStoreCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            boolean share = cache.isSharingObjects();
+            Object shared = entry.data;
+            if (share && shared != null) {
+                return shared;
+            }
+            Object data = unsanitize(entry.sanitized, 0, entry.sanitized.length);
+            if (share) {
+                entry.data = data;
+            }
+            return data;
+        }
+        byte[] sanitized = getStoredBytes(session, name);
+        if (sanitized == null) {
+            return null;
+        }
+        Object data = unsanitize(sanitized, 0, sanitized.length);
+        cache.put(key, sanitized, cache.isSharingObjects() ? data : null);
+        return data;
+    }
+
+    /**
+     * @return the sanitized bytes stored under the key, joined from their chunks if they were stored chunked
+     */
+    private byte[] getStoredBytes(UserSession session, String key) {
+        final AtomicReference<byte[]> stored = new AtomicReference<byte[]>();
+        buildGetRequest(session, key).execute(new DumpResponseHandler() {
+            protected void handleSuccess(byte[] content, int offset, int length) {
+                stored.set(Arrays.copyOfRange(content, offset, offset + length));
+            }
+        });
+        byte[] bytes = stored.get();
+        if (bytes != null && ChunkManifest.isManifest(bytes, 0, bytes.length)) {
+            String sanitized = chunkedStorage.resolve(session, key, new String(bytes, Charsets.US_ASCII));
+            return sanitized == null ? null : sanitized.getBytes(Charsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    private void forgetStoredData(DataKey key) {
+        MissingLookupCache missing = missingLookupCache;
+        if (missing != null) {
+            missing.stored(key);
+        }
+        DataStoreCache cache = dataStoreCache;
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+        ChangeDetector detector = changeDetector;
+        if (detector != null) {
+            detector.forget(key);
+        }
+        WriteCoalescer coalescer = writeCoalescer;
+        if (coalescer != null) {
+            coalescer.cancel(key);
+        }
+    }
+
+    private HttpRequest buildStoreRequest(UserSession session, String key, String data) {
+        if (session == null) {
+            return requestFactory.buildStoreGameDataRequest(key, data);
+        }
+        return requestFactory.buildStoreUserDataRequest(session.getUsername(), session.getUserToken(), key, data);
+    }
+
+    private HttpRequest buildGetRequest(UserSession session, String key) {
+        if (session == null) {
+            return requestFactory.buildGetGameDataRequest(key);
+        }
+        return requestFactory.buildGetUserDataRequest(session.getUsername(), session.getUserToken(), key);
+    }
+
+    boolean storeRawData(UserSession session, String key, String data) {
+        DataKey dataKey = DataKey.of(session, key);
+        forgetStoredData(dataKey);
+        versionChanging(dataKey, data);
+        boolean stored = wasSuccessful(buildStoreRequest(session, key, data));
+        if (stored) {
+            versionChanged(dataKey, data);
+            indexKey(dataKey, true);
+        }
+        return stored;
+    }
+
+    String getRawData(UserSession session, String key) {
+        DataKey dataKey = DataKey.of(session, key);
+        MissingLookupCache missing = missingLookupCache;
+        if (missing != null && missing.isMissing(dataKey)) {
+            return null;
+        }
+        final AtomicReference<String> data = new AtomicReference<String>();
+        buildGetRequest(session, key).execute(new DumpResponseHandler() {
+            protected void handleSuccess(byte[] content, int offset, int length) {
+                data.set(new String(content, offset, length));
+            }
+        });
+        if (data.get() == null && missing != null) {
+            missing.missing(dataKey);
+        }
+        return data.get();
+    }
+
+    /**
+     * @return the sanitized data stored under the key, joined from its chunks if it was stored chunked
+     */
+    String getStoredData(UserSession session, String key) {
+        String stored = getRawData(session, key);
+        return stored == null ? null : chunkedStorage.resolve(session, key, stored);
+    }
+
+    boolean removeRawData(UserSession session, String key) {
+        DataKey dataKey = DataKey.of(session, key);
+        forgetStoredData(dataKey);
+        HttpRequest request;
+        if (session == null) {
+            request = requestFactory.buildRemoveGameDataRequest(key);
+        } else {
+            request = requestFactory.buildRemoveUserDataRequest(session.getUsername(), session.getUserToken(), key);
+        }
+        boolean removed = wasSuccessful(request);
+        if (removed) {
+            versionChanged(dataKey, null);
+            indexKey(dataKey, false);
+        }
+        return removed;
+    }
+
+    private Object unsanitize(byte[] content, int offset, int length) {
+        return unsanitize(objectSerializer, content, offset, length);
+    }
+
+    private Object unsanitize(ObjectSerializer serializer, byte[] content, int offset, int length) {
+        if (serializer instanceof StreamingObjectSerializer) {
+            return binarySanitizer.unsanitize(content, offset, length, (StreamingObjectSerializer) serializer);
+        }
+        return serializer.deserialize(binarySanitizer.unsanitize(content, offset, length));
+    }
+
+    Object unsanitize(String data) {
+        if (objectSerializer instanceof StreamingObjectSerializer) {
+            byte[] bytes = data.getBytes();
+            return binarySanitizer.unsanitize(bytes, 0, bytes.length, (StreamingObjectSerializer) objectSerializer);
+        }
+        return objectSerializer.deserialize(binarySanitizer.unsanitize(data));
+    }
+
+    String sanitize(Object data) {
+        if (objectSerializer instanceof StreamingObjectSerializer) {
+            return binarySanitizer.sanitize(data, (StreamingObjectSerializer) objectSerializer);
         }
-        return null;
+        return binarySanitizer.sanitize(serialize(data));
+    }
+
+    private byte[] serialize(Object data) {
+        byte[] bytes = objectSerializer.serialize(data);
+        if (bytes == null) {
+            throw new NullPointerException(format(NULL_BYTES, data.getClass()));
+        }
+        return bytes;
+    }
+
+    private Object deserializeData(UserSession session, String name) {
+        final ObjectSerializer serializer = objectSerializer;
+        final AtomicReference<Object> data = new AtomicReference<Object>();
+        final AtomicReference<String> manifest = new AtomicReference<String>();
+        buildGetRequest(session, name).execute(new DumpResponseHandler() {
+            protected void handleSuccess(byte[] content, int offset, int length) {
+                if (ChunkManifest.isManifest(content, offset, length)) {
+                    manifest.set(new String(content, offset, length));
+                } else {
+                    data.set(unsanitize(serializer, content, offset, length));
+                }
+            }
+        });
+        if (manifest.get() != null) {
+            String sanitized = chunkedStorage.resolve(session, name, manifest.get());
+            return sanitized == null ? null : unsanitize(sanitized);
+        }
+        return data.get();
     }
 
     protected void assertVerified() {
-        if (!verified) {
+        if (session == null) {
             throw new UnverifiedUserException();
         }
     }
 
+    private UserSession currentSession() {
+        UserSession current = session;
+        if (current == null) {
+            assertVerified();
+        }
+        return current;
+    }
+
     protected void setHighscoreParser(HighscoreParser highscoreParser) {
         this.highscoreParser = highscoreParser;
     }
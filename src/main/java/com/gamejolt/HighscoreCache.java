@@ -0,0 +1,88 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the highscores of each table in memory for a while, keyed by table and limit. Concurrent lookups of the same
+ * table and limit share a single request, and submitting a score drops what is cached for its table.
+ */
+class HighscoreCache {
+    private final Cache<LeaderboardKey, List<Highscore>> scores;
+
+    HighscoreCache(long duration, TimeUnit unit) {
+        this(duration, unit, Ticker.systemTicker());
+    }
+
+    HighscoreCache(long duration, TimeUnit unit, Ticker ticker) {
+        this.scores = CacheBuilder.newBuilder()
+                .expireAfterWrite(duration, unit)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * @param tableId - the table, or null for the primary table
+     * @param limit   - the maximum number of scores
+     * @param loader  - fetches the scores when they are not cached
+     * @return the scores, as a list that cannot be modified
+     */
+    List<Highscore> get(Integer tableId, int limit, final Callable<List<Highscore>> loader) {
+        try {
+            return scores.get(new LeaderboardKey(tableId, limit), new Callable<List<Highscore>>() {
+                public List<Highscore> call() throws Exception {
+                    return Collections.unmodifiableList(loader.call());
+                }
+            });
+        } catch (ExecutionException err) {
+            throw new GameJoltException(err.getCause());
+        } catch (UncheckedExecutionException err) {
+            if (err.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) err.getCause();
+            }
+            throw err;
+        }
+    }
+
+    /**
+     * Drops the cached scores of the table, along with those of the primary table since it may be the same table
+     *
+     * @param tableId - the table a score was submitted to, or null for the primary table
+     */
+    void invalidateTable(Integer tableId) {
+        if (tableId == null) {
+            scores.invalidateAll();
+            return;
+        }
+        Iterator<LeaderboardKey> keys = scores.asMap().keySet().iterator();
+        while (keys.hasNext()) {
+            LeaderboardKey key = keys.next();
+            if (key.tableId == null || key.tableId.equals(tableId)) {
+                keys.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import com.gamejolt.highscore.HighscoreColumns;
+import com.google.common.util.concurrent.Futures;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static com.gamejolt.util.Threads.await;
+
+/**
+ * Iterates over a leaderboard a page at a time, so only the page being read and the one being fetched are held.
+ * <p/>
+ * Each page asks for the scores worse than the last score of the page before. Entries tied with the last score are
+ * asked for again and skipped, so ties that span two pages are neither lost nor repeated. Game Jolt returns at most
+ * 100 scores a request, so a page never asks for more, and a tie that fills a whole page of 100 cannot be paged past:
+ * the iterator then fails with a GameJoltException rather than stopping early. The next page is fetched in the
+ * background as soon as the current one arrives. Call close when stopping early so that fetch is cancelled.
+ */
+public class HighscoreIterator implements Iterator<Highscore>, Closeable {
+    static final int MAX_LIMIT = 100;
+    private final GameJolt gameJolt;
+    private final Integer tableId;
+    private final int pageSize;
+    private final Executor fetcher;
+    private Future<Page> pending;
+    private HighscoreColumns current;
+    private int position;
+
+    HighscoreIterator(GameJolt gameJolt, Executor fetcher, Integer tableId, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_LIMIT + ": " + pageSize);
+        }
+        this.gameJolt = gameJolt;
+        this.tableId = tableId;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+        fetch(null, 0);
+    }
+
+    public synchronized boolean hasNext() {
+        while (current == null || position >= current.size()) {
+            if (pending == null) {
+                close();
+                return false;
+            }
+            nextPage();
+        }
+        return true;
+    }
+
+    public synchronized Highscore next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.get(position++);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("Highscores can not be removed");
+    }
+
+    /**
+     * Stops fetching pages, the iterator has no more scores afterwards
+     */
+    public synchronized void close() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        current = null;
+    }
+
+    private void nextPage() {
+        Page page;
+        try {
+            page = await(pending);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        pending = null;
+        current = page.scores;
+        position = Math.min(page.skip, current.size());
+
+        int size = current.size();
+        if (size < page.limit) {
+            return;
+        }
+        int lastScore = current.getScore(size - 1);
+        int lastDifferent = size - 2;
+        while (lastDifferent >= 0 && current.getScore(lastDifferent) == lastScore) {
+            lastDifferent--;
+        }
+        if (lastDifferent >= 0) {
+            fetch(current.getScore(lastDifferent), size - 1 - lastDifferent);
+        } else if (size < MAX_LIMIT) {
+            fetch(page.worseThan, size);
+        } else {
+            pending = Futures.immediateFailedFuture(new GameJoltException("More than " + MAX_LIMIT
+                    + " highscores are tied at " + lastScore + ", they cannot be paged past"));
+        }
+    }
+
+    private void fetch(final Integer worseThan, final int skip) {
+        final int limit = Math.min(pageSize + skip, MAX_LIMIT);
+        FutureTask<Page> page = new FutureTask<Page>(new Callable<Page>() {
+            public Page call() {
+                return new Page(gameJolt.getHighscorePage(tableId, limit, worseThan), worseThan, skip, limit);
+            }
+        });
+        fetcher.execute(page);
+        pending = page;
+    }
+
+    private static class Page {
+        final HighscoreColumns scores;
+        final Integer worseThan;
+        final int skip;
+        final int limit;
+
+        Page(HighscoreColumns scores, Integer worseThan, int skip, int limit) {
+            this.scores = scores;
+            this.worseThan = worseThan;
+            this.skip = skip;
+            this.limit = limit;
+        }
+    }
+}
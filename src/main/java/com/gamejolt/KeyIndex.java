@@ -0,0 +1,235 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact trie (radix tree) of data keys that answers prefix queries without scanning every key.
+ * <p/>
+ * Keys sharing a prefix share the nodes of that prefix, and chains of nodes with a single child are merged into one
+ * edge, so a family of keys like level_1 ... level_500 costs little more than the distinct suffixes. Keys are returned
+ * in lexicographic order. All methods are thread safe.
+ */
+public class KeyIndex {
+    private final Node root = new Node();
+    private int size;
+
+    public KeyIndex() {
+    }
+
+    public KeyIndex(Iterable<String> keys) {
+        for (String key : keys) {
+            add(key);
+        }
+    }
+
+    /**
+     * @param key - the key to add
+     * @return true if the key was not in the index yet
+     */
+    public synchronized boolean add(String key) {
+        Node node = root;
+        String rest = key;
+        while (rest.length() > 0) {
+            int index = node.indexOf(rest.charAt(0));
+            if (index < 0) {
+                Node leaf = new Node();
+                leaf.terminal = true;
+                node.insert(-index - 1, rest, leaf);
+                size++;
+                return true;
+            }
+            String label = node.labels[index];
+            int common = commonPrefixLength(label, rest);
+            if (common < label.length()) {
+                Node split = new Node();
+                split.labels = new String[]{label.substring(common)};
+                split.children = new Node[]{node.children[index]};
+                node.labels[index] = label.substring(0, common);
+                node.children[index] = split;
+            }
+            node = node.children[index];
+            rest = rest.substring(common);
+        }
+        if (node.terminal) {
+            return false;
+        }
+        node.terminal = true;
+        size++;
+        return true;
+    }
+
+    /**
+     * @param key - the key to remove
+     * @return true if the key was in the index
+     */
+    public synchronized boolean remove(String key) {
+        if (remove(root, key)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean contains(String key) {
+        Node node = root;
+        String rest = key;
+        while (rest.length() > 0) {
+            int index = node.indexOf(rest.charAt(0));
+            if (index < 0 || !rest.startsWith(node.labels[index])) {
+                return false;
+            }
+            rest = rest.substring(node.labels[index].length());
+            node = node.children[index];
+        }
+        return node.terminal;
+    }
+
+    /**
+     * @param prefix - the prefix the keys start with, an empty prefix matches every key
+     * @return the matching keys in lexicographic order
+     */
+    public synchronized List<String> keysWithPrefix(String prefix) {
+        List<String> keys = new ArrayList<String>();
+        Node node = root;
+        StringBuilder path = new StringBuilder();
+        String rest = prefix;
+        while (rest.length() > 0) {
+            int index = node.indexOf(rest.charAt(0));
+            if (index < 0) {
+                return keys;
+            }
+            String label = node.labels[index];
+            if (label.startsWith(rest)) {
+                path.append(label);
+                collect(node.children[index], path, keys);
+                return keys;
+            }
+            if (!rest.startsWith(label)) {
+                return keys;
+            }
+            path.append(label);
+            rest = rest.substring(label.length());
+            node = node.children[index];
+        }
+        collect(node, path, keys);
+        return keys;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean remove(Node node, String rest) {
+        if (rest.length() == 0) {
+            if (!node.terminal) {
+                return false;
+            }
+            node.terminal = false;
+            return true;
+        }
+        int index = node.indexOf(rest.charAt(0));
+        if (index < 0 || !rest.startsWith(node.labels[index])) {
+            return false;
+        }
+        Node child = node.children[index];
+        if (!remove(child, rest.substring(node.labels[index].length()))) {
+            return false;
+        }
+        if (!child.terminal && child.labels.length == 0) {
+            node.delete(index);
+        } else if (!child.terminal && child.labels.length == 1) {
+            node.labels[index] = node.labels[index] + child.labels[0];
+            node.children[index] = child.children[0];
+        }
+        return true;
+    }
+
+    private void collect(Node node, StringBuilder path, List<String> keys) {
+        if (node.terminal) {
+            keys.add(path.toString());
+        }
+        for (int i = 0; i < node.labels.length; i++) {
+            int length = path.length();
+            path.append(node.labels[i]);
+            collect(node.children[i], path, keys);
+            path.setLength(length);
+        }
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Children are kept in arrays sorted by the first character of their edge label, no two labels of a node start
+     * with the same character
+     */
+    private static class Node {
+        private static final String[] NO_LABELS = new String[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        String[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        boolean terminal;
+
+        int indexOf(char first) {
+            int low = 0;
+            int high = labels.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = labels[middle].charAt(0);
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insert(int index, String label, Node child) {
+            String[] newLabels = new String[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newLabels[index] = label;
+            newChildren[index] = child;
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        void delete(int index) {
+            String[] newLabels = new String[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import static com.gamejolt.util.Threads.await;
+import static com.gamejolt.util.Threads.executeAll;
+
+/**
+ * A read only map of stored data where each value is only fetched and deserialized when it is first read.
+ * <p/>
+ * The keys are known up front, so size, containsKey and keySet never fetch anything. Concurrent reads of the same key
+ * share a single fetch, and prefetch fetches a set of keys in parallel ahead of time. Values that could not be found
+ * read as null, a fetch that failed is forgotten so the next read of its key tries again.
+ */
+public class LazyDataMap extends AbstractMap<String, Object> {
+    private static final int PREFETCH_THREADS = 4;
+
+    private final GameJolt gameJolt;
+    private final Executor prefetcher;
+    private final UserSession session;
+    private final Set<String> keys;
+    private final ConcurrentMap<String, FutureTask<Object>> values = new ConcurrentHashMap<String, FutureTask<Object>>();
+
+    LazyDataMap(GameJolt gameJolt, Executor prefetcher, UserSession session, Collection<String> keys) {
+        this.gameJolt = gameJolt;
+        this.prefetcher = prefetcher;
+        this.session = session;
+        this.keys = new LinkedHashSet<String>(keys);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!keys.contains(key)) {
+            return null;
+        }
+        FutureTask<Object> value = valueOf((String) key);
+        value.run();
+        return await(value);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return keys.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            public Iterator<Entry<String, Object>> iterator() {
+                final Iterator<String> iterator = keys.iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    public Entry<String, Object> next() {
+                        return new LazyEntry(iterator.next());
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            public int size() {
+                return keys.size();
+            }
+        };
+    }
+
+    /**
+     * Fetches the given keys in the background, reading them later on does not wait for Game Jolt anymore
+     *
+     * @param keys - the keys to be fetched, keys that are not in the map are ignored
+     */
+    public void prefetch(Collection<String> keys) {
+        List<FutureTask<Object>> fetches = new ArrayList<FutureTask<Object>>();
+        for (String key : keys) {
+            if (this.keys.contains(key)) {
+                FutureTask<Object> value = valueOf(key);
+                if (!value.isDone()) {
+                    fetches.add(value);
+                }
+            }
+        }
+        executeAll(prefetcher, fetches, PREFETCH_THREADS);
+    }
+
+    /**
+     * @param key - the key to check
+     * @return true if the value of the key has been fetched already
+     */
+    public boolean isLoaded(String key) {
+        FutureTask<Object> value = values.get(key);
+        return value != null && value.isDone();
+    }
+
+    private FutureTask<Object> valueOf(final String key) {
+        FutureTask<Object> value = values.get(key);
+        if (value == null) {
+            FutureTask<Object> fetch = new FutureTask<Object>(new Callable<Object>() {
+                public Object call() {
+                    return gameJolt.getData(session, key);
+                }
+            }) {
+                @Override
+                protected void setException(Throwable t) {
+                    values.remove(key, this);
+                    super.setException(t);
+                }
+            };
+            value = values.putIfAbsent(key, fetch);
+            if (value == null) {
+                value = fetch;
+            }
+        }
+        return value;
+    }
+
+    private class LazyEntry implements Entry<String, Object> {
+        private final String key;
+
+        LazyEntry(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return get(key);
+        }
+
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            Object value = getValue();
+            return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+
+/**
+ * One entry of a leaderboard that changed between two snapshots. Ranks start at 1, a rank of 0 means the entry was not
+ * on that snapshot.
+ */
+public final class LeaderboardChange {
+    public enum Type {
+        /**
+         * The entry made it onto the leaderboard
+         */
+        ENTERED,
+        /**
+         * The entry kept its score but was pushed to another rank by other entries
+         */
+        MOVED,
+        /**
+         * The entry dropped off the leaderboard
+         */
+        LEFT,
+        /**
+         * A different score replaced the entry's score, better or worse depending on the table, its rank may have
+         * changed as well
+         */
+        SCORE_CHANGED
+    }
+
+    private final Type type;
+    private final Highscore previous;
+    private final Highscore current;
+    private final int previousRank;
+    private final int rank;
+
+    LeaderboardChange(Type type, Highscore previous, int previousRank, Highscore current, int rank) {
+        this.type = type;
+        this.previous = previous;
+        this.previousRank = previousRank;
+        this.current = current;
+        this.rank = rank;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the entry on the earlier snapshot, or null if it entered the leaderboard
+     */
+    public Highscore getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return the entry on the later snapshot, or null if it left the leaderboard
+     */
+    public Highscore getCurrent() {
+        return current;
+    }
+
+    public int getPreviousRank() {
+        return previousRank;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String toString() {
+        Highscore score = current == null ? previous : current;
+        return type + " " + score.getUser() + " " + previousRank + " -> " + rank;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+/**
+ * Identifies a leaderboard, the top scores of a highscore table
+ */
+final class LeaderboardKey {
+    final Integer tableId;
+    final int limit;
+
+    /**
+     * @param tableId - the table, or null for the primary table
+     * @param limit   - the maximum number of scores
+     */
+    LeaderboardKey(Integer tableId, int limit) {
+        this.tableId = tableId;
+        this.limit = limit;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LeaderboardKey)) return false;
+        LeaderboardKey other = (LeaderboardKey) o;
+        return limit == other.limit && (tableId == null ? other.tableId == null : tableId.equals(other.tableId));
+    }
+
+    public int hashCode() {
+        return 31 * (tableId == null ? 0 : tableId.hashCode()) + limit;
+    }
+
+    public String toString() {
+        return (tableId == null ? "primary" : "table " + tableId) + " top " + limit;
+    }
+}
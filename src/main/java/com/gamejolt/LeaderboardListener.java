@@ -0,0 +1,30 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+public interface LeaderboardListener {
+    /**
+     * @param snapshot - the scores of the leaderboard after they changed
+     */
+    void updated(LeaderboardSnapshot snapshot);
+
+    /**
+     * The leaderboard could not be polled, or this listener failed handling its update, polling carries on regardless
+     *
+     * @param tableId - the highscore table, or null for the primary table
+     * @param limit   - the maximum number of scores
+     * @param cause   - what went wrong
+     */
+    void failed(Integer tableId, int limit, RuntimeException cause);
+}
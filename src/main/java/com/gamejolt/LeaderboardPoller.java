@@ -0,0 +1,242 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import com.google.common.base.Objects;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.gamejolt.util.Threads.daemonThreads;
+
+/**
+ * Polls each leaderboard once per interval for any number of subscribers, instead of every subscriber polling on
+ * its own.
+ * <p/>
+ * Each leaderboard is fetched and parsed once per poll, and subscribers are handed the same snapshot whenever the
+ * scores changed. A new subscriber gets the latest snapshot right away. The interval adapts to the leaderboard: it
+ * starts at the minimum interval, doubles every time a poll finds nothing changed until it reaches the maximum, and
+ * drops back to the minimum as soon as the scores change. Leaderboards without subscribers are not polled.
+ * <p/>
+ * Subscribers are notified from the poller's thread, so they should hand off any slow work. A failed poll is reported
+ * to every subscriber of the leaderboard and retried after the next interval.
+ */
+public class LeaderboardPoller {
+    private final GameJolt gameJolt;
+    private final Map<LeaderboardKey, Board> boards = new ConcurrentHashMap<LeaderboardKey, Board>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("gamejolt-leaderboards-%d"));
+    private volatile long minIntervalMillis = TimeUnit.SECONDS.toMillis(5);
+    private volatile long maxIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+
+    public LeaderboardPoller(GameJolt gameJolt) {
+        this.gameJolt = gameJolt;
+    }
+
+    /**
+     * Subscribes to the top scores of the primary highscore table
+     *
+     * @param limit    - the maximum number of scores
+     * @param listener - notified every time the scores change
+     */
+    public void subscribe(int limit, LeaderboardListener listener) {
+        subscribe(new LeaderboardKey(null, limit), listener);
+    }
+
+    /**
+     * Subscribes to the top scores of the given highscore table
+     *
+     * @param limit    - the maximum number of scores
+     * @param tableId  - the id of the highscore table
+     * @param listener - notified every time the scores change
+     */
+    public void subscribe(int limit, int tableId, LeaderboardListener listener) {
+        subscribe(new LeaderboardKey(tableId, limit), listener);
+    }
+
+    /**
+     * Stops notifying the listener of every leaderboard it subscribed to
+     *
+     * @param listener - the listener to be removed
+     */
+    public synchronized void unsubscribe(LeaderboardListener listener) {
+        for (Board board : boards.values()) {
+            board.listeners.remove(listener);
+            if (board.listeners.isEmpty()) {
+                boards.remove(board.key);
+                board.cancel();
+            }
+        }
+    }
+
+    /**
+     * Sets the interval bounds the polling adapts between, 5 seconds and 1 minute by default
+     *
+     * @param minInterval - the interval used while the scores keep changing
+     * @param maxInterval - the interval used once the scores stopped changing
+     * @param unit        - the unit of both intervals
+     */
+    public void setIntervals(long minInterval, long maxInterval, TimeUnit unit) {
+        this.minIntervalMillis = unit.toMillis(minInterval);
+        this.maxIntervalMillis = Math.max(unit.toMillis(maxInterval), minIntervalMillis);
+    }
+
+    /**
+     * Stops polling all leaderboards
+     */
+    public synchronized void shutdown() {
+        for (Board board : boards.values()) {
+            board.cancel();
+        }
+        boards.clear();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Polls every leaderboard right away on the calling thread
+     */
+    void pollAll() {
+        for (Board board : boards.values()) {
+            board.poll();
+        }
+    }
+
+    long intervalOf(LeaderboardKey key) {
+        Board board = boards.get(key);
+        return board == null ? -1 : board.intervalMillis;
+    }
+
+    private synchronized void subscribe(LeaderboardKey key, LeaderboardListener listener) {
+        Board board = boards.get(key);
+        if (board == null) {
+            board = new Board(key);
+            boards.put(key, board);
+            board.listeners.add(listener);
+            board.schedule(0);
+            return;
+        }
+        board.listeners.add(listener);
+        LeaderboardSnapshot latest = board.latest;
+        if (latest != null) {
+            notify(listener, latest);
+        }
+    }
+
+    private List<Highscore> fetch(LeaderboardKey key) {
+        if (key.tableId == null) {
+            return gameJolt.getAllHighscores(key.limit);
+        }
+        return gameJolt.getAllHighscores(key.limit, key.tableId);
+    }
+
+    private static void notify(LeaderboardListener listener, LeaderboardSnapshot snapshot) {
+        try {
+            listener.updated(snapshot);
+        } catch (RuntimeException err) {
+            notifyFailed(listener, snapshot.getTableId(), snapshot.getLimit(), err);
+        }
+    }
+
+    private static void notifyFailed(LeaderboardListener listener, Integer tableId, int limit, RuntimeException cause) {
+        try {
+            listener.failed(tableId, limit, cause);
+        } catch (RuntimeException err) {
+            // a failing listener must not stop the leaderboard from being polled
+        }
+    }
+
+    /**
+     * Only the player and the score are compared, the time of a score is relative to the poll, e.g. 2 days ago, and
+     * changes as time passes
+     */
+    private static boolean sameScores(List<Highscore> a, List<Highscore> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Highscore x = a.get(i);
+            Highscore y = b.get(i);
+            if (x.getScore() != y.getScore() || x.getUserId() != y.getUserId()
+                    || !Objects.equal(x.getUser(), y.getUser())
+                    || !Objects.equal(x.getDisplayedScore(), y.getDisplayedScore())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class Board implements Runnable {
+        final LeaderboardKey key;
+        final List<LeaderboardListener> listeners = new CopyOnWriteArrayList<LeaderboardListener>();
+        volatile LeaderboardSnapshot latest;
+        volatile long intervalMillis = minIntervalMillis;
+        private ScheduledFuture<?> next;
+
+        Board(LeaderboardKey key) {
+            this.key = key;
+        }
+
+        public void run() {
+            poll();
+            synchronized (LeaderboardPoller.this) {
+                if (boards.get(key) == this) {
+                    schedule(intervalMillis);
+                }
+            }
+        }
+
+        synchronized void poll() {
+            List<Highscore> scores;
+            try {
+                scores = fetch(key);
+            } catch (RuntimeException err) {
+                for (LeaderboardListener listener : listeners) {
+                    notifyFailed(listener, key.tableId, key.limit, err);
+                }
+                intervalMillis = Math.min(intervalMillis * 2, maxIntervalMillis);
+                return;
+            }
+
+            LeaderboardSnapshot previous = latest;
+            if (previous != null && sameScores(previous.scores(), scores)) {
+                intervalMillis = Math.min(intervalMillis * 2, maxIntervalMillis);
+                return;
+            }
+            intervalMillis = minIntervalMillis;
+            LeaderboardSnapshot snapshot = new LeaderboardSnapshot(key, scores, previous == null ? 1 : previous.getVersion() + 1, System.currentTimeMillis());
+            latest = snapshot;
+            for (LeaderboardListener listener : listeners) {
+                LeaderboardPoller.notify(listener, snapshot);
+            }
+        }
+
+        void schedule(long delayMillis) {
+            if (!scheduler.isShutdown()) {
+                next = scheduler.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void cancel() {
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+    }
+}
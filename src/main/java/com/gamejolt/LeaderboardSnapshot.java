@@ -0,0 +1,92 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The scores of a leaderboard as they were at one poll. A snapshot is shared between every subscriber, so it never
+ * hands out the scores it holds, only copies of them.
+ */
+public final class LeaderboardSnapshot {
+    private final Integer tableId;
+    private final int limit;
+    private final List<Highscore> scores;
+    private final int version;
+    private final long fetchedAt;
+
+    LeaderboardSnapshot(LeaderboardKey key, List<Highscore> scores, int version, long fetchedAt) {
+        this.tableId = key.tableId;
+        this.limit = key.limit;
+        this.scores = copy(scores);
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * @return the id of the highscore table, or null for the primary table
+     */
+    public Integer getTableId() {
+        return tableId;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return a copy of the scores, best score first
+     */
+    public List<Highscore> getScores() {
+        return copy(scores);
+    }
+
+    List<Highscore> scores() {
+        return scores;
+    }
+
+    /**
+     * @return a number that goes up by one every time the scores change, starting at 1
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return when the scores were fetched, in milliseconds since the epoch
+     */
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    private static List<Highscore> copy(List<Highscore> scores) {
+        List<Highscore> copies = new ArrayList<Highscore>(scores.size());
+        for (Highscore score : scores) {
+            Highscore copy = new Highscore();
+            copy.setDisplayedScore(score.getDisplayedScore());
+            copy.setScore(score.getScore());
+            copy.setExtraData(score.getExtraData());
+            copy.setUser(score.getUser());
+            copy.setUserId(score.getUserId());
+            copy.setGuestScore(score.isGuestScore());
+            copy.setTimeOfScore(score.getTimeOfScore());
+            copies.add(copy);
+        }
+        return Collections.unmodifiableList(copies);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import com.google.common.base.Objects;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Turns successive snapshots of a leaderboard into the changes between them, so only what changed has to be redrawn.
+ * <p/>
+ * Entries are matched by user id, or by name for guests, a player holding several entries is matched entry by entry
+ * in rank order. An entry whose score differs has a new score, one that only changed rank was moved by others, the
+ * time of a score is relative, e.g. 5 minutes ago, and is not compared. Subscribe a tracker to a LeaderboardPoller to diff every snapshot it publishes, or feed it scores with
+ * update. The entries of the last snapshot are kept in maps that are reused from one update to the next.
+ */
+public class LeaderboardTracker implements LeaderboardListener {
+    private final List<LeaderboardChangeListener> listeners = new CopyOnWriteArrayList<LeaderboardChangeListener>();
+    private final Deque<Entry> pool = new ArrayDeque<Entry>();
+    private final StringBuilder identity = new StringBuilder();
+    private Map<String, Entry> previous = new HashMap<String, Entry>();
+    private Map<String, Entry> current = new HashMap<String, Entry>();
+
+    /**
+     * @param listener - notified with the changes of every update that changed anything
+     */
+    public void addListener(LeaderboardChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(LeaderboardChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void updated(LeaderboardSnapshot snapshot) {
+        update(snapshot.getScores());
+    }
+
+    /**
+     * Nothing changed while the leaderboard could not be polled, the next snapshot is diffed against the last one
+     */
+    public void failed(Integer tableId, int limit, RuntimeException cause) {
+    }
+
+    /**
+     * Diffs the scores against those of the last update, the first update reports every entry as entered
+     *
+     * @param scores - the leaderboard, best score first
+     * @return the changes, ordered by the rank they left from and then by the rank they are at now
+     */
+    public List<LeaderboardChange> update(List<Highscore> scores) {
+        List<LeaderboardChange> changes;
+        synchronized (this) {
+            changes = diff(scores);
+        }
+        if (!changes.isEmpty()) {
+            List<LeaderboardChange> published = Collections.unmodifiableList(changes);
+            for (LeaderboardChangeListener listener : listeners) {
+                listener.changed(published);
+            }
+        }
+        return changes;
+    }
+
+    private List<LeaderboardChange> diff(List<Highscore> scores) {
+        for (int i = 0; i < scores.size(); i++) {
+            Highscore score = scores.get(i);
+            Entry entry = pool.isEmpty() ? new Entry() : pool.pop();
+            entry.score = score;
+            entry.rank = i + 1;
+            entry.matched = false;
+            current.put(identityOf(score), entry);
+        }
+
+        List<LeaderboardChange> left = new ArrayList<LeaderboardChange>();
+        List<LeaderboardChange> changed = new ArrayList<LeaderboardChange>();
+        for (Map.Entry<String, Entry> was : previous.entrySet()) {
+            Entry before = was.getValue();
+            Entry after = current.get(was.getKey());
+            if (after == null) {
+                left.add(new LeaderboardChange(LeaderboardChange.Type.LEFT, before.score, before.rank, null, 0));
+                continue;
+            }
+            after.matched = true;
+            if (!sameScore(before.score, after.score)) {
+                changed.add(new LeaderboardChange(LeaderboardChange.Type.SCORE_CHANGED, before.score, before.rank, after.score, after.rank));
+            } else if (before.rank != after.rank) {
+                changed.add(new LeaderboardChange(LeaderboardChange.Type.MOVED, before.score, before.rank, after.score, after.rank));
+            }
+        }
+        for (Entry after : current.values()) {
+            if (!after.matched) {
+                changed.add(new LeaderboardChange(LeaderboardChange.Type.ENTERED, null, 0, after.score, after.rank));
+            }
+        }
+
+        for (Entry entry : previous.values()) {
+            entry.score = null;
+            pool.push(entry);
+        }
+        previous.clear();
+        Map<String, Entry> swap = previous;
+        previous = current;
+        current = swap;
+
+        Collections.sort(left, BY_PREVIOUS_RANK);
+        Collections.sort(changed, BY_RANK);
+        left.addAll(changed);
+        return left;
+    }
+
+    /**
+     * The user id, or the name for guests, followed by how many entries of the same player ranked higher
+     */
+    private String identityOf(Highscore score) {
+        identity.setLength(0);
+        if (score.getUserId() != 0) {
+            identity.append('#').append(score.getUserId());
+        } else {
+            identity.append('@').append(score.getUser());
+        }
+        int length = identity.length();
+        int occurrence = 0;
+        String key;
+        do {
+            identity.setLength(length);
+            identity.append('/').append(occurrence++);
+            key = identity.toString();
+        } while (current.containsKey(key));
+        return key;
+    }
+
+    private static boolean sameScore(Highscore a, Highscore b) {
+        return a.getScore() == b.getScore() && Objects.equal(a.getDisplayedScore(), b.getDisplayedScore());
+    }
+
+    private static final Comparator<LeaderboardChange> BY_PREVIOUS_RANK = new Comparator<LeaderboardChange>() {
+        public int compare(LeaderboardChange a, LeaderboardChange b) {
+            return a.getPreviousRank() - b.getPreviousRank();
+        }
+    };
+
+    private static final Comparator<LeaderboardChange> BY_RANK = new Comparator<LeaderboardChange>() {
+        public int compare(LeaderboardChange a, LeaderboardChange b) {
+            return a.getRank() - b.getRank();
+        }
+    };
+
+    private static class Entry {
+        Highscore score;
+        int rank;
+        boolean matched;
+    }
+}
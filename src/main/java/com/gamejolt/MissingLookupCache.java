@@ -0,0 +1,126 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers data keys and trophy ids known not to exist, so looking them up again needs no round trip.
+ * <p/>
+ * Listing the keys of the game or a player fills a Bloom filter with every key that exists, any key the filter has
+ * never seen is missing. Keys and trophies found missing by a lookup are remembered as well. Storing a key makes it
+ * exist again, so the cache only ever answers that something is missing when nothing was stored since it looked.
+ * Reserved keys are never listed, so they are never answered for.
+ */
+class MissingLookupCache {
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int MIN_EXPECTED_KEYS = 64;
+
+    private final Map<String, Keys> keysByOwner = new HashMap<String, Keys>();
+    private final Set<Integer> missingTrophyIds = new HashSet<Integer>();
+    private Set<Integer> trophyIds;
+
+    synchronized boolean isMissing(DataKey key) {
+        if (key.isReserved()) {
+            return false;
+        }
+        Keys keys = keysByOwner.get(key.getUsername());
+        return keys != null && keys.isMissing(key.getKey());
+    }
+
+    synchronized void missing(DataKey key) {
+        if (key.isReserved()) {
+            return;
+        }
+        Keys keys = keysByOwner.get(key.getUsername());
+        if (keys == null) {
+            keys = new Keys(null);
+            keysByOwner.put(key.getUsername(), keys);
+        }
+        keys.missing.add(key.getKey());
+    }
+
+    synchronized void stored(DataKey key) {
+        Keys keys = keysByOwner.get(key.getUsername());
+        if (keys != null) {
+            keys.stored(key.getKey());
+        }
+    }
+
+    /**
+     * @param session - the player the keys belong to, or null for game data
+     * @param listed  - every key that exists
+     */
+    synchronized void listed(UserSession session, List<String> listed) {
+        BloomFilter<CharSequence> existing = BloomFilter.create(Funnels.stringFunnel(Charsets.UTF_8),
+                Math.max(listed.size() * 2, MIN_EXPECTED_KEYS), FALSE_POSITIVE_PROBABILITY);
+        for (String key : listed) {
+            existing.put(key);
+        }
+        keysByOwner.put(session == null ? null : session.getUsername(), new Keys(existing));
+    }
+
+    synchronized boolean isTrophyMissing(int trophyId) {
+        return missingTrophyIds.contains(trophyId) || (trophyIds != null && !trophyIds.contains(trophyId));
+    }
+
+    synchronized void trophyMissing(int trophyId) {
+        missingTrophyIds.add(trophyId);
+    }
+
+    /**
+     * @param trophies - every trophy of the game
+     */
+    synchronized void trophiesListed(List<Trophy> trophies) {
+        trophyIds = new HashSet<Integer>();
+        for (Trophy trophy : trophies) {
+            trophyIds.add(trophy.getId());
+        }
+        missingTrophyIds.clear();
+    }
+
+    synchronized void invalidateAll() {
+        keysByOwner.clear();
+        missingTrophyIds.clear();
+        trophyIds = null;
+    }
+
+    private static class Keys {
+        final BloomFilter<CharSequence> existing;
+        final Set<String> missing = new HashSet<String>();
+
+        Keys(BloomFilter<CharSequence> existing) {
+            this.existing = existing;
+        }
+
+        boolean isMissing(String key) {
+            return missing.contains(key) || (existing != null && !existing.mightContain(key));
+        }
+
+        void stored(String key) {
+            missing.remove(key);
+            if (existing != null) {
+                existing.put(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+/**
+ * A Listener that is also notified when data could not be stored. A plain Listener passed to a store is only
+ * notified on success.
+ */
+public interface StoreListener extends Listener {
+    /**
+     * @param reason - why the data could not be stored
+     */
+    void failed(String reason);
+}
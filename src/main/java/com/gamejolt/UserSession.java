@@ -0,0 +1,234 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import com.gamejolt.net.DataStoreOperation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A verified player's view of a shared GameJolt instance.
+ * <p/>
+ * A session only holds the player's credentials, everything else (the connection settings, parsers and serializers)
+ * belongs to the GameJolt instance that created it. Sessions are immutable and can be used from several threads.
+ *
+ * @see GameJolt#openSession(String, String)
+ */
+public final class UserSession {
+    private final GameJolt gameJolt;
+    private final String username;
+    private final String userToken;
+
+    UserSession(GameJolt gameJolt, String username, String userToken) {
+        this.gameJolt = gameJolt;
+        this.username = username;
+        this.userToken = userToken;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    String getUserToken() {
+        return userToken;
+    }
+
+    /**
+     * @see GameJolt#achievedTrophy(int, TrophyAchievedListener)
+     */
+    public void achievedTrophy(int trophyId, TrophyAchievedListener listener) {
+        gameJolt.achievedTrophy(this, trophyId, listener);
+    }
+
+    /**
+     * @see GameJolt#getTrophy(int, TrophyLookupListener)
+     */
+    public void getTrophy(int trophyId, TrophyLookupListener listener) {
+        gameJolt.getTrophy(this, trophyId, listener);
+    }
+
+    /**
+     * @see GameJolt#getAllTrophies(TrophiesLookupListener)
+     */
+    public void getAllTrophies(TrophiesLookupListener listener) {
+        gameJolt.getTrophies(this, "empty", listener);
+    }
+
+    /**
+     * @see GameJolt#getAchievedTrophies(TrophiesLookupListener)
+     */
+    public void getAchievedTrophies(TrophiesLookupListener listener) {
+        gameJolt.getTrophies(this, "true", listener);
+    }
+
+    /**
+     * @see GameJolt#getUnachievedTrophies(TrophiesLookupListener)
+     */
+    public void getUnachievedTrophies(TrophiesLookupListener listener) {
+        gameJolt.getTrophies(this, "false", listener);
+    }
+
+    /**
+     * @see GameJolt#storeUserData(String, Object, Listener)
+     */
+    public void storeUserData(String name, Object data, Listener listener) {
+        gameJolt.storeUserData(this, name, data, listener);
+    }
+
+    /**
+     * @see GameJolt#storeChunkedUserData(String, Object, Listener)
+     */
+    public void storeChunkedUserData(String name, Object data, Listener listener) {
+        gameJolt.storeChunkedUserData(this, name, data, listener);
+    }
+
+    /**
+     * @see GameJolt#getChunkedUserData(String)
+     */
+    public Object getChunkedUserData(String name) {
+        return gameJolt.getChunkedUserData(this, name);
+    }
+
+    /**
+     * @see GameJolt#removeChunkedUserData(String, Listener)
+     */
+    public void removeChunkedUserData(String name, Listener listener) {
+        gameJolt.removeChunkedUserData(this, name, listener);
+    }
+
+    /**
+     * @see GameJolt#removeUserData(String, Listener)
+     */
+    public void removeUserData(String name, Listener listener) {
+        gameJolt.removeUserData(this, name, listener);
+    }
+
+    /**
+     * @see GameJolt#getUserDataKeys(DataKeysListener)
+     */
+    public void getUserDataKeys(DataKeysListener listener) {
+        gameJolt.getUserDataKeys(this, listener);
+    }
+
+    /**
+     * @see GameJolt#getUserDataKeys(String, DataKeysListener)
+     */
+    public void getUserDataKeys(String pattern, DataKeysListener listener) {
+        gameJolt.getUserDataKeys(this, pattern, listener);
+    }
+
+    /**
+     * @see GameJolt#findUserDataKeys(String)
+     */
+    public List<String> findUserDataKeys(String prefix) {
+        return gameJolt.findUserDataKeys(this, prefix);
+    }
+
+    /**
+     * @see GameJolt#clearAllUserData(Listener)
+     */
+    public void clearAllUserData(Listener listener) {
+        gameJolt.clearAllUserData(this, listener);
+    }
+
+    /**
+     * @see GameJolt#getUserData(String)
+     */
+    public Object getUserData(String name) {
+        return gameJolt.getUserData(this, name);
+    }
+
+    /**
+     * @see GameJolt#updateUserData(String, com.gamejolt.net.DataStoreOperation, String)
+     */
+    public String updateUserData(String name, DataStoreOperation operation, String value) {
+        return gameJolt.updateData(this, name, operation, value);
+    }
+
+    /**
+     * @see GameJolt#getUserDataText(String)
+     */
+    public String getUserDataText(String name) {
+        return gameJolt.getRawData(this, name);
+    }
+
+    /**
+     * @see GameJolt#incrementUserData(String, long)
+     */
+    public void incrementUserData(String name, long amount) {
+        gameJolt.increment(this, name, amount);
+    }
+
+    /**
+     * @see GameJolt#loadAllUserData()
+     */
+    public Map<String, Object> loadAllUserData() {
+        return gameJolt.loadAllUserData(this);
+    }
+
+    /**
+     * @see GameJolt#lazyLoadAllUserData()
+     */
+    public LazyDataMap lazyLoadAllUserData() {
+        return gameJolt.lazyLoadAllUserData(this);
+    }
+
+    /**
+     * @see GameJolt#getUserHighscores(int)
+     */
+    public List<Highscore> getUserHighscores(int limit) {
+        return gameJolt.getUserHighscores(this, limit);
+    }
+
+    /**
+     * @see GameJolt#getTop10UserHighscores()
+     */
+    public List<Highscore> getTop10UserHighscores() {
+        return gameJolt.getUserHighscores(this, 10);
+    }
+
+    /**
+     * @see GameJolt#getUserHighscores(int, int)
+     */
+    public List<Highscore> getUserHighscores(int limit, int tableId) {
+        return gameJolt.getUserHighscores(this, limit, tableId);
+    }
+
+    /**
+     * @see GameJolt#userAchievedHighscore(String, int, String)
+     */
+    public boolean userAchievedHighscore(String displayedText, int score, String extra) {
+        return gameJolt.userAchievedHighscore(this, displayedText, score, extra);
+    }
+
+    /**
+     * @see GameJolt#userAchievedHighscore(String, int, String, int)
+     */
+    public boolean userAchievedHighscore(String displayedText, int score, String extra, int tableId) {
+        return gameJolt.userAchievedHighscore(this, displayedText, score, extra, tableId);
+    }
+
+    /**
+     * @see GameJolt#userAchievedHighscore(int)
+     */
+    public boolean userAchievedHighscore(int score) {
+        return gameJolt.userAchievedHighscore(this, score);
+    }
+
+    public String toString() {
+        return "UserSession{username=" + username + "}";
+    }
+}
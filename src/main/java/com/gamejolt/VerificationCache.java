@@ -0,0 +1,91 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.util.Checksum;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which players have been verified so reconnecting players do not each cost a users/auth request.
+ * <p/>
+ * Entries are keyed by a hash of the game, username and user token (the token itself is never kept) and expire
+ * after the given time. Concurrent verifications of the same credentials are coalesced into a single request.
+ * Failed verifications are not remembered.
+ */
+public class VerificationCache {
+    private static final VerificationCache SHARED = new VerificationCache(30, TimeUnit.MINUTES);
+    private final Cache<String, Boolean> verified;
+    private final Checksum checksum = new Checksum();
+
+    public VerificationCache(long duration, TimeUnit unit) {
+        this(duration, unit, Ticker.systemTicker());
+    }
+
+    VerificationCache(long duration, TimeUnit unit, Ticker ticker) {
+        this.verified = CacheBuilder.newBuilder().expireAfterWrite(duration, unit).ticker(ticker).build();
+    }
+
+    /**
+     * The cache shared by the whole process, entries live for 30 minutes
+     *
+     * @return the process wide verification cache
+     */
+    public static VerificationCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Forget every verified player
+     */
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    boolean verify(int gameId, String username, String userToken, final Callable<Boolean> verification) {
+        try {
+            return verified.get(key(gameId, username, userToken), new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    if (!verification.call()) {
+                        throw new NotVerified();
+                    }
+                    return Boolean.TRUE;
+                }
+            });
+        } catch (UncheckedExecutionException err) {
+            if (err.getCause() instanceof NotVerified) {
+                return false;
+            }
+            throw (RuntimeException) err.getCause();
+        } catch (ExecutionException err) {
+            throw new GameJoltException(err.getCause());
+        }
+    }
+
+    private String key(int gameId, String username, String userToken) {
+        return checksum.md5(gameId + "\n" + username + "\n" + userToken);
+    }
+
+    private static class NotVerified extends RuntimeException {
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.gamejolt.util.Threads.daemonThreads;
+
+/**
+ * Holds back data stores for a short window, when the same key is stored again within the window only the latest data
+ * is sent. Every listener of the coalesced stores is notified once the latest data is stored.
+ * <p/>
+ * A store that fails in the background, whether Game Jolt could not be reached or rejected the data, is queued again
+ * and retried after another window, unless newer data for the same key is already waiting, which then takes its
+ * listeners along. A flush retries right away instead. After MAX_ATTEMPTS failed attempts the store is given up: its
+ * listeners that are StoreListeners are told why, and its failure is thrown by the flush, or by the next flush when it
+ * was given up in the background.
+ */
+class WriteCoalescer {
+    static final int MAX_ATTEMPTS = 3;
+    private final GameJolt gameJolt;
+    private final long windowMillis;
+    private final Map<DataKey, PendingWrite> pending = new LinkedHashMap<DataKey, PendingWrite>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("gamejolt-coalescer-%d"));
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+    WriteCoalescer(GameJolt gameJolt, long windowMillis) {
+        this.gameJolt = gameJolt;
+        this.windowMillis = windowMillis;
+    }
+
+    void write(UserSession session, String name, Object data, Listener listener) {
+        DataKey key = DataKey.of(session, name);
+        synchronized (pending) {
+            PendingWrite write = pending.get(key);
+            if (write == null) {
+                write = new PendingWrite(key, session, name);
+                pending.put(key, write);
+                scheduler.schedule(sendLater(write), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            write.data = data;
+            write.listeners.add(listener);
+        }
+    }
+
+    /**
+     * Drops a pending store, e.g. because the data is being removed
+     */
+    void cancel(DataKey key) {
+        synchronized (pending) {
+            pending.remove(key);
+        }
+    }
+
+    /**
+     * Sends all pending stores right away on the calling thread
+     *
+     * @throws GameJoltException the first failure of a store given up now or in the background since the last flush
+     */
+    void flush() {
+        List<PendingWrite> writes;
+        synchronized (pending) {
+            writes = new ArrayList<PendingWrite>(pending.values());
+            pending.clear();
+        }
+        RuntimeException first = failure.getAndSet(null);
+        for (PendingWrite write : writes) {
+            RuntimeException err = send(write);
+            while (err != null && write.attempts < MAX_ATTEMPTS) {
+                err = send(write);
+            }
+            if (err != null) {
+                giveUp(write, err);
+            }
+            if (first == null) {
+                first = err;
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    void shutdown() {
+        try {
+            flush();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private Runnable sendLater(final PendingWrite write) {
+        return new Runnable() {
+            public void run() {
+                synchronized (pending) {
+                    if (pending.get(write.key) != write) {
+                        return;
+                    }
+                    pending.remove(write.key);
+                }
+                RuntimeException err = send(write);
+                if (err != null && (write.attempts >= MAX_ATTEMPTS || !requeue(write))) {
+                    failure.compareAndSet(null, err);
+                    giveUp(write, err);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the failure of the store, or null if it was sent
+     */
+    private RuntimeException send(final PendingWrite write) {
+        final AtomicReference<String> rejected = new AtomicReference<String>();
+        try {
+            gameJolt.sendData(write.session, write.name, write.data, new StoreListener() {
+                public void success() {
+                    for (Listener listener : write.listeners) {
+                        listener.success();
+                    }
+                }
+
+                public void failed(String reason) {
+                    rejected.set(reason);
+                }
+            });
+        } catch (RuntimeException err) {
+            write.attempts++;
+            return err;
+        }
+        if (rejected.get() != null) {
+            write.attempts++;
+            return new GameJoltException(rejected.get());
+        }
+        return null;
+    }
+
+    private void giveUp(PendingWrite write, RuntimeException err) {
+        for (Listener listener : write.listeners) {
+            GameJolt.storeFailed(listener, String.valueOf(err.getMessage()));
+        }
+    }
+
+    /**
+     * @return false if the store could not be queued again
+     */
+    private boolean requeue(PendingWrite write) {
+        synchronized (pending) {
+            PendingWrite newer = pending.get(write.key);
+            if (newer != null) {
+                newer.listeners.addAll(0, write.listeners);
+                return true;
+            }
+            try {
+                scheduler.schedule(sendLater(write), windowMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException err) {
+                return false;
+            }
+            pending.put(write.key, write);
+            return true;
+        }
+    }
+
+    private static class PendingWrite {
+        final DataKey key;
+        final UserSession session;
+        final String name;
+        final List<Listener> listeners = new ArrayList<Listener>();
+        Object data;
+        int attempts;
+
+        PendingWrite(DataKey key, UserSession session, String name) {
+            this.key = key;
+            this.session = session;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.highscore;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read only list of highscores kept in columns instead of one Highscore object per row, meant for large score lists.
+ * <p/>
+ * Scores and user ids are kept in int arrays. User names and times of score repeat a lot, so each distinct value is
+ * kept once and rows refer to it by index. Displayed scores and extra data are kept as UTF-8 in a single byte array
+ * and only turned into Strings when asked for. A Highscore for a row is created on demand with get, or through the
+ * view returned by asList.
+ */
+public final class HighscoreColumns {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private int[] scores;
+    private int[] userIds;
+    private int[] users;
+    private int[] timesOfScore;
+    private final BitSet guestScores = new BitSet();
+    private String[] pool;
+    private Map<String, Integer> poolIndexes = new HashMap<String, Integer>();
+    private int poolSize;
+    private byte[] text;
+    private int textLength;
+    private int[] textEnds;
+
+    HighscoreColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    HighscoreColumns(int capacity) {
+        capacity = Math.max(1, capacity);
+        scores = new int[capacity];
+        userIds = new int[capacity];
+        users = new int[capacity];
+        timesOfScore = new int[capacity];
+        textEnds = new int[capacity * 2];
+        pool = new String[INITIAL_CAPACITY];
+        text = new byte[capacity * 8];
+    }
+
+    /**
+     * @param scores - the scores to keep in columns
+     * @return the scores kept in columns, in the order they were given
+     */
+    public static HighscoreColumns of(Collection<Highscore> scores) {
+        HighscoreColumns columns = new HighscoreColumns(scores.size());
+        for (Highscore score : scores) {
+            columns.add(score.getDisplayedScore(), score.getScore(), score.getExtraData(), score.getUser(),
+                    score.getUserId(), score.isGuestScore(), score.getTimeOfScore());
+        }
+        return columns.trim();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getScore(int row) {
+        return scores[checkRow(row)];
+    }
+
+    public int getUserId(int row) {
+        return userIds[checkRow(row)];
+    }
+
+    public String getUser(int row) {
+        return pool[users[checkRow(row)]];
+    }
+
+    public boolean isGuestScore(int row) {
+        return guestScores.get(checkRow(row));
+    }
+
+    public String getTimeOfScore(int row) {
+        return pool[timesOfScore[checkRow(row)]];
+    }
+
+    public String getDisplayedScore(int row) {
+        return decode(checkRow(row) * 2);
+    }
+
+    public String getExtraData(int row) {
+        return decode(checkRow(row) * 2 + 1);
+    }
+
+    /**
+     * @return a copy of the sort values of all the rows
+     */
+    public int[] getScores() {
+        return Arrays.copyOf(scores, size);
+    }
+
+    /**
+     * @return a copy of the user ids of all the rows, guests have a user id of 0
+     */
+    public int[] getUserIds() {
+        return Arrays.copyOf(userIds, size);
+    }
+
+    /**
+     * @param row - the index of the row
+     * @return a new Highscore holding the values of the row
+     */
+    public Highscore get(int row) {
+        checkRow(row);
+        Highscore score = new Highscore();
+        score.setScore(scores[row]);
+        score.setUserId(userIds[row]);
+        score.setUser(pool[users[row]]);
+        score.setGuestScore(guestScores.get(row));
+        score.setTimeOfScore(pool[timesOfScore[row]]);
+        score.setDisplayedScore(decode(row * 2));
+        score.setExtraData(decode(row * 2 + 1));
+        return score;
+    }
+
+    /**
+     * @return a read only List view that creates each Highscore when it is read
+     */
+    public List<Highscore> asList() {
+        return new AbstractList<Highscore>() {
+            public Highscore get(int index) {
+                return HighscoreColumns.this.get(index);
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    void add(String displayedScore, int score, String extraData, String user, int userId, boolean guestScore, String timeOfScore) {
+        if (size == scores.length) {
+            int capacity = size * 2;
+            scores = Arrays.copyOf(scores, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            users = Arrays.copyOf(users, capacity);
+            timesOfScore = Arrays.copyOf(timesOfScore, capacity);
+            textEnds = Arrays.copyOf(textEnds, capacity * 2);
+        }
+        scores[size] = score;
+        userIds[size] = userId;
+        users[size] = intern(user);
+        timesOfScore[size] = intern(timeOfScore);
+        guestScores.set(size, guestScore);
+        textEnds[size * 2] = append(displayedScore);
+        textEnds[size * 2 + 1] = append(extraData);
+        size++;
+    }
+
+    /**
+     * Drops the spare room left from growing the columns, no rows can be added afterwards
+     */
+    HighscoreColumns trim() {
+        scores = Arrays.copyOf(scores, size);
+        userIds = Arrays.copyOf(userIds, size);
+        users = Arrays.copyOf(users, size);
+        timesOfScore = Arrays.copyOf(timesOfScore, size);
+        textEnds = Arrays.copyOf(textEnds, size * 2);
+        text = Arrays.copyOf(text, textLength);
+        pool = Arrays.copyOf(pool, poolSize);
+        poolIndexes = null;
+        return this;
+    }
+
+    private int intern(String value) {
+        Integer index = poolIndexes.get(value);
+        if (index == null) {
+            if (poolSize == pool.length) {
+                pool = Arrays.copyOf(pool, poolSize * 2);
+            }
+            index = poolSize++;
+            pool[index] = value;
+            poolIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    private int append(String value) {
+        if (value != null && value.length() > 0) {
+            byte[] bytes = value.getBytes(UTF_8);
+            if (textLength + bytes.length > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + bytes.length));
+            }
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            textLength += bytes.length;
+        }
+        return textLength;
+    }
+
+    private String decode(int cell) {
+        int start = cell == 0 ? 0 : textEnds[cell - 1];
+        return new String(text, start, textEnds[cell] - start, UTF_8);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+        return row;
+    }
+}
@@ -13,10 +13,16 @@
 
 package com.gamejolt.highscore;
 
+import com.gamejolt.GameJoltException;
 import com.gamejolt.util.Properties;
 import com.gamejolt.util.PropertiesParser;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -59,4 +65,103 @@ public class HighscoreParser {
 
         return scores;
     }
+
+    /**
+     * Parses the scores straight into a HighscoreColumns, without building a Properties object per score
+     *
+     * @param content - the response of a scores request
+     * @return the scores, empty if the request failed
+     */
+    public HighscoreColumns parseColumns(String content) {
+        try {
+            return parseColumns(new StringReader(content));
+        } catch (IOException e) {
+            throw new GameJoltException(e);
+        }
+    }
+
+    /**
+     * Parses the scores line by line as they are read, so a response does not have to be buffered first
+     *
+     * @param content - the response of a scores request
+     * @return the scores, empty if the request failed
+     * @throws IOException if reading the response fails
+     */
+    public HighscoreColumns parseColumns(Reader content) throws IOException {
+        HighscoreColumns columns = new HighscoreColumns();
+        BufferedReader reader = new BufferedReader(content);
+        Row row = new Row();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int indexOfColon = line.indexOf(':');
+            if (indexOfColon > -1) {
+                String key = line.substring(0, indexOfColon);
+                String value = line.substring(indexOfColon + 1).replace("\"", "").trim();
+                if (!row.put(key, value)) {
+                    row.addTo(columns);
+                    row = new Row();
+                    row.put(key, value);
+                }
+            }
+        }
+        row.addTo(columns);
+        return columns.trim();
+    }
+
+    public List<HighscoreTable> parseTables(String content) {
+        List<HighscoreTable> tables = new ArrayList<HighscoreTable>();
+
+        List<Properties> propertiesList = propertiesParser.parse(content);
+
+        if (propertiesList.size() == 1 && !propertiesList.get(0).getBoolean("success")) {
+            return tables;
+        }
+
+        for (Properties properties : propertiesList) {
+            HighscoreTable table = new HighscoreTable();
+            table.setId(properties.getInt("id"));
+            table.setName(properties.get("name"));
+            table.setDescription(properties.get("description"));
+            table.setPrimary("1".equals(properties.get("primary")) || properties.getBoolean("primary"));
+
+            tables.add(table);
+        }
+
+        return tables;
+    }
+
+    /**
+     * The fields of one score while it is being parsed, a repeated key starts the next score
+     */
+    private static class Row {
+        private static final List<String> KEYS = Arrays.asList("success", "message", "score", "sort", "extra_data", "user", "user_id", "guest", "stored");
+        private final String[] values = new String[KEYS.size()];
+        private boolean hasScore;
+
+        boolean put(String key, String value) {
+            int index = KEYS.indexOf(key);
+            if (index < 0) return true;
+            if (values[index] != null) return false;
+            values[index] = value;
+            hasScore |= index > 1;
+            return true;
+        }
+
+        void addTo(HighscoreColumns columns) {
+            if (!hasScore) return;
+            String user = get("user");
+            boolean guest = user.length() == 0;
+            columns.add(get("score"), toInt(get("sort")), get("extra_data"), guest ? get("guest") : user,
+                    toInt(get("user_id")), guest, get("stored"));
+        }
+
+        private String get(String key) {
+            String value = values[KEYS.indexOf(key)];
+            return value == null ? "" : value;
+        }
+
+        private static int toInt(String value) {
+            return value.length() == 0 ? 0 : Integer.parseInt(value);
+        }
+    }
 }
@@ -15,16 +15,65 @@ package com.gamejolt.io;
 
 import com.gamejolt.GameJoltException;
 import com.gamejolt.util.Base64;
+import com.google.common.io.BaseEncoding;
 
 import java.io.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
+import static com.gamejolt.util.MessageFormat.format;
 
+
+/**
+ * Compresses and encodes binary data into text that can be stored by Game Jolt.
+ * <p/>
+ * By default the text is standard Base64, which the query string then has to percent-escape. Turn on url safe encoding
+ * to use the url safe Base64 alphabet without padding instead, those values start with a '.' marker so values stored
+ * either way can always be read back.
+ * <p/>
+ * By default the data is gzipped. Turn on adaptive compression to store small values as they are and deflate larger
+ * ones with pooled Deflaters, the first byte then records which was chosen. Gzipped data always starts with 0x1f so
+ * values stored either way can always be read back.
+ * <p/>
+ * Set a CompressionDictionary to deflate with a preset dictionary, which shrinks small values of similar structure
+ * considerably. Its id is stored with each value, register every dictionary that values may have been written with.
+ */
 public class BinarySanitizer {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_POOLED_COMPRESSORS = 8;
+    private static final char URL_SAFE_MARKER = '.';
+    private static final int STORED = 0x00;
+    private static final int DEFLATED = 0x01;
+    private static final int DEFLATED_WITH_DICTIONARY = 0x02;
+    private static final int GZIPPED = 0x1f;
+    private static final String UNKNOWN_COMPRESSION = "Unknown compression header {0}";
+    private static final String UNKNOWN_DICTIONARY = "No compression dictionary registered with id {0}";
+
     private Base64 encoder = new Base64();
+    private boolean urlSafe;
+    private boolean adaptiveCompression;
+    private int compressionThreshold = 64;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private volatile CompressionDictionary dictionary;
+    private final Map<Integer, CompressionDictionary> dictionaries = new ConcurrentHashMap<Integer, CompressionDictionary>();
+    private final CompressorPool compressors = new CompressorPool(MAX_POOLED_COMPRESSORS);
+    private final ThreadLocal<StringWriter> buffers = new ThreadLocal<StringWriter>() {
+        protected StringWriter initialValue() {
+            return new StringWriter(BUFFER_SIZE);
+        }
+    };
 
     public String sanitize(byte[] data) {
+        if (isCompressingAdaptively()) {
+            return encode(compress(data));
+        }
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         OutputStream output = null;
         try {
@@ -40,12 +89,16 @@ public class BinarySanitizer {
 
             }
         }
-        return encoder.encode(baos.toByteArray());
+        return encode(baos.toByteArray());
     }
 
     public byte[] unsanitize(String data) {
+        byte[] decoded = decode(data);
+        if (decoded.length > 0 && decoded[0] != GZIPPED) {
+            return decompress(decoded);
+        }
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ByteArrayInputStream bais = new ByteArrayInputStream(encoder.decode(data));
+        ByteArrayInputStream bais = new ByteArrayInputStream(decoded);
 
         InputStream input = null;
         try {
@@ -66,4 +119,355 @@ public class BinarySanitizer {
         }
         return baos.toByteArray();
     }
+
+    /**
+     * Decodes and decompresses the encoded text straight from the given bytes, without copying them into a String
+     *
+     * @param data   - the bytes holding the encoded text, e.g. the content of a response
+     * @param offset - where the encoded text starts
+     * @param length - the number of bytes of encoded text
+     * @return the bytes that were sanitized
+     */
+    public byte[] unsanitize(byte[] data, int offset, int length) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        InputStream input = null;
+        try {
+            input = openDecompressingStream(openDecodingStream(data, offset, length));
+            byte[] buffer = new byte[2048];
+            int len;
+            while ((len = input.read(buffer)) != -1) {
+                baos.write(buffer, 0, len);
+            }
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        } finally {
+            try {
+                if (input != null) input.close();
+            } catch (IOException e) {
+
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Serializes, compresses and encodes the given object in a single pass.
+     * <p/>
+     * The serializer writes straight into the compressor, which writes straight into the encoder, which appends to a
+     * buffer reused by the calling thread. The result is the same as sanitize(serializer.serialize(data)).
+     *
+     * @param data       - the object to be sanitized
+     * @param serializer - the serializer writing the object
+     * @return the encoded text safe to be sent to Game Jolt
+     */
+    public String sanitize(Object data, StreamingObjectSerializer serializer) {
+        StringWriter buffer = buffers.get();
+        buffer.getBuffer().setLength(0);
+        try {
+            OutputStream output = openCompressingStream(openEncodingStream(buffer));
+            serializer.serialize(data, output);
+            output.close();
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        }
+        String sanitized = buffer.toString();
+        if (buffer.getBuffer().capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            buffers.remove();
+        }
+        return sanitized;
+    }
+
+    /**
+     * Decodes, decompresses and deserializes the given encoded text in a single pass
+     *
+     * @param data       - the bytes holding the encoded text, e.g. the content of a response
+     * @param offset     - where the encoded text starts
+     * @param length     - the number of bytes of encoded text
+     * @param serializer - the serializer reading the object
+     * @return the object that was sanitized
+     */
+    public Object unsanitize(byte[] data, int offset, int length, StreamingObjectSerializer serializer) {
+        InputStream input = null;
+        try {
+            input = openDecompressingStream(openDecodingStream(data, offset, length));
+            return serializer.deserialize(input);
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        } finally {
+            try {
+                if (input != null) input.close();
+            } catch (IOException e) {
+
+            }
+        }
+    }
+
+    /**
+     * Sets whether data is encoded with the url safe Base64 alphabet, which is sent without any escaping
+     *
+     * @param urlSafe - true to encode url safe, false to encode standard Base64 (the default)
+     */
+    public void setUrlSafe(boolean urlSafe) {
+        this.urlSafe = urlSafe;
+    }
+
+    /**
+     * Sets whether small values are stored uncompressed and larger ones deflated, instead of gzipping everything
+     *
+     * @param adaptiveCompression - true to compress adaptively, false to gzip everything (the default)
+     */
+    public void setAdaptiveCompression(boolean adaptiveCompression) {
+        this.adaptiveCompression = adaptiveCompression;
+    }
+
+    /**
+     * Sets the size up to which values are stored uncompressed when compressing adaptively
+     *
+     * @param compressionThreshold - the size in bytes, 64 by default
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Sets the level values are deflated with when compressing adaptively
+     *
+     * @param compressionLevel - 0 to 9, or Deflater.DEFAULT_COMPRESSION (the default)
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Registers a dictionary for reading values that were compressed with it
+     *
+     * @param dictionary - the dictionary to be registered
+     */
+    public void addDictionary(CompressionDictionary dictionary) {
+        dictionaries.put(dictionary.getId(), dictionary);
+    }
+
+    /**
+     * Registers the given dictionary and compresses all values above the compression threshold with it
+     *
+     * @param dictionary - the dictionary to compress with, or null to stop using one
+     */
+    public void setDictionary(CompressionDictionary dictionary) {
+        if (dictionary != null) {
+            addDictionary(dictionary);
+        }
+        this.dictionary = dictionary;
+    }
+
+    private boolean isCompressingAdaptively() {
+        return adaptiveCompression || dictionary != null;
+    }
+
+    private byte[] compress(byte[] data) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length + 1);
+        try {
+            OutputStream output = openCompressingStream(baos);
+            output.write(data);
+            output.close();
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        }
+        return baos.toByteArray();
+    }
+
+    private byte[] decompress(byte[] data) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        InputStream input = null;
+        try {
+            input = openDecompressingStream(new ByteArrayInputStream(data));
+            byte[] buffer = new byte[2048];
+            int len;
+            while ((len = input.read(buffer)) != -1) {
+                baos.write(buffer, 0, len);
+            }
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        } finally {
+            try {
+                if (input != null) input.close();
+            } catch (IOException e) {
+
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private OutputStream openCompressingStream(OutputStream target) throws IOException {
+        if (isCompressingAdaptively()) {
+            return new AdaptiveCompressionOutputStream(target, dictionary);
+        }
+        return new BufferedOutputStream(new GZIPOutputStream(target), BUFFER_SIZE);
+    }
+
+    private InputStream openDecompressingStream(InputStream source) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(source, 1);
+        int header = input.read();
+        switch (header) {
+            case GZIPPED:
+                input.unread(header);
+                return new BufferedInputStream(new GZIPInputStream(input), BUFFER_SIZE);
+            case STORED:
+                return new BufferedInputStream(input, BUFFER_SIZE);
+            case DEFLATED:
+                return openInflatingStream(input, null);
+            case DEFLATED_WITH_DICTIONARY:
+                return openInflatingStream(input, findDictionary(input.read()));
+            default:
+                throw new GameJoltException(format(UNKNOWN_COMPRESSION, header));
+        }
+    }
+
+    private InputStream openInflatingStream(InputStream source, CompressionDictionary dictionary) {
+        final Inflater inflater = compressors.borrowInflater();
+        if (dictionary != null) {
+            inflater.setDictionary(dictionary.bytes());
+        }
+        return new BufferedInputStream(new InflaterInputStream(source, inflater, BUFFER_SIZE) {
+            public void close() throws IOException {
+                super.close();
+                compressors.release(inflater);
+            }
+        }, BUFFER_SIZE);
+    }
+
+    private CompressionDictionary findDictionary(int id) {
+        CompressionDictionary found = dictionaries.get(id);
+        if (found == null) {
+            throw new GameJoltException(format(UNKNOWN_DICTIONARY, id));
+        }
+        return found;
+    }
+
+    private String encode(byte[] data) {
+        if (urlSafe) {
+            return URL_SAFE_MARKER + encoder.encodeUrlSafe(data);
+        }
+        return encoder.encode(data);
+    }
+
+    private byte[] decode(String data) {
+        if (isUrlSafe(data)) {
+            return encoder.decodeUrlSafe(data.substring(1));
+        }
+        return encoder.decode(data);
+    }
+
+    private boolean isUrlSafe(CharSequence data) {
+        return data.length() > 0 && data.charAt(0) == URL_SAFE_MARKER;
+    }
+
+    private OutputStream openEncodingStream(Writer target) throws IOException {
+        if (urlSafe) {
+            target.write(URL_SAFE_MARKER);
+            return BaseEncoding.base64Url().omitPadding().encodingStream(target);
+        }
+        return BaseEncoding.base64().encodingStream(target);
+    }
+
+    private InputStream openDecodingStream(byte[] data, int offset, int length) throws IOException {
+        if (length > 0 && data[offset] == URL_SAFE_MARKER) {
+            return BaseEncoding.base64Url().omitPadding().decodingStream(new AsciiReader(data, offset + 1, length - 1));
+        }
+        return BaseEncoding.base64().decodingStream(new AsciiReader(data, offset, length));
+    }
+
+    /**
+     * Holds back the first bytes written, when no more than the compression threshold is written they are stored as
+     * they are, otherwise everything is deflated with the dictionary if there is one
+     */
+    private class AdaptiveCompressionOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final CompressionDictionary dictionary;
+        private final byte[] pending = new byte[compressionThreshold];
+        private int pendingCount;
+        private Deflater deflater;
+        private OutputStream deflated;
+
+        AdaptiveCompressionOutputStream(OutputStream target, CompressionDictionary dictionary) {
+            this.target = target;
+            this.dictionary = dictionary;
+        }
+
+        public void write(int b) throws IOException {
+            if (deflated == null && pendingCount < pending.length) {
+                pending[pendingCount++] = (byte) b;
+            } else {
+                startDeflating().write(b);
+            }
+        }
+
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (deflated == null && pendingCount + length <= pending.length) {
+                System.arraycopy(bytes, offset, pending, pendingCount, length);
+                pendingCount += length;
+            } else {
+                startDeflating().write(bytes, offset, length);
+            }
+        }
+
+        public void close() throws IOException {
+            if (deflated == null) {
+                target.write(STORED);
+                target.write(pending, 0, pendingCount);
+                target.close();
+            } else {
+                deflated.close();
+                compressors.release(deflater);
+            }
+        }
+
+        private OutputStream startDeflating() throws IOException {
+            if (deflated == null) {
+                deflater = compressors.borrowDeflater(compressionLevel);
+                if (dictionary == null) {
+                    target.write(DEFLATED);
+                } else {
+                    target.write(DEFLATED_WITH_DICTIONARY);
+                    target.write(dictionary.getId());
+                    deflater.setDictionary(dictionary.bytes());
+                }
+                deflated = new BufferedOutputStream(new DeflaterOutputStream(target, deflater, BUFFER_SIZE), BUFFER_SIZE);
+                deflated.write(pending, 0, pendingCount);
+            }
+            return deflated;
+        }
+    }
+
+    /**
+     * Reads a range of ASCII bytes as characters without copying them
+     */
+    private static class AsciiReader extends Reader {
+        private final byte[] data;
+        private final int end;
+        private int position;
+
+        AsciiReader(byte[] data, int offset, int length) {
+            this.data = data;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        public int read() {
+            return position < end ? data[position++] & 0xFF : -1;
+        }
+
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= end) {
+                return -1;
+            }
+            int count = Math.min(length, end - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (char) (data[position++] & 0xFF);
+            }
+            return count;
+        }
+
+        public void close() {
+        }
+    }
 }
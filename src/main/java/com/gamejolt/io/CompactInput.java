@@ -0,0 +1,119 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.google.common.base.Charsets;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The input given to an ObjectCodec, it reads values in the order they were written to the CompactOutput
+ */
+public class CompactInput {
+    private final InputStream input;
+    private final CompactObjectSerializer serializer;
+
+    CompactInput(InputStream input, CompactObjectSerializer serializer) {
+        this.input = input;
+        this.serializer = serializer;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readByte() throws IOException {
+        int value = input.read();
+        if (value < 0) {
+            throw new EOFException();
+        }
+        return value;
+    }
+
+    public int readInt() throws IOException {
+        int value = readUnsignedVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() throws IOException {
+        long value = readUnsignedVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readFixedInt());
+    }
+
+    public double readDouble() throws IOException {
+        long high = readFixedInt() & 0xFFFFFFFFL;
+        long low = readFixedInt() & 0xFFFFFFFFL;
+        return Double.longBitsToDouble((high << 32) | low);
+    }
+
+    public String readString() throws IOException {
+        return new String(readBytes(), Charsets.UTF_8);
+    }
+
+    public byte[] readBytes() throws IOException {
+        byte[] bytes = new byte[readUnsignedVarInt()];
+        int offset = 0;
+        while (offset < bytes.length) {
+            int read = input.read(bytes, offset, bytes.length - offset);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            offset += read;
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads an object written with CompactOutput.writeObject(...)
+     *
+     * @return the object that was written
+     */
+    public Object readObject() throws IOException {
+        return serializer.readObject(this);
+    }
+
+    int readUnsignedVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    private long readUnsignedVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length long");
+    }
+
+    private int readFixedInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+}
@@ -0,0 +1,479 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.gamejolt.GameJoltException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.gamejolt.util.MessageFormat.format;
+
+/**
+ * This implementation of the ObjectSerializer writes a compact tagged binary format.
+ * <p/>
+ * Primitives (boxed), Strings, arrays and the plain JDK collections (ArrayList, LinkedList, HashSet, LinkedHashSet,
+ * HashMap, LinkedHashMap, and TreeSet and TreeMap in natural order) are written without any class descriptors and read
+ * back as the same type, and integers are written as variable length values. Arrays of other classes only record
+ * their component type's name once. Your own classes can be written just as compactly by registering an ObjectCodec
+ * for them. Anything else that is Serializable, e.g. a TreeMap with a comparator or an unmodifiable List, falls back to
+ * Java serialization so its exact type is kept, other Lists, Sets and Maps are read back as ArrayList, LinkedHashSet
+ * and LinkedHashMap.
+ * <p/>
+ * Register your codecs before the serializer is used, and always register a class with the same type id, the type
+ * id is what gets stored instead of the class name.
+ */
+public class CompactObjectSerializer implements StreamingObjectSerializer {
+    private static final int FORMAT_VERSION = 1;
+    private static final String UNKNOWN_FORMAT = "Unknown compact serialization format {0}";
+    private static final String UNKNOWN_TAG = "Unknown compact serialization tag {0}";
+    private static final String UNKNOWN_TYPE_ID = "No codec registered with type id {0}";
+    private static final String UNSUPPORTED_TYPE = "{0} is not Serializable and has no registered ObjectCodec";
+    private static final String DUPLICATE_TYPE_ID = "Type id {0} is already registered for {1}";
+    private static final String UNKNOWN_CLASS = "Unknown array component type {0}";
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int BYTE = 3;
+    private static final int SHORT = 4;
+    private static final int CHARACTER = 5;
+    private static final int INTEGER = 6;
+    private static final int LONG = 7;
+    private static final int FLOAT = 8;
+    private static final int DOUBLE = 9;
+    private static final int STRING = 10;
+    private static final int BYTE_ARRAY = 11;
+    private static final int INT_ARRAY = 12;
+    private static final int LONG_ARRAY = 13;
+    private static final int FLOAT_ARRAY = 14;
+    private static final int DOUBLE_ARRAY = 15;
+    private static final int BOOLEAN_ARRAY = 16;
+    private static final int STRING_ARRAY = 17;
+    private static final int OBJECT_ARRAY = 18;
+    private static final int LIST = 19;
+    private static final int SET = 20;
+    private static final int MAP = 21;
+    private static final int REGISTERED = 22;
+    private static final int SERIALIZABLE = 23;
+    private static final int LINKED_LIST = 24;
+    private static final int HASH_SET = 25;
+    private static final int TREE_SET = 26;
+    private static final int HASH_MAP = 27;
+    private static final int TREE_MAP = 28;
+    private static final int TYPED_ARRAY = 29;
+
+    private final Map<Class<?>, Registration> registrationsByType = new ConcurrentHashMap<Class<?>, Registration>();
+    private final Map<Integer, Registration> registrationsById = new ConcurrentHashMap<Integer, Registration>();
+
+    /**
+     * Register a codec for one of your classes, instances of exactly this class will be written by the codec
+     *
+     * @param typeId - a number identifying the class in the serialized data, it must never change once data is stored
+     * @param type   - the class handled by the codec
+     * @param codec  - the codec writing and reading the class
+     */
+    public <T> void register(int typeId, Class<T> type, ObjectCodec<T> codec) {
+        Registration existing = registrationsById.get(typeId);
+        if (existing != null && existing.type != type) {
+            throw new IllegalArgumentException(format(DUPLICATE_TYPE_ID, typeId, existing.type.getName()));
+        }
+        Registration previous = registrationsByType.get(type);
+        if (previous != null && previous.typeId != typeId) {
+            registrationsById.remove(previous.typeId);
+        }
+        Registration registration = new Registration(typeId, type, codec);
+        registrationsByType.put(type, registration);
+        registrationsById.put(typeId, registration);
+    }
+
+    public byte[] serialize(Object obj) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            serialize(obj, baos);
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        }
+        return baos.toByteArray();
+    }
+
+    public Object deserialize(byte[] data) {
+        try {
+            return deserialize(new ByteArrayInputStream(data));
+        } catch (IOException err) {
+            throw new GameJoltException(err);
+        }
+    }
+
+    public void serialize(Object obj, OutputStream output) throws IOException {
+        CompactOutput compactOutput = new CompactOutput(output, this);
+        compactOutput.writeByte(FORMAT_VERSION);
+        writeObject(obj, compactOutput);
+    }
+
+    public Object deserialize(InputStream input) throws IOException {
+        CompactInput compactInput = new CompactInput(input, this);
+        int version = compactInput.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new GameJoltException(format(UNKNOWN_FORMAT, version));
+        }
+        return readObject(compactInput);
+    }
+
+    void writeObject(Object value, CompactOutput output) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+            return;
+        }
+
+        Class<?> type = value.getClass();
+        if (type == Boolean.class) {
+            output.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (type == Integer.class) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (type == String.class) {
+            output.writeByte(STRING);
+            output.writeString((String) value);
+        } else if (type == Long.class) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (type == Double.class) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (type == Byte.class) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) value);
+        } else if (type == Short.class) {
+            output.writeByte(SHORT);
+            output.writeInt((Short) value);
+        } else if (type == Character.class) {
+            output.writeByte(CHARACTER);
+            output.writeInt((Character) value);
+        } else if (registrationsByType.containsKey(type)) {
+            registrationsByType.get(type).write(value, output);
+        } else if (type.isArray()) {
+            writeArray(value, output);
+        } else if (type == ArrayList.class) {
+            writeElements(LIST, (List<?>) value, output);
+        } else if (type == LinkedList.class) {
+            writeElements(LINKED_LIST, (List<?>) value, output);
+        } else if (type == LinkedHashSet.class) {
+            writeElements(SET, (Set<?>) value, output);
+        } else if (type == HashSet.class) {
+            writeElements(HASH_SET, (Set<?>) value, output);
+        } else if (type == TreeSet.class && ((TreeSet<?>) value).comparator() == null) {
+            writeElements(TREE_SET, (Set<?>) value, output);
+        } else if (type == LinkedHashMap.class) {
+            writeEntries(MAP, (Map<?, ?>) value, output);
+        } else if (type == HashMap.class) {
+            writeEntries(HASH_MAP, (Map<?, ?>) value, output);
+        } else if (type == TreeMap.class && ((TreeMap<?, ?>) value).comparator() == null) {
+            writeEntries(TREE_MAP, (Map<?, ?>) value, output);
+        } else if (value instanceof Serializable) {
+            output.writeByte(SERIALIZABLE);
+            output.writeBytes(javaSerialize(value));
+        } else if (value instanceof List) {
+            writeElements(LIST, (List<?>) value, output);
+        } else if (value instanceof Set) {
+            writeElements(SET, (Set<?>) value, output);
+        } else if (value instanceof Map) {
+            writeEntries(MAP, (Map<?, ?>) value, output);
+        } else {
+            throw new GameJoltException(format(UNSUPPORTED_TYPE, type.getName()));
+        }
+    }
+
+    Object readObject(CompactInput input) throws IOException {
+        int tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BYTE:
+                return (byte) input.readByte();
+            case SHORT:
+                return (short) input.readInt();
+            case CHARACTER:
+                return (char) input.readInt();
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case FLOAT:
+                return input.readFloat();
+            case DOUBLE:
+                return input.readDouble();
+            case STRING:
+                return input.readString();
+            case BYTE_ARRAY:
+                return input.readBytes();
+            case INT_ARRAY:
+                int[] ints = new int[input.readUnsignedVarInt()];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = input.readInt();
+                }
+                return ints;
+            case LONG_ARRAY:
+                long[] longs = new long[input.readUnsignedVarInt()];
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = input.readLong();
+                }
+                return longs;
+            case FLOAT_ARRAY:
+                float[] floats = new float[input.readUnsignedVarInt()];
+                for (int i = 0; i < floats.length; i++) {
+                    floats[i] = input.readFloat();
+                }
+                return floats;
+            case DOUBLE_ARRAY:
+                double[] doubles = new double[input.readUnsignedVarInt()];
+                for (int i = 0; i < doubles.length; i++) {
+                    doubles[i] = input.readDouble();
+                }
+                return doubles;
+            case BOOLEAN_ARRAY:
+                boolean[] booleans = new boolean[input.readUnsignedVarInt()];
+                for (int i = 0; i < booleans.length; i++) {
+                    booleans[i] = input.readBoolean();
+                }
+                return booleans;
+            case STRING_ARRAY:
+                String[] strings = new String[input.readUnsignedVarInt()];
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] = (String) readObject(input);
+                }
+                return strings;
+            case OBJECT_ARRAY:
+                return readObjects(new Object[input.readUnsignedVarInt()], input);
+            case TYPED_ARRAY:
+                Class<?> componentType = loadClass(input.readString());
+                return readObjects((Object[]) Array.newInstance(componentType, input.readUnsignedVarInt()), input);
+            case LIST:
+                return readElements(new ArrayList<Object>(), input);
+            case LINKED_LIST:
+                return readElements(new LinkedList<Object>(), input);
+            case SET:
+                return readElements(new LinkedHashSet<Object>(), input);
+            case HASH_SET:
+                return readElements(new HashSet<Object>(), input);
+            case TREE_SET:
+                return readElements(new TreeSet<Object>(), input);
+            case MAP:
+                return readEntries(new LinkedHashMap<Object, Object>(), input);
+            case HASH_MAP:
+                return readEntries(new HashMap<Object, Object>(), input);
+            case TREE_MAP:
+                return readEntries(new TreeMap<Object, Object>(), input);
+            case REGISTERED:
+                int typeId = input.readUnsignedVarInt();
+                Registration registration = registrationsById.get(typeId);
+                if (registration == null) {
+                    throw new GameJoltException(format(UNKNOWN_TYPE_ID, typeId));
+                }
+                return registration.codec.read(input);
+            case SERIALIZABLE:
+                return javaDeserialize(input.readBytes());
+            default:
+                throw new GameJoltException(format(UNKNOWN_TAG, tag));
+        }
+    }
+
+    private void writeArray(Object value, CompactOutput output) throws IOException {
+        if (value instanceof byte[]) {
+            output.writeByte(BYTE_ARRAY);
+            output.writeBytes((byte[]) value);
+        } else if (value instanceof int[]) {
+            int[] ints = (int[]) value;
+            output.writeByte(INT_ARRAY);
+            output.writeUnsignedVarInt(ints.length);
+            for (int i : ints) {
+                output.writeInt(i);
+            }
+        } else if (value instanceof long[]) {
+            long[] longs = (long[]) value;
+            output.writeByte(LONG_ARRAY);
+            output.writeUnsignedVarInt(longs.length);
+            for (long l : longs) {
+                output.writeLong(l);
+            }
+        } else if (value instanceof float[]) {
+            float[] floats = (float[]) value;
+            output.writeByte(FLOAT_ARRAY);
+            output.writeUnsignedVarInt(floats.length);
+            for (float f : floats) {
+                output.writeFloat(f);
+            }
+        } else if (value instanceof double[]) {
+            double[] doubles = (double[]) value;
+            output.writeByte(DOUBLE_ARRAY);
+            output.writeUnsignedVarInt(doubles.length);
+            for (double d : doubles) {
+                output.writeDouble(d);
+            }
+        } else if (value instanceof boolean[]) {
+            boolean[] booleans = (boolean[]) value;
+            output.writeByte(BOOLEAN_ARRAY);
+            output.writeUnsignedVarInt(booleans.length);
+            for (boolean b : booleans) {
+                output.writeBoolean(b);
+            }
+        } else if (value instanceof String[]) {
+            writeObjects(STRING_ARRAY, (String[]) value, output);
+        } else if (value.getClass() == Object[].class) {
+            writeObjects(OBJECT_ARRAY, (Object[]) value, output);
+        } else if (value instanceof Object[]) {
+            output.writeByte(TYPED_ARRAY);
+            output.writeString(value.getClass().getComponentType().getName());
+            writeElements((Object[]) value, output);
+        } else if (value instanceof Serializable) {
+            output.writeByte(SERIALIZABLE);
+            output.writeBytes(javaSerialize(value));
+        } else {
+            throw new GameJoltException(format(UNSUPPORTED_TYPE, value.getClass().getName()));
+        }
+    }
+
+    private void writeObjects(int tag, Object[] values, CompactOutput output) throws IOException {
+        output.writeByte(tag);
+        writeElements(values, output);
+    }
+
+    private void writeElements(Object[] values, CompactOutput output) throws IOException {
+        output.writeUnsignedVarInt(values.length);
+        for (Object value : values) {
+            writeObject(value, output);
+        }
+    }
+
+    private void writeElements(int tag, Collection<?> values, CompactOutput output) throws IOException {
+        output.writeByte(tag);
+        output.writeUnsignedVarInt(values.size());
+        for (Object value : values) {
+            writeObject(value, output);
+        }
+    }
+
+    private void writeEntries(int tag, Map<?, ?> values, CompactOutput output) throws IOException {
+        output.writeByte(tag);
+        output.writeUnsignedVarInt(values.size());
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            writeObject(entry.getKey(), output);
+            writeObject(entry.getValue(), output);
+        }
+    }
+
+    private Object[] readObjects(Object[] values, CompactInput input) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readObject(input);
+        }
+        return values;
+    }
+
+    private Collection<Object> readElements(Collection<Object> values, CompactInput input) throws IOException {
+        int size = input.readUnsignedVarInt();
+        for (int i = 0; i < size; i++) {
+            values.add(readObject(input));
+        }
+        return values;
+    }
+
+    private Map<Object, Object> readEntries(Map<Object, Object> values, CompactInput input) throws IOException {
+        int size = input.readUnsignedVarInt();
+        for (int i = 0; i < size; i++) {
+            values.put(readObject(input), readObject(input));
+        }
+        return values;
+    }
+
+    private Class<?> loadClass(String name) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try {
+            return Class.forName(name, false, loader != null ? loader : CompactObjectSerializer.class.getClassLoader());
+        } catch (ClassNotFoundException err) {
+            throw new GameJoltException(format(UNKNOWN_CLASS, name));
+        }
+    }
+
+    private byte[] javaSerialize(Object value) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(baos);
+        output.writeObject(value);
+        output.close();
+        return baos.toByteArray();
+    }
+
+    private Object javaDeserialize(byte[] data) throws IOException {
+        ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(data));
+        try {
+            return input.readObject();
+        } catch (ClassNotFoundException err) {
+            throw new GameJoltException(err);
+        } finally {
+            input.close();
+        }
+    }
+
+    private static class Registration {
+        final int typeId;
+        final Class<?> type;
+        final ObjectCodec<Object> codec;
+
+        Registration(int typeId, Class<?> type, ObjectCodec<?> codec) {
+            this.typeId = typeId;
+            this.type = type;
+            this.codec = untyped(codec);
+        }
+
+        /**
+         * The codec is only ever given instances of the exact class it was registered for
+         */
+        @SuppressWarnings("unchecked")
+        private static ObjectCodec<Object> untyped(ObjectCodec<?> codec) {
+            return (ObjectCodec<Object>) codec;
+        }
+
+        void write(Object value, CompactOutput output) throws IOException {
+            output.writeByte(REGISTERED);
+            output.writeUnsignedVarInt(typeId);
+            codec.write(value, output);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.google.common.base.Charsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The output given to an ObjectCodec, integers are written as variable length values so small numbers take a single byte
+ */
+public class CompactOutput {
+    private final OutputStream output;
+    private final CompactObjectSerializer serializer;
+
+    CompactOutput(OutputStream output, CompactObjectSerializer serializer) {
+        this.output = output;
+        this.serializer = serializer;
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        output.write(value ? 1 : 0);
+    }
+
+    public void writeByte(int value) throws IOException {
+        output.write(value);
+    }
+
+    public void writeInt(int value) throws IOException {
+        writeUnsignedVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeLong(long value) throws IOException {
+        writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeFloat(float value) throws IOException {
+        writeFixedInt(Float.floatToIntBits(value));
+    }
+
+    public void writeDouble(double value) throws IOException {
+        long bits = Double.doubleToLongBits(value);
+        writeFixedInt((int) (bits >>> 32));
+        writeFixedInt((int) bits);
+    }
+
+    public void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(Charsets.UTF_8);
+        writeUnsignedVarInt(bytes.length);
+        output.write(bytes);
+    }
+
+    public void writeBytes(byte[] value) throws IOException {
+        writeUnsignedVarInt(value.length);
+        output.write(value);
+    }
+
+    /**
+     * Writes any object the serializer supports, including null and objects with a registered codec
+     *
+     * @param value - the object to be written
+     */
+    public void writeObject(Object value) throws IOException {
+        serializer.writeObject(value, this);
+    }
+
+    void writeUnsignedVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private void writeUnsignedVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.write(((int) value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private void writeFixedInt(int value) throws IOException {
+        output.write(value >>> 24);
+        output.write(value >>> 16);
+        output.write(value >>> 8);
+        output.write(value);
+    }
+}
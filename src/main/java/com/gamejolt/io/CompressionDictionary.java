@@ -0,0 +1,69 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.gamejolt.util.MessageFormat.format;
+
+/**
+ * A preset dictionary for deflating data, trained with the DictionaryTrainer from sample data typical for your game.
+ * <p/>
+ * The id is written in front of every value compressed with the dictionary, so you can train a new dictionary later on
+ * and keep reading values stored with the old one by registering both. Never reuse an id for different bytes.
+ */
+public final class CompressionDictionary {
+    private static final String INVALID_ID = "A compression dictionary id must be between 1 and 255, but was {0}";
+
+    private final int id;
+    private final byte[] bytes;
+
+    /**
+     * @param id    - the id identifying the dictionary in stored data, between 1 and 255
+     * @param bytes - the contents of the dictionary
+     */
+    public CompressionDictionary(int id, byte[] bytes) {
+        if (id < 1 || id > 255) {
+            throw new IllegalArgumentException(format(INVALID_ID, id));
+        }
+        this.id = id;
+        this.bytes = bytes.clone();
+    }
+
+    /**
+     * Reads a dictionary, e.g. one written by the DictionaryTrainer and bundled with your game as a resource
+     *
+     * @param id    - the id identifying the dictionary in stored data, between 1 and 255
+     * @param input - the stream holding the contents of the dictionary, it is not closed
+     * @return the dictionary
+     */
+    public static CompressionDictionary read(int id, InputStream input) throws IOException {
+        return new CompressionDictionary(id, ByteStreams.toByteArray(input));
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trains a CompressionDictionary from sample data, e.g. a few hundred saves exported from your game.
+ * <p/>
+ * Byte sequences that show up in many of the samples are collected into the dictionary, the most common ones are
+ * placed last since deflate reaches the end of a dictionary most cheaply. Run it from the command line with:
+ * <pre>
+ * java com.gamejolt.io.DictionaryTrainer &lt;id&gt; &lt;max size&gt; &lt;dictionary file&gt; &lt;sample file&gt;...
+ * </pre>
+ */
+public class DictionaryTrainer {
+    private static final int SEQUENCE_LENGTH = 8;
+    private static final int MAX_SEGMENT_LENGTH = 256;
+
+    private final List<byte[]> samples = new ArrayList<byte[]>();
+    private int sequenceLength = SEQUENCE_LENGTH;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("usage: DictionaryTrainer <id> <max size> <dictionary file> <sample file>...");
+            return;
+        }
+        DictionaryTrainer trainer = new DictionaryTrainer();
+        for (int i = 3; i < args.length; i++) {
+            trainer.addSample(Files.toByteArray(new File(args[i])));
+        }
+        CompressionDictionary dictionary = trainer.train(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+        Files.write(dictionary.bytes(), new File(args[2]));
+        System.out.println("Wrote a " + dictionary.bytes().length + " byte dictionary from " + trainer.samples.size() + " samples");
+    }
+
+    /**
+     * Adds data typical for what will be compressed with the dictionary
+     *
+     * @param sample - the sample data, e.g. a serialized save
+     */
+    public void addSample(byte[] sample) {
+        samples.add(sample);
+    }
+
+    /**
+     * Sets the length of the byte sequences counted across samples, 8 by default
+     *
+     * @param sequenceLength - the number of bytes in a sequence
+     */
+    public void setSequenceLength(int sequenceLength) {
+        this.sequenceLength = sequenceLength;
+    }
+
+    /**
+     * Builds a dictionary out of the sequences shared by the most samples
+     *
+     * @param id      - the id given to the dictionary, between 1 and 255
+     * @param maxSize - the maximum size of the dictionary in bytes, deflate uses at most 32k of it
+     * @return the trained dictionary
+     */
+    public CompressionDictionary train(int id, int maxSize) {
+        Map<String, Integer> frequencies = countSamplesContainingEachSequence();
+        int minFrequency = Math.max(2, samples.size() / 10);
+
+        List<Segment> segments = new ArrayList<Segment>();
+        Set<String> seen = new HashSet<String>();
+        for (byte[] sample : samples) {
+            for (Segment segment : findSegments(sample, frequencies, minFrequency)) {
+                if (seen.add(segment.content)) {
+                    segments.add(segment);
+                }
+            }
+        }
+        Collections.sort(segments, new Comparator<Segment>() {
+            public int compare(Segment first, Segment second) {
+                return first.score > second.score ? -1 : (first.score < second.score ? 1 : 0);
+            }
+        });
+
+        List<String> chosen = new ArrayList<String>();
+        StringBuilder dictionary = new StringBuilder();
+        int size = 0;
+        for (Segment segment : segments) {
+            if (size + segment.content.length() > maxSize) {
+                continue;
+            }
+            if (dictionary.indexOf(segment.content) >= 0) {
+                continue;
+            }
+            chosen.add(segment.content);
+            dictionary.append(segment.content);
+            size += segment.content.length();
+        }
+
+        Collections.reverse(chosen);
+        StringBuilder ordered = new StringBuilder(size);
+        for (String content : chosen) {
+            ordered.append(content);
+        }
+        return new CompressionDictionary(id, ordered.toString().getBytes(Charsets.ISO_8859_1));
+    }
+
+    private Map<String, Integer> countSamplesContainingEachSequence() {
+        Map<String, Integer> frequencies = new HashMap<String, Integer>();
+        for (byte[] sample : samples) {
+            Set<String> sequences = new HashSet<String>();
+            for (int i = 0; i + sequenceLength <= sample.length; i++) {
+                sequences.add(new String(sample, i, sequenceLength, Charsets.ISO_8859_1));
+            }
+            for (String sequence : sequences) {
+                Integer count = frequencies.get(sequence);
+                frequencies.put(sequence, count == null ? 1 : count + 1);
+            }
+        }
+        return frequencies;
+    }
+
+    private List<Segment> findSegments(byte[] sample, Map<String, Integer> frequencies, int minFrequency) {
+        List<Segment> segments = new ArrayList<Segment>();
+        int start = -1;
+        int end = -1;
+        long frequencySum = 0;
+        for (int i = 0; i + sequenceLength <= sample.length; i++) {
+            Integer frequency = frequencies.get(new String(sample, i, sequenceLength, Charsets.ISO_8859_1));
+            boolean common = frequency != null && frequency >= minFrequency;
+            if (common && start >= 0 && i <= end && i + sequenceLength - start <= MAX_SEGMENT_LENGTH) {
+                end = i + sequenceLength;
+                frequencySum += frequency;
+                continue;
+            }
+            if (start >= 0) {
+                segments.add(new Segment(new String(sample, start, end - start, Charsets.ISO_8859_1), frequencySum));
+                start = -1;
+            }
+            if (common) {
+                start = i;
+                end = i + sequenceLength;
+                frequencySum = frequency;
+            }
+        }
+        if (start >= 0) {
+            segments.add(new Segment(new String(sample, start, end - start, Charsets.ISO_8859_1), frequencySum));
+        }
+        return segments;
+    }
+
+    private static class Segment {
+        final String content;
+        final long score;
+
+        Segment(String content, long score) {
+            this.content = content;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads one type of object for the CompactObjectSerializer
+ *
+ * @param <T> - the type handled by this codec
+ */
+public interface ObjectCodec<T> {
+    /**
+     * Writes the fields of the given object
+     *
+     * @param value  - the object to be written, never null
+     * @param output - the output to write the fields to
+     */
+    void write(T value, CompactOutput output) throws IOException;
+
+    /**
+     * Reads the fields written by write(...) back into an object
+     *
+     * @param input - the input to read the fields from
+     * @return the object that was written
+     */
+    T read(CompactInput input) throws IOException;
+}
@@ -22,7 +22,7 @@ import java.io.*;
  * <p/>
  * For anyone new to this you can learn more here: http://java.sun.com/developer/technicalArticles/Programming/serialization/
  */
-public class StandardJavaObjectSerializer implements ObjectSerializer {
+public class StandardJavaObjectSerializer implements StreamingObjectSerializer {
     public byte[] serialize(Object obj) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         ObjectOutputStream output = null;
@@ -46,4 +46,18 @@ public class StandardJavaObjectSerializer implements ObjectSerializer {
             throw new GameJoltException(err);
         }
     }
+
+    public void serialize(Object obj, OutputStream output) throws IOException {
+        ObjectOutputStream objectOutput = new ObjectOutputStream(output);
+        objectOutput.writeObject(obj);
+        objectOutput.flush();
+    }
+
+    public Object deserialize(InputStream input) throws IOException {
+        try {
+            return new ObjectInputStream(input).readObject();
+        } catch (ClassNotFoundException err) {
+            throw new GameJoltException(err);
+        }
+    }
 }
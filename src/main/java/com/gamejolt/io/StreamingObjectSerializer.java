@@ -0,0 +1,40 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An ObjectSerializer that can write straight into and read straight out of a stream, so the data store can chain it
+ * with compression and encoding without copying the serialized bytes around
+ */
+public interface StreamingObjectSerializer extends ObjectSerializer {
+    /**
+     * Serializes the given object into the given stream, the stream is not closed
+     *
+     * @param obj    - object to be serialized
+     * @param output - the stream the bytes are written to
+     */
+    void serialize(Object obj, OutputStream output) throws IOException;
+
+    /**
+     * Deserializes an object from the given stream, the stream is not closed
+     *
+     * @param input - the stream holding the bytes of the object
+     * @return the object that makes up the bytes in the stream
+     */
+    Object deserialize(InputStream input) throws IOException;
+}
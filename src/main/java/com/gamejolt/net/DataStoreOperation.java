@@ -0,0 +1,39 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.net;
+
+/**
+ * The operations Game Jolt can apply to a data store value on its own, without the value being read and stored again
+ */
+public enum DataStoreOperation {
+    ADD("add"),
+    SUBTRACT("subtract"),
+    MULTIPLY("multiply"),
+    DIVIDE("divide"),
+    APPEND("append"),
+    PREPEND("prepend");
+
+    private final String parameterValue;
+
+    private DataStoreOperation(String parameterValue) {
+        this.parameterValue = parameterValue;
+    }
+
+    /**
+     * @return the value of the operation parameter sent to Game Jolt
+     */
+    public String getParameterValue() {
+        return parameterValue;
+    }
+}
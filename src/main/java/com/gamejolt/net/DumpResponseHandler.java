@@ -0,0 +1,76 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.net;
+
+/**
+ * Handles the responses of data store requests made with format=dump.
+ * <p/>
+ * The first line of the response says SUCCESS or FAILURE and the second holds the stored data, the data is handed over
+ * as a range of the response bytes so it can be decoded without being copied into a String first.
+ */
+public abstract class DumpResponseHandler extends HttpResponseHandlerAdapter {
+    private static final byte[] SUCCESS = "SUCCESS".getBytes();
+
+    @Override
+    public final void handle(HttpResponse response) {
+        byte[] content = response.getContent();
+        int endOfStatus = endOfLine(content, 0);
+        if (!isSuccess(content, trimCarriageReturn(content, 0, endOfStatus))) {
+            handleFailure();
+            return;
+        }
+        int start = Math.min(endOfStatus + 1, content.length);
+        int end = trimCarriageReturn(content, start, endOfLine(content, start));
+        handleSuccess(content, start, end - start);
+    }
+
+    /**
+     * Called when the data was found
+     *
+     * @param content - the bytes of the whole response
+     * @param offset  - where the data starts in the content
+     * @param length  - the number of bytes making up the data
+     */
+    protected abstract void handleSuccess(byte[] content, int offset, int length);
+
+    protected void handleFailure() {
+    }
+
+    private boolean isSuccess(byte[] content, int length) {
+        if (length != SUCCESS.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase((char) content[i]) != SUCCESS[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int endOfLine(byte[] content, int from) {
+        int index = from;
+        while (index < content.length && content[index] != '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    private int trimCarriageReturn(byte[] content, int from, int end) {
+        if (end > from && content[end - 1] == '\r') {
+            return end - 1;
+        }
+        return end;
+    }
+}
@@ -16,6 +16,15 @@ public abstract class HttpResponse {
 
     public abstract String getContentAsString();
 
+    /**
+     * The raw bytes of the response, implementations holding the bytes should hand them out without copying
+     *
+     * @return the bytes of the response
+     */
+    public byte[] getContent() {
+        return getContentAsString().getBytes();
+    }
+
     public abstract int getCode();
 
     public boolean isSuccessful() {
@@ -22,6 +22,7 @@ import java.util.Map;
 public class RequestFactory {
     private static final String BASE_URL = "http://gamejolt.com/api/game/";
     private static final String DEFAULT_VERSION = "1";
+    private static final String VERSION_1_2 = "1_2";
     private String version = DEFAULT_VERSION;
     private int gameId;
     private String privateKey;
@@ -176,6 +177,22 @@ public class RequestFactory {
         return request;
     }
 
+    public HttpRequest buildGameDataKeysRequest(String pattern) {
+        String baseUrl = createUrl("data-store/get-keys", VERSION_1_2);
+        HttpRequest request = newRequest(baseUrl);
+
+        Map<String, String> parameters = createParameterMap();
+        parameters.put("game_id", String.valueOf(gameId));
+        parameters.put("pattern", pattern);
+
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>(parameters);
+        signatureParameters.put("pattern", pattern + privateKey);
+
+        request.addParameters(parameters);
+        request.addParameter("signature", signatureFactory.build(baseUrl, signatureParameters));
+        return request;
+    }
+
     public HttpRequest buildGetGameDataRequest(String name) {
         String baseUrl = createUrl("data-store/");
         HttpRequest request = newRequest(baseUrl);
@@ -193,6 +210,41 @@ public class RequestFactory {
         return request;
     }
 
+    public HttpRequest buildUpdateGameDataRequest(String name, DataStoreOperation operation, String value) {
+        String baseUrl = createUrl("data-store/update", VERSION_1_2);
+        HttpRequest request = newRequest(baseUrl);
+
+        Map<String, String> parameters = createParameterMap();
+        parameters.put("game_id", String.valueOf(gameId));
+        parameters.put("format", "dump");
+        parameters.put("operation", operation.getParameterValue());
+        parameters.put("value", value);
+        parameters.put("key", name);
+
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>(parameters);
+        signatureParameters.put("key", name + privateKey);
+
+        request.addParameters(parameters);
+        request.addParameter("signature", signatureFactory.build(baseUrl, signatureParameters));
+        return request;
+    }
+
+    public HttpRequest buildUpdateUserDataRequest(String username, String userToken, String name, DataStoreOperation operation, String value) {
+        String baseUrl = createUrl("data-store/update", VERSION_1_2);
+        HttpRequest request = newRequest(baseUrl);
+
+        Map<String, String> parameters = createInitialUserParameterMap(username);
+        parameters.put("format", "dump");
+        parameters.put("key", name);
+        parameters.put("operation", operation.getParameterValue());
+        parameters.put("value", value);
+        parameters.put("user_token", userToken);
+
+        request.addParameters(parameters);
+        request.addParameter("signature", signatureFactory.build(baseUrl, createUserSignatureParameterMap(userToken, parameters)));
+        return request;
+    }
+
     public HttpRequest buildUserDataKeysRequest(String username, String userToken) {
         String baseUrl = createUrl("data-store/get-keys");
         HttpRequest request = newRequest(baseUrl);
@@ -205,6 +257,19 @@ public class RequestFactory {
         return request;
     }
 
+    public HttpRequest buildUserDataKeysRequest(String username, String userToken, String pattern) {
+        String baseUrl = createUrl("data-store/get-keys", VERSION_1_2);
+        HttpRequest request = newRequest(baseUrl);
+
+        Map<String, String> parameters = createInitialUserParameterMap(username);
+        parameters.put("pattern", pattern);
+        parameters.put("user_token", userToken);
+
+        request.addParameters(parameters);
+        request.addParameter("signature", signatureFactory.build(baseUrl, createUserSignatureParameterMap(userToken, parameters)));
+        return request;
+    }
+
     public HttpRequest buildGetUserDataRequest(String username, String userToken, String name) {
         String baseUrl = createUrl("data-store/");
         HttpRequest request = newRequest(baseUrl);
@@ -220,27 +285,92 @@ public class RequestFactory {
     }
 
     public HttpRequest buildAllHighscoresRequest(int limit) {
-        String baseUrl = createUrl("scores");
+        return buildHighscoresRequest(null, limit);
+    }
+
+    public HttpRequest buildAllHighscoresRequest(int limit, int tableId) {
+        return buildHighscoresRequest(tableId, limit);
+    }
+
+    public HttpRequest buildUserHighscoresRequest(String username, String userToken, int limit) {
+        return buildUserHighscoresRequest(username, userToken, null, limit);
+    }
+
+    public HttpRequest buildUserHighscoresRequest(String username, String userToken, int limit, int tableId) {
+        return buildUserHighscoresRequest(username, userToken, Integer.valueOf(tableId), limit);
+    }
+
+    public HttpRequest buildUserAchievedHighscoreRequest(String username, String userToken, String displayedText, int score, String extra) {
+        return buildUserAchievedHighscoreRequest(username, userToken, displayedText, score, extra, null);
+    }
+
+    public HttpRequest buildUserAchievedHighscoreRequest(String username, String userToken, String displayedText, int score, String extra, int tableId) {
+        return buildUserAchievedHighscoreRequest(username, userToken, displayedText, score, extra, Integer.valueOf(tableId));
+    }
+
+    public HttpRequest buildGuestAchievedHighscoreRequest(String guest, String displayedText, int score, String extra) {
+        return buildGuestAchievedHighscoreRequest(guest, displayedText, score, extra, null);
+    }
+
+    public HttpRequest buildGuestAchievedHighscoreRequest(String guest, String displayedText, int score, String extra, int tableId) {
+        return buildGuestAchievedHighscoreRequest(guest, displayedText, score, extra, Integer.valueOf(tableId));
+    }
+
+    public HttpRequest buildHighscoreTablesRequest() {
+        String baseUrl = createUrl("scores/tables");
         HttpRequest request = newRequest(baseUrl);
 
         Map<String, String> parameters = createParameterMap();
         parameters.put("game_id", String.valueOf(gameId));
-        parameters.put("limit", String.valueOf(limit));
 
-        Map<String, String> signatureParameters = new LinkedHashMap<String, String>(parameters);
-        signatureParameters.put("limit", limit + privateKey);
+        request.addParameters(parameters);
+        request.addParameter("signature", signatureFactory.build(baseUrl, createSignatureParameterMap(parameters)));
+        return request;
+    }
+
+    /**
+     * Builds a request for one page of a score table, this uses the 1.2 version of the API
+     *
+     * @param limit     - the maximum number of scores of the page
+     * @param tableId   - the id of the highscore table, or null for the primary table
+     * @param worseThan - only scores worse than this sort value are returned, or null to start at the best score
+     * @return the request
+     */
+    public HttpRequest buildHighscoresPageRequest(int limit, Integer tableId, Integer worseThan) {
+        return buildHighscoresRequest(createUrl("scores", VERSION_1_2), tableId, limit, worseThan);
+    }
+
+    private HttpRequest buildHighscoresRequest(Integer tableId, int limit) {
+        return buildHighscoresRequest(createUrl("scores"), tableId, limit, null);
+    }
+
+    private HttpRequest buildHighscoresRequest(String baseUrl, Integer tableId, int limit, Integer worseThan) {
+        HttpRequest request = newRequest(baseUrl);
+
+        Map<String, String> parameters = createParameterMap();
+        parameters.put("game_id", String.valueOf(gameId));
+        if (tableId != null) {
+            parameters.put("table_id", String.valueOf(tableId));
+        }
+        parameters.put("limit", String.valueOf(limit));
+        if (worseThan != null) {
+            parameters.put("worse_than", String.valueOf(worseThan));
+        }
 
         request.addParameters(parameters);
-        request.addParameter("signature", signatureFactory.build(baseUrl, signatureParameters));
+        request.addParameter("signature", signatureFactory.build(baseUrl, createSignatureParameterMap(parameters)));
         return request;
     }
 
-    public HttpRequest buildUserHighscoresRequest(String username, String userToken, int limit) {
+    private HttpRequest buildUserHighscoresRequest(String username, String userToken, Integer tableId, int limit) {
         String baseUrl = createUrl("scores");
         HttpRequest request = newRequest(baseUrl);
 
         Map<String, String> parameters = createParameterMap();
         parameters.put("game_id", String.valueOf(gameId));
+        if (tableId != null) {
+            parameters.put("table_id", String.valueOf(tableId));
+        }
         parameters.put("limit", String.valueOf(limit));
         parameters.put("username", username);
         parameters.put("user_token", userToken);
@@ -250,7 +380,7 @@ public class RequestFactory {
         return request;
     }
 
-    public HttpRequest buildUserAchievedHighscoreRequest(String username, String userToken, String displayedText, int score, String extra) {
+    private HttpRequest buildUserAchievedHighscoreRequest(String username, String userToken, String displayedText, int score, String extra, Integer tableId) {
         String baseUrl = createUrl("scores/add");
         HttpRequest request = newRequest(baseUrl);
 
@@ -258,6 +388,9 @@ public class RequestFactory {
         parameters.put("sort", String.valueOf(score));
         parameters.put("score", displayedText);
         parameters.put("extra_data", extra);
+        if (tableId != null) {
+            parameters.put("table_id", String.valueOf(tableId));
+        }
         parameters.put("user_token", userToken);
 
         request.addParameters(parameters);
@@ -265,6 +398,38 @@ public class RequestFactory {
         return request;
     }
 
+    private HttpRequest buildGuestAchievedHighscoreRequest(String guest, String displayedText, int score, String extra, Integer tableId) {
+        String baseUrl = createUrl("scores/add");
+        HttpRequest request = newRequest(baseUrl);
+
+        Map<String, String> parameters = createParameterMap();
+        parameters.put("game_id", String.valueOf(gameId));
+        parameters.put("guest", guest);
+        parameters.put("sort", String.valueOf(score));
+        parameters.put("score", displayedText);
+        parameters.put("extra_data", extra);
+        if (tableId != null) {
+            parameters.put("table_id", String.valueOf(tableId));
+        }
+
+        request.addParameters(parameters);
+        request.addParameter("signature", signatureFactory.build(baseUrl, createSignatureParameterMap(parameters)));
+        return request;
+    }
+
+    /**
+     * Signs game requests by appending the private key to the value of the last parameter
+     */
+    private Map<String, String> createSignatureParameterMap(Map<String, String> existingParameters) {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>(existingParameters);
+        String last = null;
+        for (String key : signatureParameters.keySet()) {
+            last = key;
+        }
+        signatureParameters.put(last, signatureParameters.get(last) + privateKey);
+        return signatureParameters;
+    }
+
     private Map<String, String> createUserSignatureParameterMap(String userToken, Map<String, String> existingParameters) {
         Map<String, String> signatureParameters = new LinkedHashMap<String, String>(existingParameters);
         signatureParameters.put("user_token", userToken + privateKey);
@@ -279,6 +444,10 @@ public class RequestFactory {
     }
 
     private String createUrl(String method) {
+        return createUrl(method, version);
+    }
+
+    private String createUrl(String method, String version) {
         StringBuilder builder = new StringBuilder(BASE_URL);
         builder.append("v").append(version).append("/");
         builder.append(method);
@@ -0,0 +1,38 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A handler that reads the response body as it arrives instead of after it has been buffered. Requests that can not
+ * stream hand over the buffered content instead.
+ */
+public abstract class StreamingHttpResponseHandler implements HttpResponseHandler {
+    public final void handle(HttpResponse response) {
+        try {
+            handle(new ByteArrayInputStream(response.getContent()));
+        } catch (IOException e) {
+            throw new HttpRequestException(e);
+        }
+    }
+
+    /**
+     * @param content - the body of a successful response, closed by the request once this returns
+     * @throws IOException if reading the body fails
+     */
+    public abstract void handle(InputStream content) throws IOException;
+}
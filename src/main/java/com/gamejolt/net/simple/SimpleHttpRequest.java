@@ -17,8 +17,10 @@ import com.gamejolt.net.HttpRequest;
 import com.gamejolt.net.HttpRequestException;
 import com.gamejolt.net.HttpResponseHandler;
 import com.gamejolt.net.QueryStringBuilder;
+import com.gamejolt.net.StreamingHttpResponseHandler;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -55,15 +57,21 @@ public class SimpleHttpRequest implements HttpRequest {
     }
 
     public void execute(HttpResponseHandler handler) {
-        SimpleHttpResponse response = performRequest();
+        StreamingHttpResponseHandler streamingHandler = null;
+        if (handler instanceof StreamingHttpResponseHandler) {
+            streamingHandler = (StreamingHttpResponseHandler) handler;
+        }
+        SimpleHttpResponse response = performRequest(streamingHandler);
         if (!response.isSuccessful()) {
             throw new HttpRequestException("Bad Http Response received response code " + response.getCode());
         }
 
-        handler.handle(response);
+        if (streamingHandler == null) {
+            handler.handle(response);
+        }
     }
 
-    private SimpleHttpResponse performRequest() {
+    private SimpleHttpResponse performRequest(StreamingHttpResponseHandler streamingHandler) {
         HttpURLConnection connection = null;
         InputStream input = null;
         try {
@@ -86,6 +94,16 @@ public class SimpleHttpRequest implements HttpRequest {
             if (isResponseCompressed(contentType, "gzip")) {
                 input = new GZIPInputStream(input);
             }
+            if (streamingHandler != null) {
+                if (verbose) {
+                    CopyingInputStream copying = new CopyingInputStream(input);
+                    streamingHandler.handle(copying);
+                    showResponse(verbose, copying.copied());
+                } else {
+                    streamingHandler.handle(input);
+                }
+                return new SimpleHttpResponse(responseCode, new byte[0]);
+            }
             byte[] responseContent = readAll(input);
             showResponse(verbose, responseContent);
             return new SimpleHttpResponse(responseCode, responseContent);
@@ -187,4 +205,59 @@ public class SimpleHttpRequest implements HttpRequest {
         return getUrl();
     }
 
+
+    /**
+     * Keeps a copy of everything read so a streamed response can still be shown in verbose mode
+     */
+    private static class CopyingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CopyingInputStream(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                copy.write(value);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                copy.write(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            if (count <= 0) {
+                return 0;
+            }
+            byte[] buffer = new byte[(int) Math.min(count, 2048)];
+            long skipped = 0;
+            while (skipped < count) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, count - skipped));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        byte[] copied() {
+            return copy.toByteArray();
+        }
+    }
 }
@@ -29,6 +29,11 @@ public class SimpleHttpResponse extends HttpResponse {
         return new String(content);
     }
 
+    @Override
+    public byte[] getContent() {
+        return content;
+    }
+
     public int getCode() {
         return code;
     }
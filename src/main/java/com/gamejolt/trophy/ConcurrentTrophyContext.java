@@ -0,0 +1,250 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.trophy;
+
+import com.gamejolt.util.StripedCounter;
+import com.gamejolt.util.StripedDoubleCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A TrophyContext that can be updated from several threads at once without any external locking.
+ * <p/>
+ * Counters are StripedCounters, so threads adding to the same stat do not contend on a single value, and objects are
+ * kept in a concurrent map (null values remove the key). Setting a stat swaps in a fresh set of counters, so an add
+ * that races with a set counts as having happened before it. The TrophyManager evaluates its rules against a
+ * snapshot, which sums the counters of each stat without stopping the threads updating them: every update completed
+ * before the snapshot is included, updates in progress may or may not be. The order of keys is not preserved.
+ */
+public class ConcurrentTrophyContext extends TrophyContext {
+    private static final int UNSET = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int FLAG = 4;
+
+    private final ConcurrentMap<String, Object> context = new ConcurrentHashMap<String, Object>();
+    private final ConcurrentMap<StatKey, Stat> stats = new ConcurrentHashMap<StatKey, Stat>();
+
+    /**
+     * Copies the current values into a plain TrophyContext, each stat is summed from its counters while other
+     * threads keep updating them
+     *
+     * @return a single-threaded copy of this context
+     */
+    public TrophyContext snapshot() {
+        TrophyContext snapshot = new TrophyContext();
+        for (Map.Entry<String, Object> entry : context.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<StatKey, Stat> entry : stats.entrySet()) {
+            entry.getValue().copyTo(entry.getKey(), snapshot);
+        }
+        return snapshot;
+    }
+
+    public List<String> keys() {
+        List<String> keys = new ArrayList<String>(context.keySet());
+        for (StatKey key : stats.keySet()) {
+            if (!context.containsKey(key.getName())) {
+                keys.add(key.getName());
+            }
+        }
+        return keys;
+    }
+
+    public List<Object> values() {
+        List<Object> values = new ArrayList<Object>(context.values());
+        for (Map.Entry<StatKey, Stat> entry : stats.entrySet()) {
+            if (!context.containsKey(entry.getKey().getName())) {
+                values.add(entry.getValue().boxed());
+            }
+        }
+        return values;
+    }
+
+    public Object get(String key) {
+        Object value = context.get(key);
+        if (value == null) {
+            StatKey stat = StatKey.find(key);
+            if (stat != null && stats.containsKey(stat)) {
+                return stats.get(stat).boxed();
+            }
+        }
+        return value;
+    }
+
+    public void put(String key, Object obj) {
+        if (putStat(key, obj)) {
+            return;
+        }
+        if (obj == null) {
+            context.remove(key);
+        } else {
+            context.put(key, obj);
+        }
+    }
+
+    void clear(StatKey key) {
+        stats.remove(key);
+    }
+
+    public long getLong(StatKey key) {
+        Stat stat = stats.get(key);
+        return stat == null ? 0 : stat.longValue();
+    }
+
+    public double getDouble(StatKey key) {
+        Stat stat = stats.get(key);
+        return stat == null ? 0 : stat.doubleValue();
+    }
+
+    public void set(StatKey key, int value) {
+        stats.put(key, new Stat(INT, value));
+    }
+
+    public void set(StatKey key, long value) {
+        stats.put(key, new Stat(LONG, value));
+    }
+
+    public void set(StatKey key, double value) {
+        Stat stat = new Stat(DOUBLE, 0);
+        stat.doubles().add(value);
+        stats.put(key, stat);
+    }
+
+    public void set(StatKey key, boolean value) {
+        stats.put(key, new Stat(FLAG, value ? 1 : 0));
+    }
+
+    public void add(StatKey key, int delta) {
+        stat(key).add(INT, delta);
+    }
+
+    public void add(StatKey key, long delta) {
+        stat(key).add(LONG, delta);
+    }
+
+    public void add(StatKey key, double delta) {
+        stat(key).addDouble(delta);
+    }
+
+    private Stat stat(StatKey key) {
+        Stat stat = stats.get(key);
+        if (stat == null) {
+            Stat created = new Stat(UNSET, 0);
+            stat = stats.putIfAbsent(key, created);
+            if (stat == null) {
+                return created;
+            }
+        }
+        return stat;
+    }
+
+    /**
+     * The counters of a single stat. Whole numbers and doubles are summed separately, the kind only decides how the
+     * total is reported, the same way a plain TrophyContext reports it.
+     */
+    private static class Stat {
+        private final StripedCounter longs = new StripedCounter();
+        private volatile StripedDoubleCounter doubles;
+        private volatile int kind;
+
+        Stat(int kind, long value) {
+            this.kind = kind;
+            longs.add(value);
+        }
+
+        void add(int kind, long delta) {
+            int current = this.kind;
+            if (current == UNSET || current == FLAG) {
+                changeKind(kind);
+            }
+            longs.add(delta);
+        }
+
+        void addDouble(double delta) {
+            if (kind != DOUBLE) {
+                changeKind(DOUBLE);
+            }
+            doubles().add(delta);
+        }
+
+        StripedDoubleCounter doubles() {
+            StripedDoubleCounter counter = doubles;
+            if (counter == null) {
+                synchronized (this) {
+                    counter = doubles;
+                    if (counter == null) {
+                        counter = new StripedDoubleCounter();
+                        doubles = counter;
+                    }
+                }
+            }
+            return counter;
+        }
+
+        private synchronized void changeKind(int kind) {
+            if (kind == DOUBLE || this.kind == UNSET || this.kind == FLAG) {
+                this.kind = kind;
+            }
+        }
+
+        long longValue() {
+            return kind == DOUBLE ? (long) doubleValue() : longs.sum();
+        }
+
+        double doubleValue() {
+            StripedDoubleCounter counter = doubles;
+            return counter == null ? longs.sum() : longs.sum() + counter.sum();
+        }
+
+        Object boxed() {
+            switch (kind) {
+                case INT:
+                    return (int) longValue();
+                case LONG:
+                    return longValue();
+                case FLAG:
+                    return longValue() != 0;
+                case DOUBLE:
+                    return doubleValue();
+                default:
+                    return null;
+            }
+        }
+
+        void copyTo(StatKey key, TrophyContext snapshot) {
+            switch (kind) {
+                case INT:
+                    snapshot.set(key, (int) longValue());
+                    break;
+                case LONG:
+                    snapshot.set(key, longValue());
+                    break;
+                case FLAG:
+                    snapshot.set(key, longValue() != 0);
+                    break;
+                case DOUBLE:
+                    snapshot.set(key, doubleValue());
+                    break;
+                default:
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.trophy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An interned handle to a primitive value stored in a TrophyContext.
+ * <p/>
+ * Resolve your keys once (for example in a static field of your rule) and use the handle every frame,
+ * reading and updating a value through a handle is an array lookup instead of hashing the key's name.
+ */
+public final class StatKey {
+    private static final Map<String, StatKey> KEYS_BY_NAME = new HashMap<String, StatKey>();
+    private static final List<StatKey> KEYS = new ArrayList<StatKey>();
+
+    private final String name;
+    final int index;
+
+    private StatKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Look up the handle for the given name, creating it the first time the name is used
+     *
+     * @param name - the name of the value
+     * @return the same handle for every call with the same name
+     */
+    public static StatKey of(String name) {
+        if (name == null) {
+            throw new NullPointerException("A StatKey requires a name");
+        }
+        synchronized (KEYS_BY_NAME) {
+            StatKey key = KEYS_BY_NAME.get(name);
+            if (key == null) {
+                key = new StatKey(name, KEYS.size());
+                KEYS_BY_NAME.put(name, key);
+                KEYS.add(key);
+            }
+            return key;
+        }
+    }
+
+    static StatKey find(String name) {
+        synchronized (KEYS_BY_NAME) {
+            return KEYS_BY_NAME.get(name);
+        }
+    }
+
+    static StatKey forIndex(int index) {
+        synchronized (KEYS_BY_NAME) {
+            return KEYS.get(index);
+        }
+    }
+
+    static int count() {
+        synchronized (KEYS_BY_NAME) {
+            return KEYS.size();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String toString() {
+        return name;
+    }
+}
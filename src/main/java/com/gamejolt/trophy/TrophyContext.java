@@ -15,33 +15,223 @@ package com.gamejolt.trophy;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A simple data structure for passing data to your trophy rules
+ * <p/>
+ * Besides objects, the context holds int, long and double counters and flags addressed by a StatKey.
+ * These are stored unboxed, so updating them every frame does not allocate. They are still visible
+ * (boxed) through the key based methods for rules that have not moved over to StatKeys, and a number or
+ * boolean put under the name of a StatKey updates the stat itself.
  */
 public class TrophyContext {
+    private static final byte UNSET = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLAG = 4;
+
     private Map<String, Object> context = new LinkedHashMap<String, Object>();
+    private long[] stats = new long[0];
+    private byte[] kinds = new byte[0];
+
+    /**
+     * The view of this context that trophy rules are evaluated against. A plain context is not thread-safe,
+     * so it is its own snapshot.
+     *
+     * @return the context to evaluate rules against
+     */
+    public TrophyContext snapshot() {
+        return this;
+    }
 
     public List<String> keys() {
-        return new ArrayList(context.keySet());
+        List<String> keys = new ArrayList(context.keySet());
+        for (int i = 0; i < kinds.length; i++) {
+            String name = StatKey.forIndex(i).getName();
+            if (kinds[i] != UNSET && !context.containsKey(name)) {
+                keys.add(name);
+            }
+        }
+        return keys;
     }
 
     public List<Object> values() {
-        return new ArrayList(context.values());
+        List<Object> values = new ArrayList(context.values());
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] != UNSET && !context.containsKey(StatKey.forIndex(i).getName())) {
+                values.add(boxed(i));
+            }
+        }
+        return values;
     }
 
     public Object get(String key) {
-        return context.get(key);
+        Object value = context.get(key);
+        if (value == null && !context.containsKey(key)) {
+            StatKey stat = StatKey.find(key);
+            if (stat != null && stat.index < kinds.length) {
+                return boxed(stat.index);
+            }
+        }
+        return value;
     }
 
+    /**
+     * @param key - the name of the value, when it is the name of a StatKey the value has to be a number, a boolean or
+     *            null, and is stored as that stat
+     * @param obj - the value
+     * @throws IllegalArgumentException is thrown if any other value is put under the name of a StatKey
+     */
     public void put(String key, Object obj) {
-        context.put(key, obj);
+        if (!putStat(key, obj)) {
+            context.put(key, obj);
+        }
+    }
+
+    /**
+     * Stores values put under the name of a StatKey in the stat itself, so they are not hidden from or by it
+     *
+     * @return false if there is no StatKey with the given name
+     */
+    boolean putStat(String key, Object obj) {
+        StatKey stat = StatKey.find(key);
+        if (stat == null) {
+            return false;
+        }
+        if (obj == null) {
+            clear(stat);
+        } else if (obj instanceof Integer || obj instanceof Short || obj instanceof Byte) {
+            set(stat, ((Number) obj).intValue());
+        } else if (obj instanceof Long) {
+            set(stat, ((Long) obj).longValue());
+        } else if (obj instanceof Double || obj instanceof Float) {
+            set(stat, ((Number) obj).doubleValue());
+        } else if (obj instanceof Boolean) {
+            set(stat, ((Boolean) obj).booleanValue());
+        } else {
+            throw new IllegalArgumentException(key + " is a StatKey, only numbers and booleans can be stored under it");
+        }
+        return true;
+    }
+
+    void clear(StatKey key) {
+        if (key.index < kinds.length) {
+            stats[key.index] = 0;
+            kinds[key.index] = UNSET;
+        }
     }
 
     public <T> T get(String key, Class<T> type) {
         return (T) get(key);
     }
-}
\ No newline at end of file
+
+    public int getInt(StatKey key) {
+        return (int) getLong(key);
+    }
+
+    public long getLong(StatKey key) {
+        if (key.index >= kinds.length) {
+            return 0;
+        }
+        if (kinds[key.index] == DOUBLE) {
+            return (long) Double.longBitsToDouble(stats[key.index]);
+        }
+        return stats[key.index];
+    }
+
+    public double getDouble(StatKey key) {
+        if (key.index >= kinds.length) {
+            return 0;
+        }
+        if (kinds[key.index] == DOUBLE) {
+            return Double.longBitsToDouble(stats[key.index]);
+        }
+        return stats[key.index];
+    }
+
+    public boolean isSet(StatKey key) {
+        return getDouble(key) != 0;
+    }
+
+    public void set(StatKey key, int value) {
+        store(key, INT, value);
+    }
+
+    public void set(StatKey key, long value) {
+        store(key, LONG, value);
+    }
+
+    public void set(StatKey key, double value) {
+        store(key, DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    public void set(StatKey key, boolean value) {
+        store(key, FLAG, value ? 1 : 0);
+    }
+
+    public void increment(StatKey key) {
+        add(key, 1);
+    }
+
+    public void add(StatKey key, int delta) {
+        add(key, INT, delta);
+    }
+
+    public void add(StatKey key, long delta) {
+        add(key, LONG, delta);
+    }
+
+    public void add(StatKey key, double delta) {
+        ensureCapacity(key.index);
+        double current = getDouble(key);
+        stats[key.index] = Double.doubleToRawLongBits(current + delta);
+        kinds[key.index] = DOUBLE;
+    }
+
+    private void add(StatKey key, byte kind, long delta) {
+        ensureCapacity(key.index);
+        byte currentKind = kinds[key.index];
+        if (currentKind == DOUBLE) {
+            add(key, (double) delta);
+            return;
+        }
+        stats[key.index] += delta;
+        if (currentKind == UNSET || currentKind == FLAG) {
+            kinds[key.index] = kind;
+        }
+    }
+
+    private void store(StatKey key, byte kind, long value) {
+        ensureCapacity(key.index);
+        stats[key.index] = value;
+        kinds[key.index] = kind;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index >= kinds.length) {
+            int length = Math.max(index + 1, StatKey.count());
+            stats = Arrays.copyOf(stats, length);
+            kinds = Arrays.copyOf(kinds, length);
+        }
+    }
+
+    private Object boxed(int index) {
+        switch (kinds[index]) {
+            case INT:
+                return (int) stats[index];
+            case LONG:
+                return stats[index];
+            case DOUBLE:
+                return Double.longBitsToDouble(stats[index]);
+            case FLAG:
+                return stats[index] != 0;
+            default:
+                return null;
+        }
+    }
+}
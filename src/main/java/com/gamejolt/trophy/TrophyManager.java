@@ -14,27 +14,55 @@
 package com.gamejolt.trophy;
 
 import com.gamejolt.GameJolt;
+import com.gamejolt.GameJoltException;
 import com.gamejolt.LoggingTrophyAchievedListener;
 import com.gamejolt.Trophy;
 import com.gamejolt.TrophyLookupListener;
+import com.gamejolt.UnverifiedUserException;
+import com.google.common.base.Ticker;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.gamejolt.util.Threads.await;
+import static com.gamejolt.util.Threads.daemonThreads;
 
 /**
  * This class manages your trophy rules and your trophy achievement listeners
  */
 public class TrophyManager {
+    private static final int DEFAULT_PARALLEL_EVALUATION_THRESHOLD = 256;
+    private static final int EVALUATION_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long FIRST_RETRY_DELAY = TimeUnit.SECONDS.toNanos(5);
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toNanos(5);
     private final Map<Integer, TrophyAndRuleHolder> holders = new LinkedHashMap<Integer, TrophyAndRuleHolder>();
     private final GameJolt gameJolt;
-    private List<TrophyManagerListener> listeners = new ArrayList<TrophyManagerListener>();
-    private boolean batchListenerNotification;
+    private final Ticker ticker;
+    private List<TrophyManagerListener> listeners = new CopyOnWriteArrayList<TrophyManagerListener>();
+    private volatile boolean batchListenerNotification;
+    private int parallelEvaluationThreshold = DEFAULT_PARALLEL_EVALUATION_THRESHOLD;
+    private ExecutorService ruleEvaluator;
+    private Executor achievementDispatcher;
+    private final AtomicReference<RuntimeException> dispatchFailure = new AtomicReference<RuntimeException>();
 
     public TrophyManager(GameJolt gameJolt) {
+        this(gameJolt, Ticker.systemTicker());
+    }
+
+    TrophyManager(GameJolt gameJolt, Ticker ticker) {
         this.gameJolt = gameJolt;
+        this.ticker = ticker;
     }
 
     /**
@@ -47,7 +75,9 @@ public class TrophyManager {
     public void registerRule(final int trophyId, final AcquiredTrophyRule trophyRule) throws TrophyNotFoundException {
         gameJolt.getTrophy(trophyId, new TrophyLookupListener() {
             public void found(Trophy trophy) {
-                holders.put(trophyId, new TrophyAndRuleHolder(trophy, trophyRule));
+                synchronized (holders) {
+                    holders.put(trophyId, new TrophyAndRuleHolder(trophy, trophyRule));
+                }
             }
 
             public void notFound(int trophyId) {
@@ -58,29 +88,48 @@ public class TrophyManager {
 
     /**
      * Executes all rules against the given context to determine if any trophies have been achieved
+     * <p/>
+     * Rules are evaluated first (in parallel once there are more rules than the parallel evaluation threshold) and
+     * only then are the achieved trophies sent to Game Jolt, asynchronously, so a slow unlock never holds up
+     * the evaluation of the remaining rules.
+     * <p/>
+     * Rules and listeners are given the context's snapshot, for a ConcurrentTrophyContext that is a plain copy
+     * so other threads can keep updating it while the rules run. Rules are evaluated without holding any lock, a
+     * trophy achieved by a concurrent call in the meantime is only reported once.
+     * <p/>
+     * Listeners are notified once a trophy has been sent to Game Jolt successfully. A trophy that could not be sent
+     * is marked as not achieved so its rule can fire again, and the failure is thrown by this method, by the next
+     * call when the trophy is sent asynchronously. Its rule is only evaluated again after a delay that starts at 5
+     * seconds and doubles with every failed attempt, up to 5 minutes, so an offline game does not resend it every
+     * frame.
      *
      * @param context - the data to be passed to your trophy rules
+     * @throws UnverifiedUserException is thrown if the current player has not been verified
+     * @throws GameJoltException is thrown if a trophy could not be sent to Game Jolt
      */
     public void manage(TrophyContext context) {
-        List<Trophy> trophiesAcquired = new ArrayList<Trophy>();
-        for (TrophyAndRuleHolder holder : holders.values()) {
-            if (!holder.trophy.isAchieved() && holder.rule.acquired(context)) {
-                gameJolt.achievedTrophy(holder.trophy.getId(), new LoggingTrophyAchievedListener());
-                holder.trophy.setAchieved(true);
-                if (batchListenerNotification) {
-                    trophiesAcquired.add(holder.trophy);
-                } else {
-                    for (TrophyManagerListener listener : listeners) {
-                        listener.trophiesAcquired(Arrays.asList(holder.trophy), context);
-                    }
+        rethrowDispatchFailure();
+        TrophyContext snapshot = context.snapshot();
+        List<TrophyAndRuleHolder> trophiesAcquired = new ArrayList<TrophyAndRuleHolder>();
+        List<TrophyAndRuleHolder> candidates;
+        synchronized (holders) {
+            candidates = unachievedHolders(ticker.read());
+        }
+        boolean[] acquired = evaluate(candidates, snapshot);
+
+        synchronized (holders) {
+            for (int i = 0; i < acquired.length; i++) {
+                TrophyAndRuleHolder holder = candidates.get(i);
+                if (acquired[i] && !holder.trophy.isAchieved()) {
+                    holder.trophy.setAchieved(true);
+                    trophiesAcquired.add(holder);
                 }
             }
         }
 
-        if (batchListenerNotification) {
-            for (TrophyManagerListener listener : listeners) {
-                listener.trophiesAcquired(trophiesAcquired, context);
-            }
+        if (!trophiesAcquired.isEmpty()) {
+            dispatchAchievements(trophiesAcquired, snapshot);
+            rethrowDispatchFailure();
         }
     }
 
@@ -102,9 +151,152 @@ public class TrophyManager {
         this.batchListenerNotification = batchListenerNotification;
     }
 
+    /**
+     * The number of rules that need to be registered before they are evaluated in parallel
+     *
+     * @param parallelEvaluationThreshold - the minimum number of unachieved trophy rules to evaluate in parallel
+     */
+    public void setParallelEvaluationThreshold(int parallelEvaluationThreshold) {
+        this.parallelEvaluationThreshold = parallelEvaluationThreshold;
+    }
+
+    /**
+     * Provide the executor used to evaluate large rule sets in parallel, your rules must be thread-safe when used.
+     * <p/>
+     * By default a pool of daemon threads, one per available processor, is created when it is first needed.
+     *
+     * @param ruleEvaluator - the executor the rules are evaluated on
+     */
+    public void setRuleEvaluator(ExecutorService ruleEvaluator) {
+        this.ruleEvaluator = ruleEvaluator;
+    }
+
+    /**
+     * Provide the executor used to send achieved trophies to Game Jolt.
+     * <p/>
+     * By default a single daemon thread is used so achievements are sent in the order they were acquired.
+     *
+     * @param achievementDispatcher - the executor achievements are sent on
+     */
+    public void setAchievementDispatcher(Executor achievementDispatcher) {
+        this.achievementDispatcher = achievementDispatcher;
+    }
+
+    private List<TrophyAndRuleHolder> unachievedHolders(long now) {
+        List<TrophyAndRuleHolder> candidates = new ArrayList<TrophyAndRuleHolder>(holders.size());
+        for (TrophyAndRuleHolder holder : holders.values()) {
+            if (!holder.trophy.isAchieved() && (holder.failures == 0 || now - holder.retryAt >= 0)) {
+                candidates.add(holder);
+            }
+        }
+        return candidates;
+    }
+
+    private boolean[] evaluate(List<TrophyAndRuleHolder> candidates, TrophyContext context) {
+        boolean[] acquired = new boolean[candidates.size()];
+        if (candidates.size() < parallelEvaluationThreshold) {
+            evaluate(candidates, context, acquired, 0, candidates.size());
+        } else {
+            evaluateInParallel(candidates, context, acquired);
+        }
+        return acquired;
+    }
+
+    private void evaluateInParallel(final List<TrophyAndRuleHolder> candidates, final TrophyContext context, final boolean[] acquired) {
+        int sliceSize = (candidates.size() + EVALUATION_THREADS - 1) / EVALUATION_THREADS;
+        List<Future<?>> slices = new ArrayList<Future<?>>(EVALUATION_THREADS);
+        for (int start = sliceSize; start < candidates.size(); start += sliceSize) {
+            final int from = start;
+            final int to = Math.min(start + sliceSize, candidates.size());
+            slices.add(ruleEvaluator().submit(new Callable<Void>() {
+                public Void call() {
+                    evaluate(candidates, context, acquired, from, to);
+                    return null;
+                }
+            }));
+        }
+
+        evaluate(candidates, context, acquired, 0, Math.min(sliceSize, candidates.size()));
+
+        for (Future<?> slice : slices) {
+            await(slice);
+        }
+    }
+
+    private void evaluate(List<TrophyAndRuleHolder> candidates, TrophyContext context, boolean[] acquired, int from, int to) {
+        for (int i = from; i < to; i++) {
+            acquired[i] = candidates.get(i).rule.acquired(context);
+        }
+    }
+
+    private void dispatchAchievements(final List<TrophyAndRuleHolder> acquired, final TrophyContext snapshot) {
+        achievementDispatcher().execute(new Runnable() {
+            public void run() {
+                List<Trophy> achieved = new ArrayList<Trophy>(acquired.size());
+                for (TrophyAndRuleHolder holder : acquired) {
+                    Trophy trophy = holder.trophy;
+                    try {
+                        gameJolt.achievedTrophy(trophy.getId(), new LoggingTrophyAchievedListener());
+                    } catch (RuntimeException err) {
+                        synchronized (holders) {
+                            trophy.setAchieved(false);
+                            holder.failures++;
+                            holder.retryAt = ticker.read() + retryDelay(holder.failures);
+                        }
+                        dispatchFailure.compareAndSet(null, err);
+                        continue;
+                    }
+                    synchronized (holders) {
+                        holder.failures = 0;
+                    }
+                    achieved.add(trophy);
+                    if (!batchListenerNotification) {
+                        notifyListeners(Arrays.asList(trophy), snapshot);
+                    }
+                }
+                if (batchListenerNotification) {
+                    notifyListeners(achieved, snapshot);
+                }
+            }
+        });
+    }
+
+    private static long retryDelay(int failures) {
+        return Math.min(FIRST_RETRY_DELAY << Math.min(failures - 1, 16), MAX_RETRY_DELAY);
+    }
+
+    private void notifyListeners(List<Trophy> trophies, TrophyContext snapshot) {
+        for (TrophyManagerListener listener : listeners) {
+            listener.trophiesAcquired(trophies, snapshot);
+        }
+    }
+
+    private void rethrowDispatchFailure() {
+        RuntimeException failure = dispatchFailure.getAndSet(null);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized ExecutorService ruleEvaluator() {
+        if (ruleEvaluator == null) {
+            ruleEvaluator = Executors.newFixedThreadPool(EVALUATION_THREADS, daemonThreads("trophy-rule-evaluator-%d"));
+        }
+        return ruleEvaluator;
+    }
+
+    private synchronized Executor achievementDispatcher() {
+        if (achievementDispatcher == null) {
+            achievementDispatcher = Executors.newSingleThreadExecutor(daemonThreads("trophy-achievement-dispatcher-%d"));
+        }
+        return achievementDispatcher;
+    }
+
     private static class TrophyAndRuleHolder {
         public final Trophy trophy;
         public final AcquiredTrophyRule rule;
+        int failures;
+        long retryAt;
 
         private TrophyAndRuleHolder(Trophy trophy, AcquiredTrophyRule rule) {
             this.trophy = trophy;
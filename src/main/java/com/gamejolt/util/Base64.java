@@ -22,4 +22,12 @@ public class Base64 {
     public byte[] decode(String encodedString) {
         return BaseEncoding.base64().decode(encodedString);
     }
+
+    public String encodeUrlSafe(byte[] bytes) {
+        return BaseEncoding.base64Url().omitPadding().encode(bytes);
+    }
+
+    public byte[] decodeUrlSafe(String encodedString) {
+        return BaseEncoding.base64Url().omitPadding().decode(encodedString);
+    }
 }
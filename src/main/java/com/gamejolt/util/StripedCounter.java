@@ -0,0 +1,91 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads concurrent updates over several cells so threads updating it do not contend on a
+ * single value, in the spirit of Java 8's LongAdder.
+ * <p/>
+ * Reads add up all the cells, so they are more expensive than updates and are not an atomic view of
+ * updates that are in progress at the same time.
+ */
+public class StripedCounter {
+    static final int CELL_PADDING = 8;
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedCounter(int stripes) {
+        int size = cellCount(stripes);
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * CELL_PADDING);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        cells.getAndAdd(cellIndex(mask), delta);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * CELL_PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Sets the counter back to zero, updates that happen at the same time may or may not be kept
+     */
+    public void reset() {
+        for (int i = 0; i <= mask; i++) {
+            cells.set(i * CELL_PADDING, 0);
+        }
+    }
+
+    /**
+     * Equivalent to calling sum() followed by reset(), except no update is lost between the two
+     *
+     * @return the sum before resetting
+     */
+    public long sumThenReset() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.getAndSet(i * CELL_PADDING, 0);
+        }
+        return sum;
+    }
+
+    public String toString() {
+        return String.valueOf(sum());
+    }
+
+    static int cellCount(int stripes) {
+        return Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    }
+
+    static int cellIndex(int mask) {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & mask) * CELL_PADDING;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The double counterpart of StripedCounter, in the spirit of Java 8's DoubleAdder. Each cell holds the raw bits
+ * of a double and is updated with compare-and-set, so threads updating it do not contend on a single value.
+ * <p/>
+ * Reads add up all the cells, so they are more expensive than updates and are not an atomic view of
+ * updates that are in progress at the same time.
+ */
+public class StripedDoubleCounter {
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedDoubleCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedDoubleCounter(int stripes) {
+        int size = StripedCounter.cellCount(stripes);
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * StripedCounter.CELL_PADDING);
+    }
+
+    public void add(double delta) {
+        int index = StripedCounter.cellIndex(mask);
+        long current;
+        do {
+            current = cells.get(index);
+        } while (!cells.compareAndSet(index, current, Double.doubleToRawLongBits(Double.longBitsToDouble(current) + delta)));
+    }
+
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += Double.longBitsToDouble(cells.get(i * StripedCounter.CELL_PADDING));
+        }
+        return sum;
+    }
+
+    public String toString() {
+        return String.valueOf(sum());
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.util;
+
+import com.gamejolt.GameJoltException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+public class Threads {
+    /**
+     * Creates daemon threads so background work never keeps a game from exiting
+     *
+     * @param nameFormat - the thread name, with a %d for the thread's number
+     * @return a factory creating named daemon threads
+     */
+    public static ThreadFactory daemonThreads(String nameFormat) {
+        return new ThreadFactoryBuilder().setDaemon(true).setNameFormat(nameFormat).build();
+    }
+
+    /**
+     * Waits for the given work to finish, rethrowing anything it failed with
+     *
+     * @param future - the work to wait on
+     * @return the result of the work
+     */
+    public static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+            throw new GameJoltException(err);
+        } catch (ExecutionException err) {
+            if (err.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) err.getCause();
+            }
+            if (err.getCause() instanceof Error) {
+                throw (Error) err.getCause();
+            }
+            throw new GameJoltException(err.getCause());
+        }
+    }
+
+    /**
+     * Runs the given tasks on a shared executor without waiting for them, at most maxConcurrent of them at a time.
+     * The tasks are expected to catch their own failures, the way a FutureTask does.
+     *
+     * @param executor      - the executor lending its threads
+     * @param tasks         - the tasks, started in the order given
+     * @param maxConcurrent - the maximum number of tasks running at the same time
+     */
+    public static void executeAll(Executor executor, Collection<? extends Runnable> tasks, int maxConcurrent) {
+        final Queue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>(tasks);
+        int workers = Math.min(maxConcurrent, tasks.size());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    Runnable task;
+                    while ((task = queue.poll()) != null) {
+                        task.run();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs the given tasks on a shared executor, at most maxConcurrent of them at a time, and waits for all of them.
+     * When a task fails the tasks that have not finished yet are cancelled and its failure is rethrown.
+     *
+     * @param executor      - the executor lending its threads
+     * @param tasks         - the tasks, started in the order given
+     * @param maxConcurrent - the maximum number of tasks running at the same time
+     * @return the result of each task, in the order the tasks were given
+     */
+    public static <T> List<T> runAll(Executor executor, List<? extends Callable<T>> tasks, int maxConcurrent) {
+        List<FutureTask<T>> futures = new ArrayList<FutureTask<T>>();
+        for (Callable<T> task : tasks) {
+            futures.add(new FutureTask<T>(task));
+        }
+        executeAll(executor, futures, maxConcurrent);
+
+        List<T> results = new ArrayList<T>();
+        try {
+            for (FutureTask<T> future : futures) {
+                results.add(await(future));
+            }
+        } finally {
+            for (FutureTask<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+
+public class DataStoreArchiveTest {
+    private InMemoryGameJolt gameJolt;
+    private UserSession session;
+    private DataStoreArchive archive;
+    private List<String> failures;
+
+    @Before
+    public void setUp() throws Exception {
+        gameJolt = new InMemoryGameJolt();
+        session = new UserSession(gameJolt, "player", "token");
+        failures = Collections.synchronizedList(new ArrayList<String>());
+        archive = new DataStoreArchive(gameJolt);
+        archive.setRequestsPerSecond(1000);
+        archive.setListener(new ArchiveListener() {
+            public void progress(int processed) {
+            }
+
+            public void failed(String username, String key, String reason) {
+                failures.add(username + "/" + key);
+            }
+        });
+    }
+
+    @Test
+    public void test_export() throws Exception {
+        gameJolt.data.put(DataKey.of(null, "level"), "H4sI+/=");
+        gameJolt.data.put(DataKey.of(null, GameDataVersions.PREFIX + "0123456789abcdef0123456789abcdef/level"), "0123456789abcdef0123456789abcdef");
+        gameJolt.data.put(DataKey.of(session, "save"), "42");
+        StringWriter output = new StringWriter();
+
+        assertEquals(1, archive.exportGameData(output));
+        assertEquals(1, archive.exportUserData(session, output));
+
+        assertEquals("{\"key\":\"level\",\"value\":\"H4sI+/=\"}\n" +
+                "{\"username\":\"player\",\"key\":\"save\",\"value\":\"42\"}\n", output.toString());
+    }
+
+    @Test
+    public void test_export_ReportsValuesThatVanished() throws Exception {
+        gameJolt.keysWithoutData.add("deleted");
+        gameJolt.data.put(DataKey.of(null, "level"), "1");
+
+        assertEquals(1, archive.exportGameData(new StringWriter()));
+        assertEquals(Arrays.asList("null/deleted"), failures);
+    }
+
+    @Test
+    public void test_import_RestoresWhatWasExported() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            gameJolt.data.put(DataKey.of(null, "key \"" + i + "\"\n"), "value" + i);
+        }
+        gameJolt.data.put(DataKey.of(session, "save"), "42");
+        StringWriter output = new StringWriter();
+        archive.exportGameData(output);
+        archive.exportUserData(session, output);
+        Map<DataKey, String> exported = new LinkedHashMap<DataKey, String>(gameJolt.data);
+        gameJolt.data.clear();
+
+        archive.setMaxConcurrentRequests(3);
+        assertEquals(21, archive.importArchive(new StringReader(output.toString()), Arrays.asList(session)));
+
+        assertEquals(exported, gameJolt.data);
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    public void test_import_ReportsFailures() throws Exception {
+        gameJolt.rejectedKeys.add("rejected");
+        String archived = "{\"key\":\"rejected\",\"value\":\"1\"}\n" +
+                "\n" +
+                "{ \"username\" : \"stranger\", \"key\" : \"save\", \"value\" : \"2\" }\n" +
+                "{\"username\":null,\"key\":\"kept\",\"value\":\"3\"}\n";
+
+        assertEquals(1, archive.importArchive(new StringReader(archived), Collections.<UserSession>emptyList()));
+
+        assertEquals("3", gameJolt.data.get(DataKey.of(null, "kept")));
+        assertTrue(failures.contains("null/rejected"));
+        assertTrue(failures.contains("stranger/save"));
+        assertEquals(2, failures.size());
+    }
+
+    @Test
+    public void test_import_MalformedLineIsReportedAndSkipped() throws Exception {
+        String archived = "{\"key\":\"level\"}\n" +
+                "{\"key\":\"kept\",\"value\":\"3\"}\n";
+
+        assertEquals(1, archive.importArchive(new StringReader(archived), Collections.<UserSession>emptyList()));
+
+        assertEquals("3", gameJolt.data.get(DataKey.of(null, "kept")));
+        assertEquals(Arrays.asList("null/null"), failures);
+    }
+
+    private static class InMemoryGameJolt extends GameJolt {
+        final Map<DataKey, String> data = Collections.synchronizedMap(new LinkedHashMap<DataKey, String>());
+        final List<String> keysWithoutData = new ArrayList<String>();
+        final List<String> rejectedKeys = new ArrayList<String>();
+
+        InMemoryGameJolt() {
+            super(-1, "in-memory");
+        }
+
+        @Override
+        public void getGameDataKeys(DataKeysListener listener) {
+            List<String> keys = new ArrayList<String>(keysWithoutData);
+            keys.addAll(keysOf(null));
+            listener.keys(DataKey.withoutReserved(keys));
+        }
+
+        @Override
+        void getUserDataKeys(UserSession session, DataKeysListener listener) {
+            listener.keys(keysOf(session.getUsername()));
+        }
+
+        @Override
+        String getRawData(UserSession session, String key) {
+            return data.get(DataKey.of(session, key));
+        }
+
+        @Override
+        boolean storeRawData(UserSession session, String key, String value) {
+            if (rejectedKeys.contains(key)) {
+                return false;
+            }
+            data.put(DataKey.of(session, key), value);
+            return true;
+        }
+
+        private List<String> keysOf(String username) {
+            List<String> keys = new ArrayList<String>();
+            synchronized (data) {
+                for (DataKey key : data.keySet()) {
+                    if (username == null ? key.isGameData() : username.equals(key.getUsername())) {
+                        keys.add(key.getKey());
+                    }
+                }
+            }
+            return keys;
+        }
+    }
+}
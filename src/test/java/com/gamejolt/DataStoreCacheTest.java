@@ -0,0 +1,84 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+
+public class DataStoreCacheTest {
+    private MockTicker ticker;
+    private DataStoreCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        ticker = new MockTicker();
+        cache = new DataStoreCache(2, 10, TimeUnit.MINUTES, ticker);
+    }
+
+    @Test
+    public void test_get() {
+        Object data = new Object();
+        cache.put(DataKey.of(null, "balance"), "sanitized".getBytes(), data);
+
+        DataStoreCache.Entry entry = cache.get(DataKey.of(null, "balance"));
+
+        assertSame(data, entry.data);
+        assertArrayEquals("sanitized".getBytes(), entry.sanitized);
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void test_get_Miss() {
+        assertNull(cache.get(DataKey.of(null, "balance")));
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void test_get_Expires() {
+        cache.put(DataKey.of(null, "balance"), "sanitized".getBytes(), new Object());
+        ticker.advance(TimeUnit.MINUTES.toNanos(11));
+
+        assertNull(cache.get(DataKey.of(null, "balance")));
+    }
+
+    @Test
+    public void test_put_EvictsLeastRecentlyUsed() {
+        cache.put(DataKey.of(null, "first"), "1".getBytes(), 1);
+        cache.put(DataKey.of(null, "second"), "2".getBytes(), 2);
+        cache.get(DataKey.of(null, "first"));
+        cache.put(DataKey.of(null, "third"), "3".getBytes(), 3);
+
+        assertNotNull(cache.get(DataKey.of(null, "first")));
+        assertNull(cache.get(DataKey.of(null, "second")));
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void test_invalidateUser() {
+        UserSession player = new UserSession(null, "player", "token");
+        UserSession other = new UserSession(null, "other", "token");
+        cache.put(DataKey.of(player, "profile"), "1".getBytes(), 1);
+        cache.put(DataKey.of(other, "profile"), "2".getBytes(), 2);
+
+        cache.invalidateUser("player");
+
+        assertNull(cache.get(DataKey.of(player, "profile")));
+        assertNotNull(cache.get(DataKey.of(other, "profile")));
+    }
+}
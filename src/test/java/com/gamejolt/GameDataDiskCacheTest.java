@@ -0,0 +1,103 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+
+public class GameDataDiskCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "game-data.cache");
+    }
+
+    @Test
+    public void test_write() {
+        Map<String, String> versions = new LinkedHashMap<String, String>();
+        versions.put("balance", "v1");
+        versions.put("levels", "v2");
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        values.put("balance", "H4sIbalance");
+        values.put("levels", "H4sIlevels");
+
+        new GameDataDiskCache(file).write(versions, values);
+
+        GameDataDiskCache cache = new GameDataDiskCache(file);
+        assertEquals(versions, cache.versions());
+        assertEquals("H4sIbalance", cache.read("balance"));
+        assertEquals("H4sIlevels", cache.read("levels"));
+        assertNull(cache.read("missing"));
+    }
+
+    @Test
+    public void test_write_ReplacesPreviousContents() {
+        GameDataDiskCache cache = new GameDataDiskCache(file);
+        cache.write(map("balance", "v1"), map("balance", "old"));
+        cache.read("balance");
+
+        cache.write(map("levels", "v2"), map("levels", "new"));
+
+        assertNull(cache.read("balance"));
+        assertEquals("new", cache.read("levels"));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void test_missingFile() {
+        GameDataDiskCache cache = new GameDataDiskCache(file);
+
+        assertTrue(cache.versions().isEmpty());
+        assertNull(cache.read("balance"));
+    }
+
+    @Test
+    public void test_unreadableFile() throws Exception {
+        FileOutputStream output = new FileOutputStream(file);
+        output.write("not a cache".getBytes());
+        output.close();
+
+        assertTrue(new GameDataDiskCache(file).versions().isEmpty());
+    }
+
+    @Test
+    public void test_invalidateAll() {
+        GameDataDiskCache cache = new GameDataDiskCache(file);
+        cache.write(map("balance", "v1"), map("balance", "data"));
+
+        cache.invalidateAll();
+
+        assertNull(cache.read("balance"));
+        assertFalse(file.exists());
+    }
+
+    private Map<String, String> map(String key, String value) {
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        map.put(key, value);
+        return map;
+    }
+}
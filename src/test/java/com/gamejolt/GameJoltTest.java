@@ -14,35 +14,58 @@
 package com.gamejolt;
 
 import com.gamejolt.highscore.Highscore;
+import com.gamejolt.highscore.HighscoreColumns;
 import com.gamejolt.highscore.HighscoreParser;
+import com.gamejolt.highscore.HighscoreTable;
 import com.gamejolt.io.BinarySanitizer;
+import com.gamejolt.io.CompactObjectSerializer;
+import com.gamejolt.io.CompressionDictionary;
 import com.gamejolt.io.ObjectSerializer;
+import com.gamejolt.net.DataStoreOperation;
 import com.gamejolt.net.HttpRequest;
+import com.gamejolt.net.HttpRequestException;
+import com.gamejolt.net.HttpResponseHandler;
 import com.gamejolt.net.MockHttpRequest;
 import com.gamejolt.net.RequestFactory;
+import com.gamejolt.util.Checksum;
 import com.gamejolt.util.Properties;
 import com.gamejolt.util.PropertiesParser;
 import com.gamejolt.util.TrophyParser;
+import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.Reader;
+import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GameJoltTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
     private static final Object OUR_OBJECT = new Object();
     private static final String USERNAME = "username";
     private static final String USER_TOKEN = "userToken";
@@ -68,6 +91,7 @@ public class GameJoltTest {
         trophiesLookupListener = new MockTrophiesLookupListener();
         listener = new MockListener();
         dataKeyListener = new MockDataKeysListener();
+        gameJolt.setVersionRecorder(MoreExecutors.sameThreadExecutor());
     }
 
     @Test
@@ -218,6 +242,36 @@ public class GameJoltTest {
         assertSame(OUR_OBJECT, data.get("key2"));
     }
 
+    @Test
+    public void test_lazyLoadAllGameData_OnlyFetchesTheKeysRead() {
+        whenWeQueryForGameDataKeys("key1", "key2");
+        whenWeQueryForGameData("key1", OUR_OBJECT);
+        whenWeQueryForGameData("key2", OUR_OBJECT);
+
+        LazyDataMap data = gameJolt.lazyLoadAllGameData();
+
+        assertEquals(2, data.size());
+        assertTrue(data.containsKey("key2"));
+        assertSame(OUR_OBJECT, data.get("key1"));
+        assertSame(OUR_OBJECT, data.get("key1"));
+        verify(requestFactory, times(1)).buildGetGameDataRequest("key1");
+        verify(requestFactory, never()).buildGetGameDataRequest("key2");
+    }
+
+    @Test
+    public void test_lazyLoadAllUserData() {
+        hasAVerifiedUser();
+        whenWeExpectToQueryForAllUserDataKeys("key1", "key2");
+        whenWeQueryForUserData("key1", OUR_OBJECT);
+
+        LazyDataMap data = gameJolt.lazyLoadAllUserData();
+
+        assertEquals(2, data.size());
+        assertSame(OUR_OBJECT, data.get("key1"));
+        assertFalse(data.isLoaded("key2"));
+        verify(requestFactory, never()).buildGetUserDataRequest(USERNAME, USER_TOKEN, "key2");
+    }
+
     @Test
     public void test_loadAllGameData_SingleKey() {
         whenWeQueryForGameDataKeys("key1");
@@ -590,264 +644,1273 @@ public class GameJoltTest {
     }
 
     @Test
-    public void test_getUnachievedTrophies_UnverifiedUser() {
-        try {
-            gameJolt.getUnachievedTrophies(trophiesLookupListener);
-            fail();
-        } catch (UnverifiedUserException e) {
+    public void test_storeGameData_Rejected() {
+        DummyObject obj = new DummyObject();
+        whenWeFailToStoreRawGameData("name", whenWeSerializeData("name", obj));
 
-        }
+        gameJolt.storeGameData("name", obj, listener);
+
+        listener.assertFailed("Game Jolt rejected the data stored under name");
     }
 
     @Test
-    public void test_getUnachievedTrophies() {
-        List trophies = new ArrayList();
+    public void test_storeGameData_StreamingObjectSerializer() {
+        useStreamingSerialization();
+        String sanitized = new BinarySanitizer().sanitize(new CompactObjectSerializer().serialize("saved"));
+        MockHttpTuple tuple = new MockHttpTuple("store-streamed-game-data");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildStoreGameDataRequest("name", sanitized)).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(successfulResponse());
 
-        hasAVerifiedUser();
+        gameJolt.storeGameData("name", "saved", listener);
 
-        whenWeRequestForUnachievedTrophies(trophies);
+        listener.assertSuccess();
+    }
 
-        gameJolt.getUnachievedTrophies(trophiesLookupListener);
+    @Test
+    public void test_getGameData_StreamingObjectSerializer() {
+        useStreamingSerialization();
+        String sanitized = new BinarySanitizer().sanitize(new CompactObjectSerializer().serialize("saved"));
+        MockHttpTuple tuple = new MockHttpTuple("streamed-game-data");
+        tuple.whenIsSuccessfulWithResponse("SUCCESS\r\n" + sanitized + "\r\n");
+        when(requestFactory.buildGetGameDataRequest("name")).thenReturn(tuple.request);
 
-        trophiesLookupListener.assertLookedUp(trophies);
+        assertEquals("saved", gameJolt.getGameData("name"));
     }
 
     @Test
-    public void test_getAchievedTrophies_UnverifiedUser() {
-        try {
-            gameJolt.getAchievedTrophies(trophiesLookupListener);
-            fail();
-        } catch (UnverifiedUserException e) {
+    public void test_getGameData_StreamingObjectSerializer_NoMatchingObject() {
+        useStreamingSerialization();
+        whenWeQueryForGameDataAndItFails("name");
 
-        }
+        assertNull(gameJolt.getGameData("name"));
     }
 
     @Test
-    public void test_getAchievedTrophies() {
-        List trophies = new ArrayList();
+    public void test_useCompressionDictionary() {
+        CompressionDictionary dictionary = new CompressionDictionary(1, new byte[]{1, 2, 3});
 
-        hasAVerifiedUser();
-        whenWeRequestForAchievedTrophies(trophies);
+        gameJolt.useCompressionDictionary(dictionary);
+        gameJolt.registerCompressionDictionary(dictionary);
 
-        gameJolt.getAchievedTrophies(trophiesLookupListener);
+        verify(binarySanitizer).setDictionary(dictionary);
+        verify(binarySanitizer).addDictionary(dictionary);
+    }
 
-        trophiesLookupListener.assertLookedUp(trophies);
+    @Test
+    public void test_storeChunkedGameData() {
+        gameJolt.setChunkSize(5);
+        DummyObject obj = new DummyObject();
+        String sanitized = whenWeSerializeData("big", obj);
+        whenWeQueryForRawGameData("big", null);
+        for (int i = 0; i < 4; i++) {
+            whenWeStoreRawGameData(chunkKeyOf("big", sanitized, 5, i), sanitized.substring(i * 5, Math.min(sanitized.length(), i * 5 + 5)));
+        }
+        whenWeStoreRawGameData("big", manifestOf(sanitized, 5));
+
+        gameJolt.storeChunkedGameData("big", obj, listener);
+
+        listener.assertSuccess();
+        assertTrue(chunkKeyOf("big", sanitized, 5, 3).startsWith(ChunkManifest.CHUNK_KEY_PREFIX + "big/"));
+        verify(requestFactory).buildStoreGameDataRequest(chunkKeyOf("big", sanitized, 5, 3), "ta");
+        verify(requestFactory).buildStoreGameDataRequest("big", manifestOf(sanitized, 5));
     }
 
     @Test
-    public void test_getAllTrophies() {
-        List trophies = new ArrayList();
+    public void test_storeChunkedGameData_RemovesThePreviousChunksLast() {
+        gameJolt.setChunkSize(20);
+        DummyObject obj = new DummyObject();
+        String sanitized = whenWeSerializeData("big", obj);
+        String previous = "a longer value stored before this one";
+        whenWeQueryForRawGameData("big", manifestOf(previous, 10));
+        whenWeStoreRawGameData(chunkKeyOf("big", sanitized, 20, 0), sanitized);
+        whenWeStoreRawGameData("big", manifestOf(sanitized, 20));
+        for (int i = 0; i < 4; i++) {
+            whenWeDeleteGameData(chunkKeyOf("big", previous, 10, i));
+        }
 
-        hasAVerifiedUser();
+        gameJolt.storeChunkedGameData("big", obj, listener);
 
-        whenWeRequestForAllTrophies(trophies);
+        listener.assertSuccess();
+        InOrder inOrder = inOrder(requestFactory);
+        inOrder.verify(requestFactory).buildStoreGameDataRequest("big", manifestOf(sanitized, 20));
+        inOrder.verify(requestFactory).buildRemoveGameDataRequest(chunkKeyOf("big", previous, 10, 3));
+        verify(requestFactory, never()).buildRemoveGameDataRequest(chunkKeyOf("big", sanitized, 20, 0));
+    }
 
-        gameJolt.getAllTrophies(trophiesLookupListener);
+    @Test
+    public void test_storeChunkedGameData_FailedChunkKeepsThePreviousValue() {
+        gameJolt.setChunkSize(10);
+        DummyObject obj = new DummyObject();
+        String sanitized = whenWeSerializeData("big", obj);
+        String previous = "the value stored before";
+        whenWeQueryForRawGameData("big", manifestOf(previous, 10));
+        whenWeStoreRawGameData(chunkKeyOf("big", sanitized, 10, 0), sanitized.substring(0, 10));
+        whenWeFailToStoreRawGameData(chunkKeyOf("big", sanitized, 10, 1), sanitized.substring(10));
+        whenWeDeleteGameData(chunkKeyOf("big", sanitized, 10, 0));
+        whenWeDeleteGameData(chunkKeyOf("big", sanitized, 10, 1));
 
-        trophiesLookupListener.assertLookedUp(trophies);
+        gameJolt.storeChunkedGameData("big", obj, listener);
+
+        listener.assertFailed("Chunk 2 of 2 could not be stored");
+        verify(requestFactory, never()).buildStoreGameDataRequest(eq("big"), anyString());
+        verify(requestFactory, never()).buildRemoveGameDataRequest(chunkKeyOf("big", previous, 10, 0));
+        verify(requestFactory).buildRemoveGameDataRequest(chunkKeyOf("big", sanitized, 10, 0));
     }
 
     @Test
-    public void test_getAllTrophies_UnverifiedUser() {
-        try {
-            gameJolt.getAllTrophies(trophiesLookupListener);
-            fail();
-        } catch (UnverifiedUserException e) {
+    public void test_storeChunkedGameData_Unchanged() {
+        gameJolt.setChunkSize(10);
+        DummyObject obj = new DummyObject();
+        String sanitized = whenWeSerializeData("big", obj);
+        whenWeQueryForRawGameData("big", manifestOf(sanitized, 10));
 
-        }
+        gameJolt.storeChunkedGameData("big", obj, listener);
+
+        listener.assertSuccess();
+        verify(requestFactory, never()).buildStoreGameDataRequest(anyString(), anyString());
+        verify(requestFactory, never()).buildRemoveGameDataRequest(anyString());
     }
 
     @Test
-    public void test_getTrophy_Unverified() {
+    public void test_getChunkedGameData() {
+        String sanitized = "big-sanitized-data";
+        whenWeQueryForChunkedGameData("big", sanitized, 5);
+        byte[] unsanitized = "big-unsanitized-data".getBytes();
+        when(binarySanitizer.unsanitize(sanitized)).thenReturn(unsanitized);
+        when(objectSerializer.deserialize(unsanitized)).thenReturn(OUR_OBJECT);
+
+        assertSame(OUR_OBJECT, gameJolt.getChunkedGameData("big"));
+    }
+
+    @Test
+    public void test_getChunkedGameData_CorruptChunk() {
+        String sanitized = "big-sanitized-data";
+        whenWeQueryForRawGameData("big", manifestOf(sanitized, 10));
+        whenWeQueryForRawGameData(chunkKeyOf("big", sanitized, 10, 0), sanitized.substring(0, 10));
+        whenWeQueryForRawGameData(chunkKeyOf("big", sanitized, 10, 1), "tampered");
+
         try {
-            gameJolt.getTrophy(12, trophyLookupListener);
+            gameJolt.getChunkedGameData("big");
             fail();
-        } catch (UnverifiedUserException er) {
-
+        } catch (GameJoltException e) {
+            assertEquals("Chunk 2 of 2 does not match its checksum", e.getMessage());
         }
     }
 
     @Test
-    public void test_getTrophy_NoMatchingTrophy() {
-        hasAVerifiedUser();
-        whenWeQueryForTrophyByIdWithNoResult(12);
-
-        gameJolt.getTrophy(12, trophyLookupListener);
+    public void test_getChunkedGameData_NotChunked() {
+        whenWeQueryForRawGameData("key-value", "key-value-data-stored");
+        whenWeDeserializeTheData("key-value", OUR_OBJECT);
 
-        trophyLookupListener.assertNotFound();
+        assertSame(OUR_OBJECT, gameJolt.getChunkedGameData("key-value"));
     }
 
     @Test
-    public void test_getTrophy() throws MalformedURLException {
-        Trophy trophy = new Trophy();
+    public void test_getChunkedGameData_NotFound() {
+        whenWeQueryForRawGameData("big", null);
 
-        hasAVerifiedUser();
-        whenWeQueryForTrophyById(12, trophy);
+        assertNull(gameJolt.getChunkedGameData("big"));
+    }
 
-        gameJolt.getTrophy(12, trophyLookupListener);
+    @Test
+    public void test_getGameData_ResolvesChunkedData() {
+        String sanitized = "big-sanitized-data";
+        whenWeQueryForChunkedGameData("big", sanitized, 5);
+        byte[] unsanitized = "big-unsanitized-data".getBytes();
+        when(binarySanitizer.unsanitize(sanitized)).thenReturn(unsanitized);
+        when(objectSerializer.deserialize(unsanitized)).thenReturn(OUR_OBJECT);
 
-        trophyLookupListener.assertFound(trophy);
+        assertSame(OUR_OBJECT, gameJolt.getGameData("big"));
     }
 
     @Test
-    public void test_achievedTrophy_UnverifiedUser() {
-        try {
-            gameJolt.achievedTrophy(1234, trophyAchievedListener);
-            fail();
-        } catch (UnverifiedUserException e) {
+    public void test_loadAllGameData_LeavesOutChunks() {
+        String sanitized = "big-sanitized-data";
+        whenWeQueryForGameDataKeys("big", chunkKeyOf("big", sanitized, 10, 0), chunkKeyOf("big", sanitized, 10, 1), "key1");
+        whenWeQueryForChunkedGameData("big", sanitized, 10);
+        byte[] unsanitized = "big-unsanitized-data".getBytes();
+        when(binarySanitizer.unsanitize(sanitized)).thenReturn(unsanitized);
+        when(objectSerializer.deserialize(unsanitized)).thenReturn(OUR_OBJECT);
+        whenWeQueryForGameData("key1", "value1");
 
-        }
+        Map<String, Object> data = gameJolt.loadAllGameData();
+
+        assertEquals(Arrays.asList("big", "key1"), new ArrayList<String>(data.keySet()));
+        assertEquals("value1", data.get("key1"));
+        assertSame(OUR_OBJECT, data.get("big"));
     }
 
     @Test
-    public void test_achievedTrophy_VerifiedUser() {
-        Trophy trophy = new Trophy();
-        hasAVerifiedUser();
-        whenUserAchievedATrophy(1234, true);
-        whenWeQueryForTrophyById(1234, trophy);
+    public void test_getGameDataKeys_LeavesOutReservedKeys() {
+        whenWeQueryForGameDataKeys("key-value", ChunkManifest.CHUNK_KEY_PREFIX + "big/abc/0", versionMarker("key-value", "data"));
 
-        gameJolt.achievedTrophy(1234, trophyAchievedListener);
+        gameJolt.getGameDataKeys(dataKeyListener);
 
-        trophyAchievedListener.assertAchieved(trophy);
+        dataKeyListener.assertKeys("key-value");
     }
 
     @Test
-    public void test_achievedTrophy_AlreadyAchieved() {
-        hasAVerifiedUser();
-        whenUserAchievedATrophy(1234, false);
+    public void test_removeChunkedGameData() {
+        String sanitized = "big-sanitized-data";
+        whenWeQueryForRawGameData("big", manifestOf(sanitized, 10));
+        whenWeDeleteGameData("big");
+        whenWeDeleteGameData(chunkKeyOf("big", sanitized, 10, 0));
+        whenWeDeleteGameData(chunkKeyOf("big", sanitized, 10, 1));
 
-        gameJolt.achievedTrophy(1234, trophyAchievedListener);
+        gameJolt.removeChunkedGameData("big", listener);
 
-        trophyAchievedListener.assertNotAchieved();
+        listener.assertSuccess();
+        verify(requestFactory).buildRemoveGameDataRequest(chunkKeyOf("big", sanitized, 10, 1));
     }
 
     @Test
-    public void test_verifyUser_NotVerified() {
-        whenUserFailsVerification(USERNAME, USER_TOKEN);
+    public void test_storeGameData_SkipUnchangedData() {
+        gameJolt.setSkipUnchangedData(true);
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        MockListener secondListener = new MockListener();
 
-        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+        gameJolt.storeGameData("name", obj, listener);
+        gameJolt.storeGameData("name", obj, secondListener);
 
-        userVerificationListener.assertNotVerified();
+        listener.assertSuccess();
+        secondListener.assertSuccess();
+        verify(requestFactory, times(1)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
     @Test
-    public void test_verifyUser_Verified() {
-        whenUserPassesVerification(USERNAME, USER_TOKEN);
+    public void test_storeGameData_SkipUnchangedData_StoresAgainAfterRemove() {
+        gameJolt.setSkipUnchangedData(true);
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        whenWeDeleteGameData("name");
 
-        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+        gameJolt.storeGameData("name", obj, new MockListener());
+        gameJolt.removeGameData("name", new MockListener());
+        gameJolt.storeGameData("name", obj, listener);
 
-        userVerificationListener.assertVerified();
+        listener.assertSuccess();
+        verify(requestFactory, times(2)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
     @Test
-    public void test_verifyUser_BadResponse() {
-        whenUserVerificationGetsBadResponseCode(USERNAME, USER_TOKEN);
+    public void test_storeGameData_SkipUnchangedData_RetriesFailedStores() {
+        gameJolt.setSkipUnchangedData(true);
+        DummyObject obj = new DummyObject();
+        MockHttpTuple tuple = new MockHttpTuple("store-game-data-fails");
+        tuple.whenIsSuccessful();
+        String sanitizedData = whenWeSerializeData("name", obj);
+        when(requestFactory.buildStoreGameDataRequest("name", sanitizedData)).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(properties(false));
 
-        try {
-            gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
-            fail();
-        } catch (GameJoltException err) {
+        gameJolt.storeGameData("name", obj, listener);
+        gameJolt.storeGameData("name", obj, listener);
 
-        }
+        listener.assertNotSuccessful();
+        verify(requestFactory, times(2)).buildStoreGameDataRequest("name", sanitizedData);
     }
 
     @Test
-    public void test_verifyUser_AlreadyVerified() {
-        whenUserPassesVerification(USERNAME, USER_TOKEN);
+    public void test_storeGameData_CoalescesWritesWithinWindow() {
+        gameJolt.setDataCoalescingWindow(1, TimeUnit.HOURS);
+        DummyObject first = new DummyObject();
+        DummyObject latest = new DummyObject();
+        whenWeSerializeData("first", first);
+        whenStoreGameData("name", latest);
+        MockListener firstListener = new MockListener();
 
-        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
-        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+        gameJolt.storeGameData("name", first, firstListener);
+        gameJolt.storeGameData("name", latest, listener);
+        verify(requestFactory, never()).buildStoreGameDataRequest(anyString(), anyString());
+        gameJolt.flushCoalescedData();
 
-        verify(requestFactory, times(1)).buildVerifyUserRequest(USERNAME, USER_TOKEN);
+        firstListener.assertSuccess();
+        listener.assertSuccess();
+        verify(requestFactory, times(1)).buildStoreGameDataRequest(anyString(), anyString());
     }
 
     @Test
-    public void test_verifyUser_DifferentUsernameAndFails() {
-        hasAVerifiedUser();
-        whenUserFailsVerification("different", USER_TOKEN);
+    public void test_storeGameData_CoalescedWriteIsSentAfterWindow() throws InterruptedException {
+        gameJolt.setDataCoalescingWindow(10, TimeUnit.MILLISECONDS);
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
 
-        gameJolt.verifyUser("different", USER_TOKEN, userVerificationListener);
+        gameJolt.storeGameData("name", obj, listener);
 
-        userVerificationListener.assertNotVerified();
+        verify(requestFactory, timeout(2000)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
     @Test
-    public void test_verifyUser_DifferentUserTokenAndFails() {
-        hasAVerifiedUser();
-        whenUserFailsVerification(USERNAME, "differentUserToken");
+    public void test_flushCoalescedData_RetriesFailedWrite() {
+        gameJolt.setDataCoalescingWindow(1, TimeUnit.HOURS);
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        HttpRequest stored = requestFactory.buildStoreGameDataRequest("name", "namesanitized-data");
+        when(requestFactory.buildStoreGameDataRequest("name", "namesanitized-data")).thenReturn(new MockHttpRequest(false, null), stored);
 
-        gameJolt.verifyUser(USERNAME, "differentUserToken", userVerificationListener);
+        gameJolt.storeGameData("name", obj, listener);
+        gameJolt.flushCoalescedData();
 
-        userVerificationListener.assertNotVerified();
+        listener.assertSuccess();
+        verify(requestFactory, times(3)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
-    private void hasAVerifiedUser() {
-        whenUserPassesVerification(USERNAME, USER_TOKEN);
-        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
-    }
+    @Test
+    public void test_flushCoalescedData_GivesUpAfterMaxAttempts() {
+        gameJolt.setDataCoalescingWindow(1, TimeUnit.HOURS);
+        DummyObject obj = new DummyObject();
+        whenWeSerializeData("name", obj);
+        when(requestFactory.buildStoreGameDataRequest("name", "namesanitized-data")).thenReturn(new MockHttpRequest(false, null));
 
-    private Properties properties(boolean successful) {
-        Properties properties = new Properties();
-        properties.put("success", String.valueOf(successful));
-        return properties;
-    }
+        gameJolt.storeGameData("name", obj, listener);
+        try {
+            gameJolt.flushCoalescedData();
+            fail();
+        } catch (GameJoltException err) {
+            listener.assertNotSuccessful();
+        }
+        gameJolt.flushCoalescedData();
 
-    private void whenWeExpectToQueryForAllUserDataKeysAndNoneAreFound() {
-        whenWeExpectToQueryForAllUserDataKeys();
+        verify(requestFactory, times(WriteCoalescer.MAX_ATTEMPTS)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
-    private void whenWeExpectToQueryForAllUserDataKeys(String... keys) {
-        Properties properties = new Properties();
-        for (String key : keys) {
-            properties.put(key, key);
+    @Test
+    public void test_flushCoalescedData_RetriesRejectedWriteThenReportsIt() {
+        gameJolt.setDataCoalescingWindow(1, TimeUnit.HOURS);
+        DummyObject obj = new DummyObject();
+        whenWeFailToStoreRawGameData("name", whenWeSerializeData("name", obj));
+
+        gameJolt.storeGameData("name", obj, listener);
+        try {
+            gameJolt.flushCoalescedData();
+            fail();
+        } catch (GameJoltException err) {
+            listener.assertFailed("Game Jolt rejected the data stored under name");
         }
-        whenWeExpectToQueryForAllUserDataKeys(properties);
+
+        verify(requestFactory, times(WriteCoalescer.MAX_ATTEMPTS)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
-    private void whenWeExpectToQueryForAllUserDataKeys(Properties properties) {
-        MockHttpTuple tuple = new MockHttpTuple("user-data-keys");
-        tuple.whenIsSuccessful();
-        HttpRequest request = tuple.request;
+    @Test
+    public void test_storeGameData_FailedCoalescedWriteIsRetriedAfterWindow() {
+        gameJolt.setDataCoalescingWindow(10, TimeUnit.MILLISECONDS);
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        HttpRequest stored = requestFactory.buildStoreGameDataRequest("name", "namesanitized-data");
+        when(requestFactory.buildStoreGameDataRequest("name", "namesanitized-data")).thenReturn(new MockHttpRequest(false, null), stored);
 
-        when(requestFactory.buildUserDataKeysRequest(USERNAME, USER_TOKEN)).thenReturn(request);
-        ArrayList<String> keys = new ArrayList<String>(properties.asMap().keySet());
-        when(propertiesParser.parseToList(tuple.responseContent, "key")).thenReturn(keys);
+        gameJolt.storeGameData("name", obj, listener);
+
+        verify(requestFactory, timeout(2000).times(3)).buildStoreGameDataRequest("name", "namesanitized-data");
     }
 
-    private void whenWeQueryForUserData(String key, Object expectedValue) {
-        String dataContent = whenWeDeserializeTheData(key, expectedValue);
-        MockHttpTuple tuple = new MockHttpTuple("user-data");
-        tuple.whenIsSuccessfulWithResponse("Success\n" + dataContent);
+    @Test
+    public void test_removeGameData_CancelsCoalescedWrite() {
+        gameJolt.setDataCoalescingWindow(1, TimeUnit.HOURS);
+        whenWeDeleteGameData("name");
 
-        when(requestFactory.buildGetUserDataRequest(USERNAME, USER_TOKEN, key)).thenReturn(tuple.request);
-    }
+        gameJolt.storeGameData("name", new DummyObject(), listener);
+        gameJolt.removeGameData("name", new MockListener());
+        gameJolt.flushCoalescedData();
 
-    private void whenWeQueryForGameData(String key, Object value) {
-        String storedData = whenWeDeserializeTheData(key, value);
-        MockHttpTuple tuple = new MockHttpTuple("game-data");
-        tuple.whenIsSuccessfulWithResponse("Success\r\n" + storedData);
-        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+        listener.assertNotSuccessful();
+        verify(requestFactory, never()).buildStoreGameDataRequest(anyString(), anyString());
     }
 
-    private void whenWeQueryForGameDataWithUnixLineEndings(String key, Object value) {
-        String storedData = whenWeDeserializeTheData(key, value);
-        MockHttpTuple tuple = new MockHttpTuple("game-data");
-        tuple.whenIsSuccessfulWithResponse("Success\n" + storedData);
-        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+    @Test
+    public void test_getGameData_DataStoreCache() {
+        DataStoreCache cache = new DataStoreCache(10, 1, TimeUnit.MINUTES);
+        cache.setShareObjects(true);
+        gameJolt.setDataStoreCache(cache);
+        whenWeQueryForGameData("key-value", OUR_OBJECT);
 
-    }
+        assertSame(OUR_OBJECT, gameJolt.getGameData("key-value"));
+        assertSame(OUR_OBJECT, gameJolt.getGameData("key-value"));
 
-    private void whenWeQueryForGameDataAndItFails(String key) {
-        MockHttpTuple tuple = new MockHttpTuple("game-data-failure");
-        tuple.whenIsSuccessfulWithResponse("FAILURE\nerror message");
-        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+        verify(requestFactory, times(1)).buildGetGameDataRequest("key-value");
+        verify(objectSerializer, times(1)).deserialize(any(byte[].class));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
     }
 
-    private void whenWeQueryForUserDataAndItFails() {
-        MockHttpTuple tuple = new MockHttpTuple("user-data-fails");
-        tuple.whenIsSuccessfulWithResponse("FAILURE\nerror message");
-        when(requestFactory.buildGetUserDataRequest(USERNAME, USER_TOKEN, "key-value")).thenReturn(tuple.request);
-    }
+    @Test
+    public void test_getGameData_DataStoreCache_DeserializesEveryHitByDefault() {
+        DataStoreCache cache = new DataStoreCache(10, 1, TimeUnit.MINUTES);
+        gameJolt.setDataStoreCache(cache);
+        whenWeQueryForGameData("key-value", OUR_OBJECT);
+
+        gameJolt.getGameData("key-value");
+        gameJolt.getGameData("key-value");
+
+        verify(requestFactory, times(1)).buildGetGameDataRequest("key-value");
+        verify(objectSerializer, times(2)).deserialize(any(byte[].class));
+        verify(binarySanitizer, times(2)).unsanitize(any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void test_storeGameData_DataStoreCacheIsWrittenThrough() {
+        DataStoreCache cache = new DataStoreCache(10, 1, TimeUnit.MINUTES);
+        cache.setShareObjects(true);
+        gameJolt.setDataStoreCache(cache);
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        whenWeDeserializeTheData("other", OUR_OBJECT);
+        byte[] unsanitized = "name-unsanitized-data".getBytes();
+        when(binarySanitizer.unsanitize("namesanitized-data")).thenReturn(unsanitized);
+        DummyObject read = new DummyObject();
+        when(objectSerializer.deserialize(unsanitized)).thenReturn(read);
+
+        gameJolt.storeGameData("name", obj, listener);
+
+        assertSame(read, gameJolt.getGameData("name"));
+        assertSame(read, gameJolt.getGameData("name"));
+        verify(requestFactory, never()).buildGetGameDataRequest("name");
+    }
+
+    @Test
+    public void test_removeGameData_InvalidatesDataStoreCache() {
+        gameJolt.setDataStoreCache(new DataStoreCache(10, 1, TimeUnit.MINUTES));
+        whenWeQueryForGameData("key-value", OUR_OBJECT);
+        whenWeDeleteGameData("key-value");
+
+        gameJolt.getGameData("key-value");
+        gameJolt.removeGameData("key-value", listener);
+        gameJolt.getGameData("key-value");
+
+        verify(requestFactory, times(2)).buildGetGameDataRequest("key-value");
+    }
+
+    @Test
+    public void test_clearAllUserData_InvalidatesDataStoreCache() {
+        gameJolt.setDataStoreCache(new DataStoreCache(10, 1, TimeUnit.MINUTES));
+        hasAVerifiedUser();
+        whenWeQueryForUserData("key-value", OUR_OBJECT);
+        whenWeExpectToQueryForAllUserDataKeysAndNoneAreFound();
+
+        gameJolt.getUserData("key-value");
+        gameJolt.clearAllUserData(listener);
+        gameJolt.getUserData("key-value");
+
+        verify(requestFactory, times(2)).buildGetUserDataRequest(USERNAME, USER_TOKEN, "key-value");
+    }
+
+    @Test
+    public void test_loadAllGameData_DiskCache_NoMarkersYet() {
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(new File(folder.getRoot(), "game-data.cache")));
+        whenWeQueryForGameDataKeys("key1");
+        whenWeQueryForRawGameData("key1", "key1-data-stored");
+        whenWeDeserializeTheData("key1", OUR_OBJECT);
+        whenWeStoreRawGameData(versionMarker("key1", "key1-data-stored"), new Checksum().md5("key1-data-stored"));
+
+        Map<String, Object> data = gameJolt.loadAllGameData();
+
+        assertEquals(1, data.size());
+        assertSame(OUR_OBJECT, data.get("key1"));
+        verify(requestFactory).buildStoreGameDataRequest(versionMarker("key1", "key1-data-stored"), new Checksum().md5("key1-data-stored"));
+    }
+
+    @Test
+    public void test_loadAllGameData_DiskCache_OnlyDownloadsChangedKeys() {
+        File file = new File(folder.getRoot(), "game-data.cache");
+        Map<String, String> versions = new LinkedHashMap<String, String>();
+        versions.put("key1", new Checksum().md5("key1-data-stored"));
+        versions.put("key2", "outdated");
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        values.put("key1", "key1-data-stored");
+        values.put("key2", "key2-outdated-data");
+        new GameDataDiskCache(file).write(versions, values);
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(file));
+        whenWeQueryForGameDataKeys("key1", "key2", versionMarker("key1", "key1-data-stored"), versionMarker("key2", "key2-data-stored"));
+        whenWeQueryForRawGameData("key2", "key2-data-stored");
+        whenWeDeserializeTheData("key1", OUR_OBJECT);
+        whenWeDeserializeTheData("key2", OUR_OBJECT);
+
+        Map<String, Object> data = gameJolt.loadAllGameData();
+
+        assertEquals(2, data.size());
+        verify(requestFactory, never()).buildGetGameDataRequest("key1");
+        verify(requestFactory).buildGetGameDataRequest("key2");
+        verify(requestFactory, never()).buildStoreGameDataRequest(eq(versionMarker("key2", "key2-data-stored")), anyString());
+        assertEquals("key2-data-stored", new GameDataDiskCache(file).read("key2"));
+    }
+
+    @Test
+    public void test_loadAllGameData_DiskCache_DownloadsKeysWithSeveralMarkers() {
+        File file = new File(folder.getRoot(), "game-data.cache");
+        Map<String, String> versions = new LinkedHashMap<String, String>();
+        versions.put("key1", new Checksum().md5("key1-data-stored"));
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        values.put("key1", "key1-data-stored");
+        new GameDataDiskCache(file).write(versions, values);
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(file));
+        whenWeQueryForGameDataKeys("key1", versionMarker("key1", "key1-data-stored"), versionMarker("key1", "key1-data-changed"));
+        whenWeQueryForRawGameData("key1", "key1-data-changed");
+        whenWeDeserializeTheData("key1", OUR_OBJECT);
+        whenWeDeleteGameData(versionMarker("key1", "key1-data-stored"));
+
+        gameJolt.loadAllGameData();
+
+        verify(requestFactory).buildGetGameDataRequest("key1");
+        verify(requestFactory).buildRemoveGameDataRequest(versionMarker("key1", "key1-data-stored"));
+        verify(requestFactory, never()).buildRemoveGameDataRequest(versionMarker("key1", "key1-data-changed"));
+        assertEquals("key1-data-changed", new GameDataDiskCache(file).read("key1"));
+    }
+
+    @Test
+    public void test_storeGameData_DiskCacheRecordsVersionMarker() {
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(new File(folder.getRoot(), "game-data.cache")));
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        String marker = versionMarker("name", "namesanitized-data");
+        whenWeStoreRawGameData(marker, new Checksum().md5("namesanitized-data"));
+
+        gameJolt.storeGameData("name", obj, listener);
+
+        listener.assertSuccess();
+        verify(requestFactory).buildStoreGameDataRequest(marker, new Checksum().md5("namesanitized-data"));
+        verify(requestFactory, never()).buildGetGameDataRequest(anyString());
+    }
+
+    @Test
+    public void test_storeGameData_DiskCacheReplacesVersionMarker() {
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(new File(folder.getRoot(), "game-data.cache")));
+        whenWeQueryForGameDataKeys("name", versionMarker("name", "name-data-stored"));
+        whenWeQueryForRawGameData("name", "name-data-stored");
+        whenWeDeserializeTheData("name", OUR_OBJECT);
+        gameJolt.loadAllGameData();
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        String marker = versionMarker("name", "namesanitized-data");
+        whenWeStoreRawGameData(marker, new Checksum().md5("namesanitized-data"));
+        whenWeDeleteGameData(versionMarker("name", "name-data-stored"));
+
+        gameJolt.storeGameData("name", obj, listener);
+
+        listener.assertSuccess();
+        InOrder inOrder = inOrder(requestFactory);
+        inOrder.verify(requestFactory).buildStoreGameDataRequest(marker, new Checksum().md5("namesanitized-data"));
+        inOrder.verify(requestFactory).buildStoreGameDataRequest("name", "namesanitized-data");
+        inOrder.verify(requestFactory).buildRemoveGameDataRequest(versionMarker("name", "name-data-stored"));
+    }
+
+    @Test
+    public void test_storeGameData_DiskCacheFailsWhenMarkerCannotBeStored() {
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(new File(folder.getRoot(), "game-data.cache")));
+        DummyObject obj = new DummyObject();
+        whenStoreGameData("name", obj);
+        whenWeStoreRawGameData(versionMarker("name", "namesanitized-data"), new Checksum().md5("namesanitized-data"), false);
+
+        try {
+            gameJolt.storeGameData("name", obj, listener);
+            fail();
+        } catch (GameJoltException err) {
+            verify(requestFactory, never()).buildStoreGameDataRequest("name", "namesanitized-data");
+        }
+    }
+
+    @Test
+    public void test_updateGameData_DiskCacheMarksTheKeyBeforeUpdating() {
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(new File(folder.getRoot(), "game-data.cache")));
+        String unknown = GameDataVersions.PREFIX + GameDataVersions.UNKNOWN_VERSION + "/visits";
+        whenWeStoreRawGameData(unknown, GameDataVersions.UNKNOWN_VERSION);
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "1", "Success\r\n5");
+        whenWeStoreRawGameData(versionMarker("visits", "5"), new Checksum().md5("5"));
+        whenWeDeleteGameData(unknown);
+
+        assertEquals("5", gameJolt.updateGameData("visits", DataStoreOperation.ADD, "1"));
+
+        InOrder inOrder = inOrder(requestFactory);
+        inOrder.verify(requestFactory).buildStoreGameDataRequest(unknown, GameDataVersions.UNKNOWN_VERSION);
+        inOrder.verify(requestFactory).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "1");
+        inOrder.verify(requestFactory).buildStoreGameDataRequest(versionMarker("visits", "5"), new Checksum().md5("5"));
+        inOrder.verify(requestFactory).buildRemoveGameDataRequest(unknown);
+    }
+
+    @Test
+    public void test_storeChunkedGameData_DiskCacheRecordsVersionMarker() {
+        gameJolt.setGameDataDiskCache(new GameDataDiskCache(new File(folder.getRoot(), "game-data.cache")));
+        gameJolt.setChunkSize(100);
+        DummyObject obj = new DummyObject();
+        String sanitized = whenWeSerializeData("big", obj);
+        whenWeQueryForRawGameData("big", null);
+        whenWeStoreRawGameData(chunkKeyOf("big", sanitized, 100, 0), sanitized);
+        whenWeStoreRawGameData("big", manifestOf(sanitized, 100));
+        String marker = versionMarker("big", manifestOf(sanitized, 100));
+        whenWeStoreRawGameData(marker, new Checksum().md5(manifestOf(sanitized, 100)));
+
+        gameJolt.storeChunkedGameData("big", obj, listener);
+
+        listener.assertSuccess();
+        verify(requestFactory).buildStoreGameDataRequest(marker, new Checksum().md5(manifestOf(sanitized, 100)));
+    }
+
+    @Test
+    public void test_updateGameData() {
+        whenWeUpdateGameData("visits", DataStoreOperation.APPEND, "!", "Success\r\nhello!");
+
+        assertEquals("hello!", gameJolt.updateGameData("visits", DataStoreOperation.APPEND, "!"));
+    }
+
+    @Test
+    public void test_updateGameData_Failure() {
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "1", "FAILURE\nerror message");
+
+        assertNull(gameJolt.updateGameData("visits", DataStoreOperation.ADD, "1"));
+    }
+
+    @Test
+    public void test_updateUserData() {
+        hasAVerifiedUser();
+        MockHttpTuple tuple = new MockHttpTuple("update-user-data");
+        tuple.whenIsSuccessfulWithResponse("Success\n12");
+        when(requestFactory.buildUpdateUserDataRequest(USERNAME, USER_TOKEN, "coins", DataStoreOperation.MULTIPLY, "2")).thenReturn(tuple.request);
+
+        assertEquals("12", gameJolt.updateUserData("coins", DataStoreOperation.MULTIPLY, "2"));
+    }
+
+    @Test
+    public void test_incrementGameData_SentRightAway() {
+        whenWeUpdateGameData("visits", DataStoreOperation.SUBTRACT, "3", "Success\n7");
+
+        gameJolt.incrementGameData("visits", -3);
+
+        verify(requestFactory).buildUpdateGameDataRequest("visits", DataStoreOperation.SUBTRACT, "3");
+    }
+
+    @Test
+    public void test_incrementGameData_AddsUpIncrementsUntilFlushed() {
+        gameJolt.setCounterFlushInterval(1, TimeUnit.HOURS);
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "4", "Success\n14");
+
+        gameJolt.incrementGameData("visits", 1);
+        gameJolt.incrementGameData("visits", 5);
+        gameJolt.incrementGameData("visits", -2);
+        verifyZeroInteractions(requestFactory);
+
+        gameJolt.flushCounters();
+        gameJolt.flushCounters();
+
+        verify(requestFactory, times(1)).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "4");
+        verifyNoMoreInteractions(requestFactory);
+    }
+
+    @Test
+    public void test_incrementGameData_KeepsIncrementsThatFailed() {
+        gameJolt.setCounterFlushInterval(1, TimeUnit.HOURS);
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "2", "FAILURE\nerror message");
+
+        gameJolt.incrementGameData("visits", 2);
+        gameJolt.flushCounters();
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "3", "Success\n3");
+        gameJolt.incrementGameData("visits", 1);
+        gameJolt.flushCounters();
+
+        verify(requestFactory).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "3");
+    }
+
+    @Test
+    public void test_incrementGameData_GivesUpAfterMaxAttempts() {
+        CounterFailureListener failureListener = mock(CounterFailureListener.class);
+        gameJolt.setCounterFailureListener(failureListener);
+        gameJolt.setCounterFlushInterval(1, TimeUnit.HOURS);
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "2", "FAILURE\nerror message");
+
+        gameJolt.incrementGameData("visits", 2);
+        for (int i = 0; i < CounterAggregator.MAX_ATTEMPTS + 1; i++) {
+            gameJolt.flushCounters();
+        }
+
+        verify(requestFactory, times(CounterAggregator.MAX_ATTEMPTS)).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "2");
+        verify(failureListener).failed(null, "visits", 2, "The update was rejected");
+    }
+
+    @Test
+    public void test_setCounterFlushInterval_ReportsIncrementsThatStillFail() {
+        CounterFailureListener failureListener = mock(CounterFailureListener.class);
+        gameJolt.setCounterFailureListener(failureListener);
+        gameJolt.setCounterFlushInterval(1, TimeUnit.HOURS);
+        whenWeUpdateGameData("visits", DataStoreOperation.ADD, "2", "FAILURE\nerror message");
+
+        gameJolt.incrementGameData("visits", 2);
+        gameJolt.flushCounters();
+        gameJolt.setCounterFlushInterval(0, TimeUnit.HOURS);
+
+        verify(requestFactory, times(CounterAggregator.MAX_ATTEMPTS)).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "2");
+        verify(failureListener).failed(null, "visits", 2, "The update was rejected");
+    }
+
+    @Test
+    public void test_incrementGameData_RetriesWhenGameJoltCouldNotBeReached() {
+        CounterFailureListener failureListener = mock(CounterFailureListener.class);
+        gameJolt.setCounterFailureListener(failureListener);
+        gameJolt.setCounterFlushInterval(1, TimeUnit.HOURS);
+        HttpRequest request = mock(HttpRequest.class);
+        doThrow(new HttpRequestException(new ConnectException("Connection refused"))).when(request).execute(any(HttpResponseHandler.class));
+        when(requestFactory.buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "2")).thenReturn(request);
+
+        gameJolt.incrementGameData("visits", 2);
+        gameJolt.flushCounters();
+        gameJolt.flushCounters();
+
+        verify(requestFactory, times(2)).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "2");
+        verifyZeroInteractions(failureListener);
+    }
+
+    @Test
+    public void test_incrementGameData_DoesNotRetryWhenTheUpdateMayHaveBeenApplied() {
+        CounterFailureListener failureListener = mock(CounterFailureListener.class);
+        gameJolt.setCounterFailureListener(failureListener);
+        gameJolt.setCounterFlushInterval(1, TimeUnit.HOURS);
+        when(requestFactory.buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "2")).thenReturn(new MockHttpRequest(false, null));
+
+        gameJolt.incrementGameData("visits", 2);
+        gameJolt.flushCounters();
+        gameJolt.flushCounters();
+
+        verify(requestFactory, times(1)).buildUpdateGameDataRequest("visits", DataStoreOperation.ADD, "2");
+        verify(failureListener).failed(null, "visits", 2, "Error");
+    }
+
+    @Test
+    public void test_getGameDataText() {
+        whenWeQueryForRawGameData("visits", "42");
+
+        assertEquals("42", gameJolt.getGameDataText("visits"));
+    }
+
+    @Test
+    public void test_getUserData_RemembersKeysThatWereNotListed() {
+        gameJolt.setRememberMissingLookups(true);
+        hasAVerifiedUser();
+        whenWeExpectToQueryForAllUserDataKeys("key1");
+        whenWeQueryForUserData("key1", OUR_OBJECT);
+
+        gameJolt.getUserDataKeys(dataKeyListener);
+
+        assertNull(gameJolt.getUserData("optional"));
+        assertSame(OUR_OBJECT, gameJolt.getUserData("key1"));
+        verify(requestFactory, never()).buildGetUserDataRequest(USERNAME, USER_TOKEN, "optional");
+    }
+
+    @Test
+    public void test_getGameData_RemembersMissingKeyUntilStored() {
+        gameJolt.setRememberMissingLookups(true);
+        whenWeQueryForGameDataAndItFails("optional");
+
+        assertNull(gameJolt.getGameData("optional"));
+        assertNull(gameJolt.getGameData("optional"));
+        verify(requestFactory, times(1)).buildGetGameDataRequest("optional");
+
+        whenStoreGameData("optional", OUR_OBJECT);
+        gameJolt.storeGameData("optional", OUR_OBJECT, listener);
+        whenWeQueryForGameData("optional", OUR_OBJECT);
+
+        assertSame(OUR_OBJECT, gameJolt.getGameData("optional"));
+    }
+
+    @Test
+    public void test_getTrophy_RemembersTrophiesThatWereNotListed() {
+        gameJolt.setRememberMissingLookups(true);
+        hasAVerifiedUser();
+        Trophy trophy = new Trophy();
+        trophy.setId(12);
+        whenWeRequestForAllTrophies(Arrays.asList(trophy));
+        gameJolt.getAllTrophies(trophiesLookupListener);
+
+        gameJolt.getTrophy(99, trophyLookupListener);
+
+        trophyLookupListener.assertNotFound();
+        verify(requestFactory, never()).buildTrophyRequest(USERNAME, USER_TOKEN, "99");
+    }
+
+    @Test
+    public void test_getGameDataKeys_Pattern() {
+        MockHttpTuple tuple = new MockHttpTuple("pattern-game-data-keys");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildGameDataKeysRequest("level_*")).thenReturn(tuple.request);
+        when(propertiesParser.parseToList(tuple.responseContent, "key")).thenReturn(Arrays.asList("level_1", "level_2"));
+
+        gameJolt.getGameDataKeys("level_*", dataKeyListener);
+
+        dataKeyListener.assertKeys("level_1", "level_2");
+    }
+
+    @Test
+    public void test_findGameDataKeys_ListsKeysOnlyOnce() {
+        whenWeQueryForGameDataKeys("season3/b", "level_1", "season3/a", "season2/a", versionMarker("level_1", "data"));
+
+        assertEquals(Arrays.asList("season3/a", "season3/b"), gameJolt.findGameDataKeys("season3/"));
+        assertEquals(Arrays.asList("level_1"), gameJolt.findGameDataKeys("level"));
+        assertEquals(Arrays.<String>asList(), gameJolt.findGameDataKeys("gamejolt"));
+        verify(requestFactory, times(1)).buildGameDataKeysRequest();
+    }
+
+    @Test
+    public void test_findGameDataKeys_FollowsStoresAndRemoves() {
+        whenWeQueryForGameDataKeys("season3/a");
+        gameJolt.findGameDataKeys("");
+        whenStoreGameData("season3/b", OUR_OBJECT);
+        whenWeDeleteGameData("season3/a");
+
+        gameJolt.storeGameData("season3/b", OUR_OBJECT, listener);
+        gameJolt.removeGameData("season3/a", listener);
+
+        assertEquals(Arrays.asList("season3/b"), gameJolt.findGameDataKeys("season3/"));
+    }
+
+    @Test
+    public void test_getAllHighscores_Table() {
+        List<Highscore> parseScores = Arrays.asList(new Highscore());
+        whenWeQueryForTableHighscores(7, 100, parseScores);
+
+        assertSame(parseScores, gameJolt.getAllHighscores(100, 7));
+    }
+
+    @Test
+    public void test_getAllHighscoreColumns() {
+        HighscoreColumns columns = HighscoreColumns.of(Arrays.asList(new Highscore()));
+        MockHttpTuple tuple = new MockHttpTuple("high-score-columns");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildAllHighscoresRequest(1000, 7)).thenReturn(tuple.request);
+        when(highscoreParser.parseColumns(tuple.responseContent)).thenReturn(columns);
+
+        assertSame(columns, gameJolt.getAllHighscoreColumns(1000, 7));
+        verify(highscoreParser, never()).parse(anyString());
+    }
+
+    @Test
+    public void test_getHighscorePage_ParsesTheStreamedResponse() throws Exception {
+        final HighscoreColumns columns = HighscoreColumns.of(Arrays.asList(new Highscore()));
+        final MockHttpTuple tuple = new MockHttpTuple("high-score-page");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildHighscoresPageRequest(50, 7, 300)).thenReturn(tuple.request);
+        when(highscoreParser.parseColumns(any(Reader.class))).thenAnswer(new Answer<HighscoreColumns>() {
+            public HighscoreColumns answer(InvocationOnMock invocation) throws Throwable {
+                assertEquals(tuple.responseContent, new BufferedReader((Reader) invocation.getArguments()[0]).readLine());
+                return columns;
+            }
+        });
+
+        assertSame(columns, gameJolt.getHighscorePage(7, 50, 300));
+    }
+
+    @Test
+    public void test_getAllHighscores_SeveralTables() {
+        List<Highscore> first = Arrays.asList(new Highscore());
+        List<Highscore> second = Arrays.asList(new Highscore(), new Highscore());
+        whenWeQueryForTableHighscores(1, 10, first);
+        whenWeQueryForTableHighscores(2, 10, second);
+
+        Map<Integer, List<Highscore>> scores = gameJolt.getAllHighscores(10, Arrays.asList(2, 1));
+
+        assertEquals(Arrays.asList(2, 1), new ArrayList<Integer>(scores.keySet()));
+        assertSame(first, scores.get(1));
+        assertSame(second, scores.get(2));
+    }
+
+    @Test
+    public void test_getAllHighscores_CachedPerTable() {
+        gameJolt.setHighscoreCacheDuration(1, TimeUnit.MINUTES);
+        hasAVerifiedUser();
+        whenWeQueryForTableHighscores(7, 10, Arrays.asList(new Highscore()));
+        whenWeQueryForTableHighscores(8, 10, Arrays.asList(new Highscore()));
+        MockHttpTuple tuple = new MockHttpTuple("table-high-score");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildUserAchievedHighscoreRequest(USERNAME, USER_TOKEN, "10", 10, "", 7)).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(successfulResponse());
+
+        gameJolt.getTop10Highscores(7);
+        gameJolt.getTop10Highscores(7);
+        gameJolt.getTop10Highscores(8);
+        assertTrue(gameJolt.userAchievedHighscore("10", 10, "", 7));
+        gameJolt.getTop10Highscores(7);
+        gameJolt.getTop10Highscores(8);
+
+        verify(requestFactory, times(2)).buildAllHighscoresRequest(10, 7);
+        verify(requestFactory, times(1)).buildAllHighscoresRequest(10, 8);
+    }
+
+    @Test
+    public void test_guestAchievedHighscore() {
+        MockHttpTuple tuple = new MockHttpTuple("guest-high-score");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildGuestAchievedHighscoreRequest("Guest", "1,500", 1500, "")).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(successfulResponse());
+
+        assertTrue(gameJolt.guestAchievedHighscore("Guest", 1500));
+    }
+
+    @Test
+    public void test_getHighscoreTables() {
+        List<HighscoreTable> tables = Arrays.asList(new HighscoreTable());
+        MockHttpTuple tuple = new MockHttpTuple("high-score-tables");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildHighscoreTablesRequest()).thenReturn(tuple.request);
+        when(highscoreParser.parseTables(tuple.responseContent)).thenReturn(tables);
+
+        assertSame(tables, gameJolt.getHighscoreTables());
+    }
+
+    @Test
+    public void test_getUnachievedTrophies_UnverifiedUser() {
+        try {
+            gameJolt.getUnachievedTrophies(trophiesLookupListener);
+            fail();
+        } catch (UnverifiedUserException e) {
+
+        }
+    }
+
+    @Test
+    public void test_getUnachievedTrophies() {
+        List trophies = new ArrayList();
+
+        hasAVerifiedUser();
+
+        whenWeRequestForUnachievedTrophies(trophies);
+
+        gameJolt.getUnachievedTrophies(trophiesLookupListener);
+
+        trophiesLookupListener.assertLookedUp(trophies);
+    }
+
+    @Test
+    public void test_getAchievedTrophies_UnverifiedUser() {
+        try {
+            gameJolt.getAchievedTrophies(trophiesLookupListener);
+            fail();
+        } catch (UnverifiedUserException e) {
+
+        }
+    }
+
+    @Test
+    public void test_getAchievedTrophies() {
+        List trophies = new ArrayList();
+
+        hasAVerifiedUser();
+        whenWeRequestForAchievedTrophies(trophies);
+
+        gameJolt.getAchievedTrophies(trophiesLookupListener);
+
+        trophiesLookupListener.assertLookedUp(trophies);
+    }
+
+    @Test
+    public void test_getAllTrophies() {
+        List trophies = new ArrayList();
+
+        hasAVerifiedUser();
+
+        whenWeRequestForAllTrophies(trophies);
+
+        gameJolt.getAllTrophies(trophiesLookupListener);
+
+        trophiesLookupListener.assertLookedUp(trophies);
+    }
+
+    @Test
+    public void test_getAllTrophies_UnverifiedUser() {
+        try {
+            gameJolt.getAllTrophies(trophiesLookupListener);
+            fail();
+        } catch (UnverifiedUserException e) {
+
+        }
+    }
+
+    @Test
+    public void test_getTrophy_Unverified() {
+        try {
+            gameJolt.getTrophy(12, trophyLookupListener);
+            fail();
+        } catch (UnverifiedUserException er) {
+
+        }
+    }
+
+    @Test
+    public void test_getTrophy_NoMatchingTrophy() {
+        hasAVerifiedUser();
+        whenWeQueryForTrophyByIdWithNoResult(12);
+
+        gameJolt.getTrophy(12, trophyLookupListener);
+
+        trophyLookupListener.assertNotFound();
+    }
+
+    @Test
+    public void test_getTrophy() throws MalformedURLException {
+        Trophy trophy = new Trophy();
+
+        hasAVerifiedUser();
+        whenWeQueryForTrophyById(12, trophy);
+
+        gameJolt.getTrophy(12, trophyLookupListener);
+
+        trophyLookupListener.assertFound(trophy);
+    }
+
+    @Test
+    public void test_achievedTrophy_UnverifiedUser() {
+        try {
+            gameJolt.achievedTrophy(1234, trophyAchievedListener);
+            fail();
+        } catch (UnverifiedUserException e) {
+
+        }
+    }
+
+    @Test
+    public void test_achievedTrophy_VerifiedUser() {
+        Trophy trophy = new Trophy();
+        hasAVerifiedUser();
+        whenUserAchievedATrophy(1234, true);
+        whenWeQueryForTrophyById(1234, trophy);
+
+        gameJolt.achievedTrophy(1234, trophyAchievedListener);
+
+        trophyAchievedListener.assertAchieved(trophy);
+    }
+
+    @Test
+    public void test_achievedTrophy_AlreadyAchieved() {
+        hasAVerifiedUser();
+        whenUserAchievedATrophy(1234, false);
+
+        gameJolt.achievedTrophy(1234, trophyAchievedListener);
+
+        trophyAchievedListener.assertNotAchieved();
+    }
+
+    @Test
+    public void test_verifyUser_NotVerified() {
+        whenUserFailsVerification(USERNAME, USER_TOKEN);
+
+        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+
+        userVerificationListener.assertNotVerified();
+    }
+
+    @Test
+    public void test_verifyUser_Verified() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+
+        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+
+        userVerificationListener.assertVerified();
+    }
+
+    @Test
+    public void test_verifyUser_BadResponse() {
+        whenUserVerificationGetsBadResponseCode(USERNAME, USER_TOKEN);
+
+        try {
+            gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+            fail();
+        } catch (GameJoltException err) {
+
+        }
+    }
+
+    @Test
+    public void test_verifyUser_AlreadyVerified() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+
+        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+
+        verify(requestFactory, times(1)).buildVerifyUserRequest(USERNAME, USER_TOKEN);
+    }
+
+    @Test
+    public void test_verifyUser_DifferentUsernameAndFails() {
+        hasAVerifiedUser();
+        whenUserFailsVerification("different", USER_TOKEN);
+
+        gameJolt.verifyUser("different", USER_TOKEN, userVerificationListener);
+
+        userVerificationListener.assertNotVerified();
+    }
+
+    @Test
+    public void test_verifyUser_DifferentUserTokenAndFails() {
+        hasAVerifiedUser();
+        whenUserFailsVerification(USERNAME, "differentUserToken");
+
+        gameJolt.verifyUser(USERNAME, "differentUserToken", userVerificationListener);
+
+        userVerificationListener.assertNotVerified();
+    }
+
+    @Test
+    public void test_openSession_Verified() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+        whenWeQueryForUserData("key-value", OUR_OBJECT);
+
+        UserSession session = gameJolt.openSession(USERNAME, USER_TOKEN);
+
+        assertEquals(USERNAME, session.getUsername());
+        assertSame(OUR_OBJECT, session.getUserData("key-value"));
+    }
+
+    @Test
+    public void test_openSession_DoesNotVerifyTheSharedInstance() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+
+        gameJolt.openSession(USERNAME, USER_TOKEN);
+
+        try {
+            gameJolt.getUserData("key-value");
+            fail();
+        } catch (UnverifiedUserException err) {
+
+        }
+    }
+
+    @Test
+    public void test_openSession_NotVerified() {
+        whenUserFailsVerification(USERNAME, USER_TOKEN);
+
+        try {
+            gameJolt.openSession(USERNAME, USER_TOKEN);
+            fail();
+        } catch (UnverifiedUserException err) {
+
+        }
+    }
+
+    @Test
+    public void test_openSession_MultipleUsers() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+        whenUserPassesVerification("other", "otherToken");
+        whenUserAchievedATrophy(1234, true);
+        whenWeQueryForTrophyById(1234, new Trophy());
+        MockHttpTuple tuple = new MockHttpTuple("achieved-trophy-other");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildAchievedTrophyRequest("other", "otherToken", "1234")).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(properties(false));
+
+        MockTrophyAchievedListener otherListener = new MockTrophyAchievedListener();
+
+        UserSession session = gameJolt.openSession(USERNAME, USER_TOKEN);
+        UserSession other = gameJolt.openSession("other", "otherToken");
+        session.achievedTrophy(1234, trophyAchievedListener);
+        other.achievedTrophy(1234, otherListener);
+
+        trophyAchievedListener.assertAchieved();
+        otherListener.assertNotAchieved();
+    }
+
+    @Test
+    public void test_verifyUser_SharedVerificationCache() {
+        VerificationCache verificationCache = new VerificationCache(1, TimeUnit.MINUTES);
+        GameJolt otherGameJolt = new GameJolt(1111, "private-key");
+        otherGameJolt.setRequestFactory(requestFactory);
+        otherGameJolt.setPropertiesParser(propertiesParser);
+        otherGameJolt.setVerificationCache(verificationCache);
+        gameJolt.setVerificationCache(verificationCache);
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+
+        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+        MockUserVerificationListener otherListener = new MockUserVerificationListener();
+        otherGameJolt.verifyUser(USERNAME, USER_TOKEN, otherListener);
+
+        otherListener.assertVerified();
+        verify(requestFactory, times(1)).buildVerifyUserRequest(USERNAME, USER_TOKEN);
+    }
+
+    @Test
+    public void test_openSessions() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+        MockHttpTuple tuple = new MockHttpTuple("other-verification");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildVerifyUserRequest("other", "otherToken")).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(properties(false));
+        Map<String, String> userTokens = new LinkedHashMap<String, String>();
+        userTokens.put(USERNAME, USER_TOKEN);
+        userTokens.put("other", "otherToken");
+
+        Map<String, UserSession> sessions = gameJolt.openSessions(userTokens, 2);
+
+        assertEquals(1, sessions.size());
+        assertEquals(USERNAME, sessions.get(USERNAME).getUsername());
+    }
+
+    private void hasAVerifiedUser() {
+        whenUserPassesVerification(USERNAME, USER_TOKEN);
+        gameJolt.verifyUser(USERNAME, USER_TOKEN, userVerificationListener);
+    }
+
+    private Properties properties(boolean successful) {
+        Properties properties = new Properties();
+        properties.put("success", String.valueOf(successful));
+        return properties;
+    }
+
+    private void whenWeExpectToQueryForAllUserDataKeysAndNoneAreFound() {
+        whenWeExpectToQueryForAllUserDataKeys();
+    }
+
+    private void whenWeExpectToQueryForAllUserDataKeys(String... keys) {
+        Properties properties = new Properties();
+        for (String key : keys) {
+            properties.put(key, key);
+        }
+        whenWeExpectToQueryForAllUserDataKeys(properties);
+    }
+
+    private void whenWeExpectToQueryForAllUserDataKeys(Properties properties) {
+        MockHttpTuple tuple = new MockHttpTuple("user-data-keys");
+        tuple.whenIsSuccessful();
+        HttpRequest request = tuple.request;
+
+        when(requestFactory.buildUserDataKeysRequest(USERNAME, USER_TOKEN)).thenReturn(request);
+        ArrayList<String> keys = new ArrayList<String>(properties.asMap().keySet());
+        when(propertiesParser.parseToList(tuple.responseContent, "key")).thenReturn(keys);
+    }
+
+    private void whenWeQueryForUserData(String key, Object expectedValue) {
+        String dataContent = whenWeDeserializeTheData(key, expectedValue);
+        MockHttpTuple tuple = new MockHttpTuple("user-data");
+        tuple.whenIsSuccessfulWithResponse("Success\n" + dataContent);
+
+        when(requestFactory.buildGetUserDataRequest(USERNAME, USER_TOKEN, key)).thenReturn(tuple.request);
+    }
+
+    private void whenWeQueryForGameData(String key, Object value) {
+        String storedData = whenWeDeserializeTheData(key, value);
+        MockHttpTuple tuple = new MockHttpTuple("game-data");
+        tuple.whenIsSuccessfulWithResponse("Success\r\n" + storedData);
+        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+    }
+
+    private void whenWeQueryForGameDataWithUnixLineEndings(String key, Object value) {
+        String storedData = whenWeDeserializeTheData(key, value);
+        MockHttpTuple tuple = new MockHttpTuple("game-data");
+        tuple.whenIsSuccessfulWithResponse("Success\n" + storedData);
+        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+
+    }
+
+    private void whenWeUpdateGameData(String key, DataStoreOperation operation, String value, String response) {
+        MockHttpTuple tuple = new MockHttpTuple("update-game-data");
+        tuple.whenIsSuccessfulWithResponse(response);
+        when(requestFactory.buildUpdateGameDataRequest(key, operation, value)).thenReturn(tuple.request);
+    }
+
+    private void whenWeQueryForGameDataAndItFails(String key) {
+        MockHttpTuple tuple = new MockHttpTuple("game-data-failure");
+        tuple.whenIsSuccessfulWithResponse("FAILURE\nerror message");
+        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+    }
+
+    private void whenWeQueryForUserDataAndItFails() {
+        MockHttpTuple tuple = new MockHttpTuple("user-data-fails");
+        tuple.whenIsSuccessfulWithResponse("FAILURE\nerror message");
+        when(requestFactory.buildGetUserDataRequest(USERNAME, USER_TOKEN, "key-value")).thenReturn(tuple.request);
+    }
 
     private void whenWeQueryForGameDataKeys(String... keys) {
         MockHttpTuple tuple = new MockHttpTuple("all-game-data-keys");
@@ -927,6 +1990,62 @@ public class GameJoltTest {
         when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(successfulResponse());
     }
 
+    private void whenWeQueryForRawGameData(String key, String data) {
+        MockHttpTuple tuple = new MockHttpTuple("raw-game-data-" + key);
+        tuple.whenIsSuccessfulWithResponse(data == null ? "FAILURE\nNo item with that key could be found." : "SUCCESS\n" + data);
+        when(requestFactory.buildGetGameDataRequest(key)).thenReturn(tuple.request);
+    }
+
+    private void whenWeStoreRawGameData(String key, String data) {
+        whenWeStoreRawGameData(key, data, true);
+    }
+
+    private void whenWeStoreRawGameData(String key, String data, boolean successful) {
+        MockHttpTuple tuple = new MockHttpTuple("store-raw-game-data-" + key);
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildStoreGameDataRequest(key, data)).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(properties(successful));
+    }
+
+    private String versionMarker(String key, String stored) {
+        return GameDataVersions.PREFIX + new Checksum().md5(stored) + "/" + key;
+    }
+
+    private ChunkManifest chunkManifestOf(String sanitized, int chunkSize) {
+        List<String> checksums = new ArrayList<String>();
+        for (int start = 0; start < sanitized.length(); start += chunkSize) {
+            checksums.add(new Checksum().md5(sanitized.substring(start, Math.min(sanitized.length(), start + chunkSize))));
+        }
+        return new ChunkManifest(new Checksum().md5(Joiner.on(',').join(checksums)).substring(0, 12), checksums);
+    }
+
+    private String manifestOf(String sanitized, int chunkSize) {
+        return chunkManifestOf(sanitized, chunkSize).toString();
+    }
+
+    private String chunkKeyOf(String key, String sanitized, int chunkSize, int index) {
+        return chunkManifestOf(sanitized, chunkSize).chunkKey(key, index);
+    }
+
+    private void whenWeQueryForChunkedGameData(String key, String sanitized, int chunkSize) {
+        whenWeQueryForRawGameData(key, manifestOf(sanitized, chunkSize));
+        for (int i = 0; i * chunkSize < sanitized.length(); i++) {
+            whenWeQueryForRawGameData(chunkKeyOf(key, sanitized, chunkSize, i), sanitized.substring(i * chunkSize, Math.min(sanitized.length(), i * chunkSize + chunkSize)));
+        }
+    }
+
+    private void whenWeFailToStoreRawGameData(String key, String data) {
+        MockHttpTuple tuple = new MockHttpTuple("fail-store-raw-game-data-" + key);
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildStoreGameDataRequest(key, data)).thenReturn(tuple.request);
+        when(propertiesParser.parseProperties(tuple.responseContent)).thenReturn(properties(false));
+    }
+
+    private void useStreamingSerialization() {
+        gameJolt.setObjectSerializer(new CompactObjectSerializer());
+        gameJolt.setBinarySanitizer(new BinarySanitizer());
+    }
+
     private String whenWeSerializeData(String prefix, Object obj) {
         String sanitizedData = prefix + "sanitized-data";
         byte[] data = (prefix + "unsanitized-data").getBytes();
@@ -939,6 +2058,12 @@ public class GameJoltTest {
         String storedData = key + "-data-stored";
         byte[] unsanitizedData = (key + "-unsanitized-data").getBytes();
         when(binarySanitizer.unsanitize(storedData)).thenReturn(unsanitizedData);
+        doAnswer(new Answer<byte[]>() {
+            public byte[] answer(InvocationOnMock invocation) throws Throwable {
+                Object[] args = invocation.getArguments();
+                return binarySanitizer.unsanitize(new String((byte[]) args[0], (Integer) args[1], (Integer) args[2]));
+            }
+        }).when(binarySanitizer).unsanitize(any(byte[].class), anyInt(), anyInt());
         when(objectSerializer.deserialize(unsanitizedData)).thenReturn(value);
         return storedData;
     }
@@ -950,6 +2075,13 @@ public class GameJoltTest {
         when(highscoreParser.parse(tuple.responseContent)).thenReturn(parseScores);
     }
 
+    private void whenWeQueryForTableHighscores(int tableId, int limit, List<Highscore> parseScores) {
+        MockHttpTuple tuple = new MockHttpTuple("table-" + tableId + "-high-scores");
+        tuple.whenIsSuccessful();
+        when(requestFactory.buildAllHighscoresRequest(limit, tableId)).thenReturn(tuple.request);
+        when(highscoreParser.parse(tuple.responseContent)).thenReturn(parseScores);
+    }
+
     private void whenWeQueryForUserHighscores(int expectedLimit, List<Highscore> parseScores) {
         MockHttpTuple tuple = new MockHttpTuple("user-high-scores");
         tuple.whenIsSuccessful();
@@ -0,0 +1,186 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import com.gamejolt.highscore.HighscoreColumns;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+
+public class HighscoreIteratorTest {
+    private GameJolt gameJolt;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        gameJolt = mock(GameJolt.class);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_iterate_PagesPastTiesWithoutRepeatingThem() {
+        when(gameJolt.getHighscorePage(7, 3, null)).thenReturn(page(100, 90, 90));
+        when(gameJolt.getHighscorePage(7, 5, 100)).thenReturn(page(90, 90, 80, 70, 60));
+        when(gameJolt.getHighscorePage(7, 4, 70)).thenReturn(page(60, 50));
+
+        HighscoreIterator iterator = new HighscoreIterator(gameJolt, executor, 7, 3);
+
+        assertEquals(Arrays.asList(100, 90, 90, 80, 70, 60, 50), scoresOf(iterator));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void test_iterate_PageOfOnlyTies() {
+        when(gameJolt.getHighscorePage(null, 2, null)).thenReturn(page(5, 5));
+        when(gameJolt.getHighscorePage(null, 4, null)).thenReturn(page(5, 5, 5, 4));
+        when(gameJolt.getHighscorePage(null, 3, 5)).thenReturn(page(4));
+
+        assertEquals(Arrays.asList(5, 5, 5, 4), scoresOf(new HighscoreIterator(gameJolt, executor, null, 2)));
+    }
+
+    @Test
+    public void test_iterate_Empty() {
+        when(gameJolt.getHighscorePage(null, 10, null)).thenReturn(page());
+
+        HighscoreIterator iterator = new HighscoreIterator(gameJolt, executor, null, 10);
+
+        assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            fail();
+        } catch (NoSuchElementException e) {
+
+        }
+    }
+
+    @Test
+    public void test_close_StopsBeforeTheRest() throws Exception {
+        when(gameJolt.getHighscorePage(null, 2, null)).thenReturn(page(9, 8));
+        when(gameJolt.getHighscorePage(null, 3, 9)).thenReturn(page(8, 7, 6));
+
+        HighscoreIterator iterator = new HighscoreIterator(gameJolt, executor, null, 2);
+        assertEquals(9, iterator.next().getScore());
+        iterator.close();
+
+        assertFalse(iterator.hasNext());
+        verify(gameJolt, never()).getHighscorePage(anyInt(), anyInt(), eq(7));
+    }
+
+    @Test
+    public void test_iterate_PageFails() {
+        GameJoltException failure = new GameJoltException("down");
+        when(gameJolt.getHighscorePage(null, 2, null)).thenReturn(page(9, 8));
+        when(gameJolt.getHighscorePage(null, 3, 9)).thenThrow(failure);
+
+        HighscoreIterator iterator = new HighscoreIterator(gameJolt, executor, null, 2);
+        iterator.next();
+        iterator.next();
+        try {
+            iterator.hasNext();
+            fail();
+        } catch (GameJoltException e) {
+            assertSame(failure, e);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void test_iterate_LimitIsCapped() {
+        when(gameJolt.getHighscorePage(null, 100, null)).thenReturn(page(9, 8));
+
+        assertEquals(Arrays.asList(9, 8), scoresOf(new HighscoreIterator(gameJolt, executor, null, 100)));
+
+        when(gameJolt.getHighscorePage(null, 99, null)).thenReturn(page(ties(97, 5), 4, 4));
+        when(gameJolt.getHighscorePage(null, 100, 5)).thenReturn(page(4, 4, 3));
+
+        assertEquals(100, scoresOf(new HighscoreIterator(gameJolt, executor, null, 99)).size());
+    }
+
+    @Test
+    public void test_iterate_TieFillingAWholePageFails() {
+        when(gameJolt.getHighscorePage(null, 50, null)).thenReturn(page(ties(50, 5)));
+        when(gameJolt.getHighscorePage(null, 100, null)).thenReturn(page(ties(100, 5)));
+
+        HighscoreIterator iterator = new HighscoreIterator(gameJolt, executor, null, 50);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(5, iterator.next().getScore());
+        }
+        try {
+            iterator.hasNext();
+            fail();
+        } catch (GameJoltException e) {
+
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_pageSizeMustBeAtMostTheLimit() {
+        new HighscoreIterator(gameJolt, executor, null, 101);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_pageSizeMustBePositive() {
+        new HighscoreIterator(gameJolt, executor, null, 0);
+    }
+
+    private List<Integer> scoresOf(HighscoreIterator iterator) {
+        List<Integer> scores = new ArrayList<Integer>();
+        while (iterator.hasNext()) {
+            scores.add(iterator.next().getScore());
+        }
+        return scores;
+    }
+
+    private int[] ties(int count, int value) {
+        int[] values = new int[count];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    private HighscoreColumns page(int[] ties, int... values) {
+        int[] all = Arrays.copyOf(ties, ties.length + values.length);
+        System.arraycopy(values, 0, all, ties.length, values.length);
+        return page(all);
+    }
+
+    private HighscoreColumns page(int... values) {
+        List<Highscore> scores = new ArrayList<Highscore>();
+        for (int value : values) {
+            Highscore score = new Highscore();
+            score.setScore(value);
+            score.setUser("user-" + value);
+            scores.add(score);
+        }
+        return HighscoreColumns.of(scores);
+    }
+}
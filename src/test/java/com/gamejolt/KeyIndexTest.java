@@ -0,0 +1,80 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+
+public class KeyIndexTest {
+    private KeyIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new KeyIndex(Arrays.asList("level_10", "level_1", "season3/boss", "season3/b", "level_2", "lever"));
+    }
+
+    @Test
+    public void test_keysWithPrefix() {
+        assertEquals(Arrays.asList("level_1", "level_10", "level_2"), index.keysWithPrefix("level_"));
+        assertEquals(Arrays.asList("level_1", "level_10", "level_2", "lever"), index.keysWithPrefix("lev"));
+        assertEquals(Arrays.asList("level_1", "level_10"), index.keysWithPrefix("level_1"));
+        assertEquals(Arrays.asList("season3/b", "season3/boss"), index.keysWithPrefix("season3/b"));
+        assertEquals(Collections.<String>emptyList(), index.keysWithPrefix("level_3"));
+        assertEquals(Collections.<String>emptyList(), index.keysWithPrefix("levels"));
+        assertEquals(6, index.keysWithPrefix("").size());
+    }
+
+    @Test
+    public void test_add() {
+        assertFalse(index.add("level_1"));
+        assertTrue(index.add("le"));
+        assertTrue(index.add(""));
+
+        assertEquals(8, index.size());
+        assertTrue(index.contains("le"));
+        assertTrue(index.contains(""));
+        assertFalse(index.contains("lev"));
+        assertEquals(Arrays.asList("", "le", "level_1"), index.keysWithPrefix("").subList(0, 3));
+    }
+
+    @Test
+    public void test_remove() {
+        assertTrue(index.remove("level_1"));
+        assertFalse(index.remove("level_1"));
+        assertFalse(index.remove("level_"));
+        assertTrue(index.remove("season3/boss"));
+
+        assertEquals(4, index.size());
+        assertFalse(index.contains("level_1"));
+        assertTrue(index.contains("level_10"));
+        assertEquals(Arrays.asList("level_10", "level_2", "lever", "season3/b"), index.keysWithPrefix(""));
+    }
+
+    @Test
+    public void test_remove_Everything() {
+        for (String key : index.keysWithPrefix("")) {
+            assertTrue(index.remove(key));
+        }
+
+        assertEquals(0, index.size());
+        assertTrue(index.add("level_1"));
+        assertEquals(Arrays.asList("level_1"), index.keysWithPrefix("l"));
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+public class LazyDataMapTest {
+    private GameJolt gameJolt;
+    private ExecutorService executor;
+    private LazyDataMap map;
+
+    @Before
+    public void setUp() throws Exception {
+        gameJolt = mock(GameJolt.class);
+        executor = Executors.newCachedThreadPool();
+        map = new LazyDataMap(gameJolt, executor, null, Arrays.asList("first", "second", "third"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_get_FetchesOnlyOnce() {
+        when(gameJolt.getData(null, "first")).thenReturn("value");
+
+        assertEquals("value", map.get("first"));
+        assertEquals("value", map.get("first"));
+
+        verify(gameJolt, times(1)).getData(null, "first");
+        verifyNoMoreInteractions(gameJolt);
+    }
+
+    @Test
+    public void test_get_UnknownKey() {
+        assertNull(map.get("unknown"));
+        assertFalse(map.containsKey("unknown"));
+        verifyZeroInteractions(gameJolt);
+    }
+
+    @Test
+    public void test_get_ConcurrentReadsShareAFetch() throws Exception {
+        final CountDownLatch fetching = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(gameJolt.getData(null, "first")).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                fetching.countDown();
+                release.await();
+                return "value";
+            }
+        });
+
+        Thread reader = new Thread() {
+            public void run() {
+                map.get("first");
+            }
+        };
+        reader.start();
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        map.prefetch(Arrays.asList("first"));
+        release.countDown();
+
+        assertEquals("value", map.get("first"));
+        reader.join();
+        verify(gameJolt, times(1)).getData(null, "first");
+    }
+
+    @Test
+    public void test_get_FailedFetchIsRetried() {
+        when(gameJolt.getData(null, "first")).thenThrow(new GameJoltException("offline")).thenReturn("value");
+
+        try {
+            map.get("first");
+            fail();
+        } catch (GameJoltException e) {
+            assertEquals("offline", e.getMessage());
+        }
+        assertFalse(map.isLoaded("first"));
+
+        assertEquals("value", map.get("first"));
+        verify(gameJolt, times(2)).getData(null, "first");
+    }
+
+    @Test
+    public void test_prefetch() throws Exception {
+        when(gameJolt.getData(null, "first")).thenReturn("1");
+        when(gameJolt.getData(null, "third")).thenReturn("3");
+
+        map.prefetch(Arrays.asList("first", "third", "unknown"));
+
+        assertEquals("3", map.get("third"));
+        assertEquals("1", map.get("first"));
+        assertFalse(map.isLoaded("second"));
+        verify(gameJolt, times(1)).getData(null, "first");
+        verify(gameJolt, times(1)).getData(null, "third");
+        verifyNoMoreInteractions(gameJolt);
+    }
+
+    @Test
+    public void test_equals() {
+        when(gameJolt.getData(null, "first")).thenReturn("1");
+        when(gameJolt.getData(null, "second")).thenReturn("2");
+
+        Map<String, Object> expected = new HashMap<String, Object>();
+        expected.put("first", "1");
+        expected.put("second", "2");
+        expected.put("third", null);
+
+        assertEquals(expected, map);
+        assertEquals(3, map.size());
+    }
+}
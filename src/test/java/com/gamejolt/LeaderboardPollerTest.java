@@ -0,0 +1,214 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+public class LeaderboardPollerTest {
+    private GameJolt gameJolt;
+    private LeaderboardPoller poller;
+    private RecordingListener first;
+    private RecordingListener second;
+
+    @Before
+    public void setUp() throws Exception {
+        gameJolt = mock(GameJolt.class);
+        poller = new LeaderboardPoller(gameJolt);
+        poller.setIntervals(1, 8, TimeUnit.HOURS);
+        first = new RecordingListener();
+        second = new RecordingListener();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        poller.shutdown();
+    }
+
+    @Test
+    public void test_subscribe_PollsOnceForAllSubscribers() throws Exception {
+        when(gameJolt.getAllHighscores(10, 7)).thenReturn(scores(100, 90));
+
+        poller.subscribe(10, 7, first);
+        first.awaitUpdate();
+        poller.subscribe(10, 7, second);
+
+        verify(gameJolt, times(1)).getAllHighscores(10, 7);
+        assertEquals(1, second.snapshots.size());
+        assertSame(first.snapshots.get(0), second.snapshots.get(0));
+        assertEquals(Integer.valueOf(7), second.snapshots.get(0).getTableId());
+        assertEquals(1, second.snapshots.get(0).getVersion());
+    }
+
+    @Test
+    public void test_poll_OnlyPublishesChanges() throws Exception {
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100), scores(100), scores(120, 100));
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+
+        poller.pollAll();
+        poller.pollAll();
+
+        assertEquals(2, first.snapshots.size());
+        assertEquals(2, first.snapshots.get(1).getVersion());
+        assertEquals(120, first.snapshots.get(1).getScores().get(0).getScore());
+    }
+
+    @Test
+    public void test_poll_IntervalAdaptsToChanges() throws Exception {
+        LeaderboardKey key = new LeaderboardKey(null, 10);
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100), scores(100), scores(100), scores(100), scores(100), scores(200));
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+
+        poller.pollAll();
+        assertEquals(TimeUnit.HOURS.toMillis(2), poller.intervalOf(key));
+        poller.pollAll();
+        poller.pollAll();
+        poller.pollAll();
+        assertEquals(TimeUnit.HOURS.toMillis(8), poller.intervalOf(key));
+        poller.pollAll();
+        assertEquals(TimeUnit.HOURS.toMillis(1), poller.intervalOf(key));
+    }
+
+    @Test
+    public void test_unsubscribe_StopsPollingTheLeaderboard() throws Exception {
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100));
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+
+        poller.unsubscribe(first);
+        poller.pollAll();
+
+        assertEquals(-1, poller.intervalOf(new LeaderboardKey(null, 10)));
+        verify(gameJolt, times(1)).getAllHighscores(10);
+    }
+
+    @Test
+    public void test_poll_FailureIsReportedToSubscribers() throws Exception {
+        GameJoltException failure = new GameJoltException("offline");
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100)).thenThrow(failure);
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+        poller.subscribe(10, second);
+
+        poller.pollAll();
+
+        assertEquals(Collections.singletonList(failure), first.failures);
+        assertEquals(Collections.singletonList(failure), second.failures);
+        assertEquals(TimeUnit.HOURS.toMillis(2), poller.intervalOf(new LeaderboardKey(null, 10)));
+    }
+
+    @Test
+    public void test_poll_ListenerFailureIsReportedToThatListener() throws Exception {
+        final IllegalStateException broken = new IllegalStateException("broken listener");
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100), scores(120));
+        RecordingListener failing = new RecordingListener() {
+            public void updated(LeaderboardSnapshot snapshot) {
+                super.updated(snapshot);
+                throw broken;
+            }
+        };
+        poller.subscribe(10, failing);
+        failing.awaitUpdate();
+        poller.subscribe(10, first);
+
+        poller.pollAll();
+
+        assertEquals(2, first.snapshots.size());
+        assertTrue(first.failures.isEmpty());
+        assertEquals(2, failing.failures.size());
+        assertSame(broken, failing.failures.get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_snapshot_CannotBeModified() throws Exception {
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100));
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+
+        first.snapshots.get(0).getScores().clear();
+    }
+
+    @Test
+    public void test_snapshot_HandsOutCopies() throws Exception {
+        when(gameJolt.getAllHighscores(10)).thenReturn(scores(100));
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+
+        first.snapshots.get(0).getScores().get(0).setScore(5);
+
+        assertEquals(100, first.snapshots.get(0).getScores().get(0).getScore());
+    }
+
+    @Test
+    public void test_poll_TimeOfScoreIsNotAChange() throws Exception {
+        LeaderboardKey key = new LeaderboardKey(null, 10);
+        List<Highscore> later = scores(100);
+        later.get(0).setTimeOfScore("3 days ago");
+        List<Highscore> earlier = scores(100);
+        earlier.get(0).setTimeOfScore("2 days ago");
+        when(gameJolt.getAllHighscores(10)).thenReturn(earlier, later);
+        poller.subscribe(10, first);
+        first.awaitUpdate();
+
+        poller.pollAll();
+
+        assertEquals(1, first.snapshots.size());
+        assertEquals(TimeUnit.HOURS.toMillis(2), poller.intervalOf(key));
+    }
+
+    private static List<Highscore> scores(int... values) {
+        List<Highscore> scores = new ArrayList<Highscore>();
+        for (int value : values) {
+            Highscore score = new Highscore();
+            score.setScore(value);
+            score.setUser("player" + value);
+            scores.add(score);
+        }
+        return scores;
+    }
+
+    private static class RecordingListener implements LeaderboardListener {
+        final List<LeaderboardSnapshot> snapshots = Collections.synchronizedList(new ArrayList<LeaderboardSnapshot>());
+        final CountDownLatch firstUpdate = new CountDownLatch(1);
+
+        final List<RuntimeException> failures = Collections.synchronizedList(new ArrayList<RuntimeException>());
+
+        public void updated(LeaderboardSnapshot snapshot) {
+            snapshots.add(snapshot);
+            firstUpdate.countDown();
+        }
+
+        public void failed(Integer tableId, int limit, RuntimeException cause) {
+            failures.add(cause);
+        }
+
+        void awaitUpdate() throws InterruptedException {
+            assertTrue(firstUpdate.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
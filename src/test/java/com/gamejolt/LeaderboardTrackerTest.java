@@ -0,0 +1,138 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import com.gamejolt.highscore.Highscore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.gamejolt.LeaderboardChange.Type.*;
+import static org.junit.Assert.*;
+
+
+public class LeaderboardTrackerTest {
+    private LeaderboardTracker tracker;
+    private List<List<LeaderboardChange>> published;
+
+    @Before
+    public void setUp() throws Exception {
+        tracker = new LeaderboardTracker();
+        published = new ArrayList<List<LeaderboardChange>>();
+        tracker.addListener(new LeaderboardChangeListener() {
+            public void changed(List<LeaderboardChange> changes) {
+                published.add(changes);
+            }
+        });
+    }
+
+    @Test
+    public void test_update_FirstUpdateEntersEveryone() {
+        List<LeaderboardChange> changes = tracker.update(Arrays.asList(score(1, 100, "a"), score(2, 90, "a")));
+
+        assertEquals(2, changes.size());
+        assertChange(changes.get(0), ENTERED, 0, 1);
+        assertChange(changes.get(1), ENTERED, 0, 2);
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    public void test_update_NothingChanged() {
+        tracker.update(Arrays.asList(score(1, 100, "a"), score(2, 90, "a")));
+
+        assertTrue(tracker.update(Arrays.asList(score(1, 100, "a"), score(2, 90, "a"))).isEmpty());
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    public void test_update_OnlyReportsWhatChanged() {
+        tracker.update(Arrays.asList(score(1, 100, "a"), score(2, 90, "a"), score(3, 80, "a")));
+
+        List<LeaderboardChange> changes = tracker.update(Arrays.asList(score(3, 120, "b"), score(1, 100, "a"), score(4, 95, "b")));
+
+        assertEquals(4, changes.size());
+        assertChange(changes.get(0), LEFT, 2, 0);
+        assertEquals(2, changes.get(0).getPrevious().getUserId());
+        assertNull(changes.get(0).getCurrent());
+        assertChange(changes.get(1), SCORE_CHANGED, 3, 1);
+        assertEquals(80, changes.get(1).getPrevious().getScore());
+        assertEquals(120, changes.get(1).getCurrent().getScore());
+        assertChange(changes.get(2), MOVED, 1, 2);
+        assertChange(changes.get(3), ENTERED, 0, 3);
+    }
+
+    @Test
+    public void test_update_NewTimeIsNotANewScore() {
+        tracker.update(Arrays.asList(score(1, 100, "5 minutes ago")));
+
+        assertTrue(tracker.update(Arrays.asList(score(1, 100, "6 minutes ago"))).isEmpty());
+    }
+
+    @Test
+    public void test_update_LowerScoreIsAChange() {
+        tracker.update(Arrays.asList(score(1, 100, "a")));
+
+        List<LeaderboardChange> changes = tracker.update(Arrays.asList(score(1, 40, "a")));
+
+        assertEquals(1, changes.size());
+        assertChange(changes.get(0), SCORE_CHANGED, 1, 1);
+    }
+
+    @Test
+    public void test_update_GuestsAndRepeatedPlayers() {
+        tracker.update(Arrays.asList(guest("bob", 100), score(1, 90, "a"), score(1, 80, "a")));
+
+        List<LeaderboardChange> changes = tracker.update(Arrays.asList(score(1, 110, "b"), guest("bob", 100), score(1, 90, "a")));
+
+        assertEquals(3, changes.size());
+        assertChange(changes.get(0), SCORE_CHANGED, 2, 1);
+        assertChange(changes.get(1), MOVED, 1, 2);
+        assertChange(changes.get(2), SCORE_CHANGED, 3, 3);
+    }
+
+    @Test
+    public void test_updated_DiffsSnapshots() {
+        tracker.updated(new LeaderboardSnapshot(new LeaderboardKey(null, 10), Arrays.asList(score(1, 100, "a")), 1, 0L));
+        tracker.updated(new LeaderboardSnapshot(new LeaderboardKey(null, 10), new ArrayList<Highscore>(), 2, 0L));
+
+        assertEquals(2, published.size());
+        assertChange(published.get(1).get(0), LEFT, 1, 0);
+    }
+
+    private void assertChange(LeaderboardChange change, LeaderboardChange.Type type, int previousRank, int rank) {
+        assertEquals(type, change.getType());
+        assertEquals(previousRank, change.getPreviousRank());
+        assertEquals(rank, change.getRank());
+    }
+
+    private Highscore guest(String name, int value) {
+        Highscore score = score(0, value, "a");
+        score.setUser(name);
+        score.setGuestScore(true);
+        return score;
+    }
+
+    private Highscore score(int userId, int value, String time) {
+        Highscore score = new Highscore();
+        score.setUserId(userId);
+        score.setUser("user" + userId);
+        score.setScore(value);
+        score.setDisplayedScore(value + " points");
+        score.setTimeOfScore(time);
+        return score;
+    }
+}
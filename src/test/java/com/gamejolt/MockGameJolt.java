@@ -12,12 +12,16 @@
  */
 package com.gamejolt;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 
 public class MockGameJolt extends GameJolt {
     private HashMap<Integer, Trophy> idToTrophy = new HashMap<Integer, Trophy>();
     private HashSet<Integer> achievedTrophies = new HashSet<Integer>();
+    private List<Integer> sentTrophies = new ArrayList<Integer>();
+    private RuntimeException achievedTrophyFailure;
 
     public MockGameJolt() {
         super(-1, "mock-game-jolt");
@@ -31,8 +35,20 @@ public class MockGameJolt extends GameJolt {
         achievedTrophies.add(trophyId);
     }
 
+    public void whenAchievingTrophiesFails(RuntimeException failure) {
+        achievedTrophyFailure = failure;
+    }
+
+    public List<Integer> getSentTrophies() {
+        return sentTrophies;
+    }
+
     @Override
     public void achievedTrophy(int trophyId, TrophyAchievedListener listener) throws UnverifiedUserException {
+        sentTrophies.add(trophyId);
+        if (achievedTrophyFailure != null) {
+            throw achievedTrophyFailure;
+        }
         if (achievedTrophies.contains(trophyId)) {
             listener.achieved(idToTrophy.get(trophyId));
         }
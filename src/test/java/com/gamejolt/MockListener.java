@@ -12,10 +12,15 @@
  */
 package com.gamejolt;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
-public class MockListener implements Listener {
+public class MockListener implements StoreListener {
+    private final List<String> failures = new ArrayList<String>();
     private int count;
 
     @Override
@@ -23,6 +28,11 @@ public class MockListener implements Listener {
         count++;
     }
 
+    @Override
+    public void failed(String reason) {
+        failures.add(reason);
+    }
+
     public void assertSuccess() {
         assertTrue("we expected a successful response", count > 0);
         assertEquals("we expected only one call for success", 1, count);
@@ -31,4 +41,9 @@ public class MockListener implements Listener {
     public void assertNotSuccessful() {
         assertEquals("we expected a non-successful response", 0, count);
     }
+
+    public void assertFailed(String reason) {
+        assertEquals(0, count);
+        assertEquals(Arrays.asList(reason), failures);
+    }
 }
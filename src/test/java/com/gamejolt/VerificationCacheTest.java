@@ -0,0 +1,129 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+
+public class VerificationCacheTest {
+    private MockTicker ticker;
+    private VerificationCache cache;
+    private AtomicInteger verifications;
+
+    @Before
+    public void setUp() throws Exception {
+        ticker = new MockTicker();
+        cache = new VerificationCache(10, TimeUnit.MINUTES, ticker);
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    public void test_verify_RemembersVerifiedUser() {
+        assertTrue(cache.verify(1, "user", "token", verification(true)));
+        assertTrue(cache.verify(1, "user", "token", verification(true)));
+
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    public void test_verify_DifferentGameOrToken() {
+        cache.verify(1, "user", "token", verification(true));
+        cache.verify(2, "user", "token", verification(true));
+        cache.verify(1, "user", "other-token", verification(true));
+
+        assertEquals(3, verifications.get());
+    }
+
+    @Test
+    public void test_verify_Expires() {
+        cache.verify(1, "user", "token", verification(true));
+        ticker.advance(TimeUnit.MINUTES.toNanos(11));
+        cache.verify(1, "user", "token", verification(true));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void test_verify_FailuresAreNotRemembered() {
+        assertFalse(cache.verify(1, "user", "token", verification(false)));
+        assertFalse(cache.verify(1, "user", "token", verification(false)));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void test_verify_ConcurrentVerificationsAreCoalesced() throws Exception {
+        final CountDownLatch requestStarted = new CountDownLatch(1);
+        final CountDownLatch responseReceived = new CountDownLatch(1);
+        final Callable<Boolean> slowVerification = new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                verifications.incrementAndGet();
+                requestStarted.countDown();
+                responseReceived.await();
+                return true;
+            }
+        };
+        Callable<Boolean> verifyUser = new Callable<Boolean>() {
+            public Boolean call() {
+                return cache.verify(1, "user", "token", slowVerification);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> first = executor.submit(verifyUser);
+        requestStarted.await();
+        Future<Boolean> second = executor.submit(verifyUser);
+        Thread.sleep(50);
+        responseReceived.countDown();
+
+        assertTrue(first.get());
+        assertTrue(second.get());
+        assertEquals(1, verifications.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void test_verify_RequestFails() {
+        try {
+            cache.verify(1, "user", "token", new Callable<Boolean>() {
+                public Boolean call() {
+                    throw new GameJoltException("offline");
+                }
+            });
+            fail();
+        } catch (GameJoltException err) {
+            assertEquals("offline", err.getMessage());
+        }
+    }
+
+    private Callable<Boolean> verification(final boolean verified) {
+        return new Callable<Boolean>() {
+            public Boolean call() {
+                verifications.incrementAndGet();
+                return verified;
+            }
+        };
+    }
+}
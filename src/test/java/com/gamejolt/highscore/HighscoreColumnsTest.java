@@ -0,0 +1,90 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.highscore;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class HighscoreColumnsTest {
+
+    @Test
+    public void test_of_KeepsEveryField() {
+        HighscoreColumns columns = HighscoreColumns.of(Arrays.asList(score("bob", 4, 300, "300 \u2605"), score("ann", 0, 200, "200")));
+
+        assertEquals(2, columns.size());
+        assertArrayEquals(new int[]{300, 200}, columns.getScores());
+        assertArrayEquals(new int[]{4, 0}, columns.getUserIds());
+
+        Highscore score = columns.get(0);
+        assertEquals("bob", score.getUser());
+        assertEquals(4, score.getUserId());
+        assertEquals(300, score.getScore());
+        assertEquals("300 \u2605", score.getDisplayedScore());
+        assertEquals("extra-bob", score.getExtraData());
+        assertEquals("yesterday", score.getTimeOfScore());
+        assertFalse(score.isGuestScore());
+        assertTrue(columns.isGuestScore(1));
+        assertEquals("200", columns.getDisplayedScore(1));
+    }
+
+    @Test
+    public void test_of_SharesRepeatedValues() {
+        HighscoreColumns columns = HighscoreColumns.of(Arrays.asList(score("bob", 4, 300, "300"), score(new String("bob"), 4, 100, "100")));
+
+        assertSame(columns.getUser(0), columns.getUser(1));
+    }
+
+    @Test
+    public void test_asList() {
+        List<Highscore> scores = HighscoreColumns.of(Arrays.asList(score("bob", 4, 300, "300"), score("ann", 0, 200, "200"))).asList();
+
+        assertEquals(2, scores.size());
+        assertEquals("ann", scores.get(1).getUser());
+    }
+
+    @Test
+    public void test_growsPastItsInitialCapacity() {
+        HighscoreColumns columns = new HighscoreColumns(1);
+        for (int i = 0; i < 100; i++) {
+            columns.add("displayed-" + i, i, "", "user-" + (i % 3), i % 3, false, "today");
+        }
+        columns.trim();
+
+        assertEquals(100, columns.size());
+        assertEquals("displayed-99", columns.getDisplayedScore(99));
+        assertEquals("user-1", columns.getUser(40));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_get_OutOfRange() {
+        HighscoreColumns.of(Arrays.asList(score("bob", 4, 300, "300"))).get(1);
+    }
+
+    private Highscore score(String user, int userId, int value, String displayed) {
+        Highscore score = new Highscore();
+        score.setUser(user);
+        score.setUserId(userId);
+        score.setGuestScore(userId == 0);
+        score.setScore(value);
+        score.setDisplayedScore(displayed);
+        score.setExtraData("extra-" + user);
+        score.setTimeOfScore("yesterday");
+        return score;
+    }
+}
@@ -51,6 +51,37 @@ public class HighscoreParserTest {
         assertEquals(0, scores.size());
     }
 
+    @Test
+    public void test_parseTables() {
+        Properties other = mock(Properties.class);
+        when(propertiesParser.parse(CONTENT)).thenReturn(Arrays.asList(properties, other));
+        when(properties.getInt("id")).thenReturn(1);
+        when(properties.get("name")).thenReturn("Main");
+        when(properties.get("description")).thenReturn("Best runs");
+        when(properties.get("primary")).thenReturn("1");
+        when(other.getInt("id")).thenReturn(2);
+        when(other.get("name")).thenReturn("Speedrun");
+        when(other.get("primary")).thenReturn("");
+
+        List<HighscoreTable> tables = parser.parseTables(CONTENT);
+
+        assertEquals(2, tables.size());
+        assertEquals(1, tables.get(0).getId());
+        assertEquals("Main", tables.get(0).getName());
+        assertEquals("Best runs", tables.get(0).getDescription());
+        assertTrue(tables.get(0).isPrimary());
+        assertEquals(2, tables.get(1).getId());
+        assertFalse(tables.get(1).isPrimary());
+    }
+
+    @Test
+    public void test_parseTables_FailedRequest() {
+        when(propertiesParser.parse(CONTENT)).thenReturn(Arrays.asList(properties));
+        when(properties.getBoolean("success")).thenReturn(false);
+
+        assertEquals(0, parser.parseTables(CONTENT).size());
+    }
+
     @Test
     public void test_one_GuestHighscore() {
         when(propertiesParser.parse(CONTENT)).thenReturn(Arrays.asList(properties));
@@ -105,6 +136,31 @@ public class HighscoreParserTest {
         assertEquals(2, scores.size());
     }
 
+    @Test
+    public void test_parseColumns() {
+        HighscoreColumns columns = new HighscoreParser().parseColumns("success:\"true\"\r\n" +
+                "score:\"1,200 points\"\r\nsort:\"1200\"\r\nextra_data:\"\"\r\nuser:\"bob\"\r\nuser_id:\"4\"\r\nguest:\"\"\r\nstored:\"2 days ago\"\r\n" +
+                "score:\"900 points\"\r\nsort:\"900\"\r\nextra_data:\"level 3\"\r\nuser:\"\"\r\nuser_id:\"\"\r\nguest:\"ann\"\r\nstored:\"2 days ago\"\r\n");
+
+        assertEquals(2, columns.size());
+        assertEquals("1,200 points", columns.getDisplayedScore(0));
+        assertEquals(1200, columns.getScore(0));
+        assertEquals("", columns.getExtraData(0));
+        assertEquals("bob", columns.getUser(0));
+        assertEquals(4, columns.getUserId(0));
+        assertFalse(columns.isGuestScore(0));
+        assertEquals("level 3", columns.getExtraData(1));
+        assertEquals("ann", columns.getUser(1));
+        assertEquals(0, columns.getUserId(1));
+        assertTrue(columns.isGuestScore(1));
+        assertSame(columns.getTimeOfScore(0), columns.getTimeOfScore(1));
+    }
+
+    @Test
+    public void test_parseColumns_FailedRequest() {
+        assertTrue(new HighscoreParser().parseColumns("success:\"false\"\r\nmessage:\"No such table\"").isEmpty());
+    }
+
     private void expectHighScore(Properties properties) {
         when(properties.isBlank("user")).thenReturn(false);
         when(properties.get("score")).thenReturn("score-data");
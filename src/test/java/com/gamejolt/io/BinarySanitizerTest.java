@@ -13,9 +13,18 @@
 
 package com.gamejolt.io;
 
+import com.gamejolt.GameJoltException;
+import com.google.common.base.Strings;
+import com.google.common.io.BaseEncoding;
+import com.google.common.net.UrlEscapers;
 import org.junit.Test;
 
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 public class BinarySanitizerTest {
@@ -30,4 +39,196 @@ public class BinarySanitizerTest {
         assertEquals(DECODED, new String(sanitizer.unsanitize(ENCODED)));
     }
 
+    @Test
+    public void test_unsanitize_FromResponseBytes() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        byte[] response = ("SUCCESS\r\n" + ENCODED).getBytes();
+
+        assertEquals(DECODED, new String(sanitizer.unsanitize(response, 9, ENCODED.length())));
+    }
+
+    @Test
+    public void test_unsanitize_FromResponseBytes_AdaptiveCompression() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setAdaptiveCompression(true);
+        sanitizer.setUrlSafe(true);
+        String sanitized = sanitizer.sanitize(DECODED.getBytes());
+        byte[] response = ("SUCCESS\n" + sanitized).getBytes();
+
+        assertEquals(DECODED, new String(new BinarySanitizer().unsanitize(response, 8, sanitized.length())));
+    }
+
+    @Test
+    public void test_streaming_MatchesByteArrayEncoding() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        StandardJavaObjectSerializer serializer = new StandardJavaObjectSerializer();
+
+        String sanitized = sanitizer.sanitize(DECODED, serializer);
+
+        assertEquals(sanitizer.sanitize(serializer.serialize(DECODED)), sanitized);
+        byte[] response = ("SUCCESS\r\n" + sanitized).getBytes();
+        assertEquals(DECODED, sanitizer.unsanitize(response, 9, sanitized.length(), serializer));
+    }
+
+    @Test
+    public void test_streaming_ReusesBufferBetweenCalls() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        CompactObjectSerializer serializer = new CompactObjectSerializer();
+
+        String first = sanitizer.sanitize("a much longer string to fill the buffer", serializer);
+        String second = sanitizer.sanitize(1, serializer);
+
+        assertEquals(sanitizer.sanitize(serializer.serialize(1)), second);
+        byte[] bytes = first.getBytes();
+        assertEquals("a much longer string to fill the buffer", sanitizer.unsanitize(bytes, 0, bytes.length, serializer));
+    }
+
+    @Test
+    public void test_urlSafe() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setUrlSafe(true);
+
+        String sanitized = sanitizer.sanitize(DECODED.getBytes());
+
+        assertEquals(".H4sIAAAAAAAAACsuKcrMS9dNSSxJBACvP4qZCwAAAA", sanitized);
+        assertEquals(sanitized, UrlEscapers.urlFormParameterEscaper().escape(sanitized));
+        assertEquals(DECODED, new String(sanitizer.unsanitize(sanitized)));
+    }
+
+    @Test
+    public void test_urlSafe_StillReadsStandardEncoding() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setUrlSafe(true);
+
+        assertEquals(DECODED, new String(sanitizer.unsanitize(ENCODED)));
+    }
+
+    @Test
+    public void test_urlSafe_Streaming() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setUrlSafe(true);
+        CompactObjectSerializer serializer = new CompactObjectSerializer();
+
+        String sanitized = sanitizer.sanitize("a+/string?", serializer);
+
+        assertEquals(sanitizer.sanitize(serializer.serialize("a+/string?")), sanitized);
+        assertEquals("a+/string?", serializer.deserialize(sanitizer.unsanitize(sanitized)));
+        byte[] bytes = sanitized.getBytes();
+        assertEquals("a+/string?", new BinarySanitizer().unsanitize(bytes, 0, bytes.length, serializer));
+    }
+
+    @Test
+    public void test_adaptiveCompression_SmallValueIsStored() {
+        BinarySanitizer sanitizer = adaptiveSanitizer();
+
+        String sanitized = sanitizer.sanitize(DECODED.getBytes());
+
+        assertEquals(0, BaseEncoding.base64().decode(sanitized)[0]);
+        assertTrue(sanitized.length() < ENCODED.length());
+        assertEquals(DECODED, new String(sanitizer.unsanitize(sanitized)));
+    }
+
+    @Test
+    public void test_adaptiveCompression_LargeValueIsDeflated() {
+        BinarySanitizer sanitizer = adaptiveSanitizer();
+        byte[] data = Strings.repeat(DECODED, 50).getBytes();
+
+        String sanitized = sanitizer.sanitize(data);
+
+        assertEquals(1, BaseEncoding.base64().decode(sanitized)[0]);
+        assertTrue(sanitized.length() < new BinarySanitizer().sanitize(data).length());
+        assertArrayEquals(data, sanitizer.unsanitize(sanitized));
+        assertArrayEquals(data, new BinarySanitizer().unsanitize(sanitized));
+    }
+
+    @Test
+    public void test_adaptiveCompression_ThresholdAndLevel() {
+        BinarySanitizer sanitizer = adaptiveSanitizer();
+        sanitizer.setCompressionThreshold(DECODED.length() - 1);
+        sanitizer.setCompressionLevel(Deflater.BEST_COMPRESSION);
+
+        String sanitized = sanitizer.sanitize(DECODED.getBytes());
+
+        assertEquals(1, BaseEncoding.base64().decode(sanitized)[0]);
+        assertEquals(DECODED, new String(sanitizer.unsanitize(sanitized)));
+    }
+
+    @Test
+    public void test_adaptiveCompression_StillReadsGzip() {
+        assertEquals(DECODED, new String(adaptiveSanitizer().unsanitize(ENCODED)));
+    }
+
+    @Test
+    public void test_adaptiveCompression_Streaming() {
+        BinarySanitizer sanitizer = adaptiveSanitizer();
+        sanitizer.setUrlSafe(true);
+        CompactObjectSerializer serializer = new CompactObjectSerializer();
+
+        for (Object value : new Object[]{7, Strings.repeat(DECODED, 50)}) {
+            String sanitized = sanitizer.sanitize(value, serializer);
+
+            assertEquals(sanitizer.sanitize(serializer.serialize(value)), sanitized);
+            byte[] bytes = sanitized.getBytes();
+            assertEquals(value, sanitizer.unsanitize(bytes, 0, bytes.length, serializer));
+            assertEquals(value, new BinarySanitizer().unsanitize(bytes, 0, bytes.length, serializer));
+        }
+    }
+
+    @Test
+    public void test_dictionary() {
+        CompressionDictionary dictionary = new CompressionDictionary(7, "string-data of the save".getBytes());
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setDictionary(dictionary);
+        sanitizer.setCompressionThreshold(0);
+
+        String sanitized = sanitizer.sanitize(DECODED.getBytes());
+
+        byte[] decoded = BaseEncoding.base64().decode(sanitized);
+        assertEquals(2, decoded[0]);
+        assertEquals(7, decoded[1]);
+        assertEquals(DECODED, new String(sanitizer.unsanitize(sanitized)));
+
+        BinarySanitizer reader = new BinarySanitizer();
+        reader.addDictionary(dictionary);
+        assertEquals(DECODED, new String(reader.unsanitize(sanitized)));
+    }
+
+    @Test
+    public void test_dictionary_Streaming() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setDictionary(new CompressionDictionary(1, Strings.repeat(DECODED, 3).getBytes()));
+        CompactObjectSerializer serializer = new CompactObjectSerializer();
+        String value = Strings.repeat(DECODED, 10);
+
+        String sanitized = sanitizer.sanitize(value, serializer);
+
+        assertEquals(sanitizer.sanitize(serializer.serialize(value)), sanitized);
+        byte[] bytes = sanitized.getBytes();
+        assertEquals(value, sanitizer.unsanitize(bytes, 0, bytes.length, serializer));
+    }
+
+    @Test
+    public void test_dictionary_NotRegistered() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setDictionary(new CompressionDictionary(9, DECODED.getBytes()));
+        String sanitized = sanitizer.sanitize(Strings.repeat(DECODED, 10).getBytes());
+
+        try {
+            new BinarySanitizer().unsanitize(sanitized);
+            fail();
+        } catch (GameJoltException e) {
+            assertEquals("No compression dictionary registered with id 9", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_dictionary_InvalidId() {
+        new CompressionDictionary(256, DECODED.getBytes());
+    }
+
+    private BinarySanitizer adaptiveSanitizer() {
+        BinarySanitizer sanitizer = new BinarySanitizer();
+        sanitizer.setAdaptiveCompression(true);
+        return sanitizer;
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the CompactObjectSerializer with the StandardJavaObjectSerializer, run the main method to print the
+ * serialized sizes and the time taken to serialize and deserialize a few typical save game values.
+ */
+public class CompactObjectSerializerBenchmark {
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 100000;
+
+    public static void main(String[] args) {
+        CompactObjectSerializer compact = new CompactObjectSerializer();
+        compact.register(1, CompactObjectSerializerTest.Position.class, new CompactObjectSerializerTest.PositionCodec());
+        StandardJavaObjectSerializer standard = new StandardJavaObjectSerializer();
+
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        values.put("integer", 10);
+        values.put("string", "player one");
+        values.put("int[]", new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        values.put("save game", saveGame());
+        values.put("position", new CompactObjectSerializerTest.Position("castle", 12, -4));
+
+        System.out.println(String.format("%-12s %10s %10s %14s %14s", "value", "java", "compact", "java ns/op", "compact ns/op"));
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            System.out.println(String.format("%-12s %10d %10d %14d %14d", entry.getKey(),
+                    standard.serialize(value).length, compact.serialize(value).length,
+                    time(standard, value), time(compact, value)));
+        }
+    }
+
+    private static Map<String, Object> saveGame() {
+        List<Object> inventory = new ArrayList<Object>();
+        inventory.add("sword");
+        inventory.add("shield");
+        inventory.add("potion");
+
+        Map<String, Object> saveGame = new LinkedHashMap<String, Object>();
+        saveGame.put("level", 7);
+        saveGame.put("gold", 1500L);
+        saveGame.put("health", 0.75d);
+        saveGame.put("inventory", inventory);
+        return saveGame;
+    }
+
+    private static long time(ObjectSerializer serializer, Object value) {
+        run(serializer, value, WARMUP);
+        long start = System.nanoTime();
+        run(serializer, value, ITERATIONS);
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static void run(ObjectSerializer serializer, Object value, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+    }
+}
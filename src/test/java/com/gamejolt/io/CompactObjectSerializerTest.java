@@ -0,0 +1,291 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.gamejolt.GameJoltException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class CompactObjectSerializerTest {
+    private CompactObjectSerializer serializer;
+
+    @Before
+    public void setUp() throws Exception {
+        serializer = new CompactObjectSerializer();
+    }
+
+    @Test
+    public void test_smallInteger() {
+        byte[] serialized = serializer.serialize(10);
+
+        assertArrayEquals(new byte[]{1, 6, 20}, serialized);
+        assertEquals(10, serializer.deserialize(serialized));
+    }
+
+    @Test
+    public void test_null() {
+        assertNull(serializer.deserialize(serializer.serialize(null)));
+    }
+
+    @Test
+    public void test_primitives() {
+        assertRoundTrip(true);
+        assertRoundTrip(false);
+        assertRoundTrip((byte) -5);
+        assertRoundTrip((short) 1234);
+        assertRoundTrip('x');
+        assertRoundTrip(Integer.MIN_VALUE);
+        assertRoundTrip(Integer.MAX_VALUE);
+        assertRoundTrip(-1);
+        assertRoundTrip(Long.MIN_VALUE);
+        assertRoundTrip(Long.MAX_VALUE);
+        assertRoundTrip(1.5f);
+        assertRoundTrip(-2.25d);
+        assertRoundTrip(Double.NaN);
+    }
+
+    @Test
+    public void test_strings() {
+        assertRoundTrip("");
+        assertRoundTrip("save game");
+        assertRoundTrip("\u00fcnicode \u2603");
+    }
+
+    @Test
+    public void test_arrays() {
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) roundTrip(new byte[]{1, 2, 3}));
+        assertArrayEquals(new int[]{0, -1, 300}, (int[]) roundTrip(new int[]{0, -1, 300}));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 7}, (long[]) roundTrip(new long[]{Long.MAX_VALUE, 7}));
+        assertTrue(Arrays.equals(new float[]{1.5f}, (float[]) roundTrip(new float[]{1.5f})));
+        assertTrue(Arrays.equals(new double[]{0.1, 2}, (double[]) roundTrip(new double[]{0.1, 2})));
+        assertTrue(Arrays.equals(new boolean[]{true, false}, (boolean[]) roundTrip(new boolean[]{true, false})));
+        assertArrayEquals(new String[]{"a", null}, (String[]) roundTrip(new String[]{"a", null}));
+        assertArrayEquals(new Object[]{1, "b"}, (Object[]) roundTrip(new Object[]{1, "b"}));
+    }
+
+    @Test
+    public void test_collections() {
+        List<Object> list = new ArrayList<Object>();
+        list.add("level");
+        list.add(3);
+        list.add(null);
+
+        Set<String> set = new LinkedHashSet<String>();
+        set.add("sword");
+        set.add("shield");
+
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("inventory", set);
+        map.put("history", list);
+        map.put("gold", 1500L);
+
+        Map<?, ?> result = (Map<?, ?>) roundTrip(map);
+
+        assertEquals(map, result);
+        assertEquals(Arrays.asList("inventory", "history", "gold"), new ArrayList<Object>(result.keySet()));
+    }
+
+    @Test
+    public void test_arrays_KeepTheirComponentType() {
+        Integer[] integers = (Integer[]) roundTrip(new Integer[]{1, null, 3});
+        assertArrayEquals(new Integer[]{1, null, 3}, integers);
+
+        serializer.register(1, Position.class, new PositionCodec());
+        Position[] positions = (Position[]) roundTrip(new Position[]{new Position("a", 1, 2)});
+        assertEquals("a", positions[0].area);
+
+        int[][] grid = (int[][]) roundTrip(new int[][]{{1, 2}, {3}});
+        assertArrayEquals(new int[]{3}, grid[1]);
+    }
+
+    @Test
+    public void test_collections_KeepTheirType() {
+        assertEquals(LinkedList.class, roundTrip(new LinkedList<Object>(Arrays.asList(1, 2))).getClass());
+        assertEquals(HashSet.class, roundTrip(new HashSet<Object>(Arrays.asList(1, 2))).getClass());
+        assertEquals(TreeSet.class, roundTrip(new TreeSet<Object>(Arrays.asList(2, 1))).getClass());
+        assertEquals(HashMap.class, roundTrip(new HashMap<Object, Object>()).getClass());
+        assertEquals(Arrays.asList(1, 2), roundTrip(Arrays.asList(1, 2)));
+        assertEquals(Arrays.asList(1, 2).getClass(), roundTrip(Arrays.asList(1, 2)).getClass());
+
+        TreeMap<String, Integer> natural = new TreeMap<String, Integer>();
+        natural.put("b", 2);
+        natural.put("a", 1);
+        assertEquals(natural, roundTrip(natural));
+        assertEquals(TreeMap.class, roundTrip(natural).getClass());
+    }
+
+    @Test
+    public void test_treeMapWithComparator() {
+        TreeMap<String, Integer> scores = new TreeMap<String, Integer>(Collections.<String>reverseOrder());
+        scores.put("a", 1);
+        scores.put("b", 2);
+
+        TreeMap<?, ?> result = (TreeMap<?, ?>) roundTrip(scores);
+
+        assertEquals(Collections.<String>reverseOrder(), result.comparator());
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<Object>(result.keySet()));
+    }
+
+    @Test
+    public void test_registeredCodec() {
+        serializer.register(1, Position.class, new PositionCodec());
+
+        Position position = new Position("castle", 12, -4);
+        byte[] serialized = serializer.serialize(position);
+        Position result = (Position) serializer.deserialize(serialized);
+
+        assertEquals("castle", result.area);
+        assertEquals(12, result.x);
+        assertEquals(-4, result.y);
+        assertTrue(serialized.length < new StandardJavaObjectSerializer().serialize(position).length);
+    }
+
+    @Test
+    public void test_registeredCodecNestedInCollection() {
+        serializer.register(1, Position.class, new PositionCodec());
+
+        List<Position> positions = new ArrayList<Position>(Arrays.asList(new Position("a", 1, 2), new Position("b", 3, 4)));
+        List<?> result = (List<?>) roundTrip(positions);
+
+        assertTrue(result instanceof ArrayList);
+        assertEquals(2, result.size());
+        assertEquals("b", ((Position) result.get(1)).area);
+    }
+
+    @Test
+    public void test_serializableFallback() {
+        Position position = new Position("cave", 1, 1);
+
+        Position result = (Position) roundTrip(position);
+
+        assertEquals("cave", result.area);
+    }
+
+    @Test
+    public void test_unsupportedType() {
+        try {
+            serializer.serialize(new Object());
+            fail();
+        } catch (GameJoltException e) {
+            assertEquals("java.lang.Object is not Serializable and has no registered ObjectCodec", e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_unknownTypeId() {
+        serializer.register(1, Position.class, new PositionCodec());
+        byte[] serialized = serializer.serialize(new Position("a", 1, 2));
+
+        try {
+            new CompactObjectSerializer().deserialize(serialized);
+            fail();
+        } catch (GameJoltException e) {
+            assertEquals("No codec registered with type id 1", e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_unknownFormat() {
+        try {
+            serializer.deserialize(new byte[]{9, 0});
+            fail();
+        } catch (GameJoltException e) {
+            assertEquals("Unknown compact serialization format 9", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_register_DuplicateTypeId() {
+        serializer.register(1, Position.class, new PositionCodec());
+        serializer.register(1, String.class, new ObjectCodec<String>() {
+            public void write(String value, CompactOutput output) throws IOException {
+            }
+
+            public String read(CompactInput input) throws IOException {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void test_register_NewTypeIdReplacesTheOldOne() {
+        serializer.register(1, Position.class, new PositionCodec());
+        serializer.register(2, Position.class, new PositionCodec());
+
+        byte[] serialized = serializer.serialize(new Position("a", 1, 2));
+        assertEquals(2, serialized[2]);
+        serializer.register(1, String.class, new ObjectCodec<String>() {
+            public void write(String value, CompactOutput output) throws IOException {
+            }
+
+            public String read(CompactInput input) throws IOException {
+                return null;
+            }
+        });
+    }
+
+    private void assertRoundTrip(Object value) {
+        assertEquals(value, roundTrip(value));
+    }
+
+    private Object roundTrip(Object value) {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    static class Position implements java.io.Serializable {
+        final String area;
+        final int x;
+        final int y;
+
+        Position(String area, int x, int y) {
+            this.area = area;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static class PositionCodec implements ObjectCodec<Position> {
+        public void write(Position value, CompactOutput output) throws IOException {
+            output.writeString(value.area);
+            output.writeInt(value.x);
+            output.writeInt(value.y);
+        }
+
+        public Position read(CompactInput input) throws IOException {
+            return new Position(input.readString(), input.readInt(), input.readInt());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.io;
+
+import com.google.common.base.Charsets;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class DictionaryTrainerTest {
+    private final Random random = new Random(42);
+    private final CompactObjectSerializer serializer = new CompactObjectSerializer();
+
+    @Test
+    public void test_train() {
+        DictionaryTrainer trainer = new DictionaryTrainer();
+        for (int i = 0; i < 200; i++) {
+            trainer.addSample(save());
+        }
+
+        CompressionDictionary dictionary = trainer.train(3, 1024);
+
+        assertEquals(3, dictionary.getId());
+        assertTrue(dictionary.getBytes().length > 0);
+        assertTrue(dictionary.getBytes().length <= 1024);
+        assertTrue(new String(dictionary.getBytes(), Charsets.ISO_8859_1).contains("inventory"));
+    }
+
+    @Test
+    public void test_train_ShrinksSimilarData() {
+        DictionaryTrainer trainer = new DictionaryTrainer();
+        for (int i = 0; i < 200; i++) {
+            trainer.addSample(save());
+        }
+        BinarySanitizer plain = new BinarySanitizer();
+        plain.setAdaptiveCompression(true);
+        BinarySanitizer trained = new BinarySanitizer();
+        trained.setDictionary(trainer.train(1, 4096));
+
+        byte[] save = save();
+        String compressed = trained.sanitize(save);
+
+        assertTrue(compressed.length() * 3 < plain.sanitize(save).length() * 2);
+        assertEquals(new String(save, Charsets.ISO_8859_1), new String(trained.unsanitize(compressed), Charsets.ISO_8859_1));
+    }
+
+    @Test
+    public void test_train_NoSamples() {
+        assertEquals(0, new DictionaryTrainer().train(1, 1024).getBytes().length);
+    }
+
+    private byte[] save() {
+        Map<String, Object> save = new LinkedHashMap<String, Object>();
+        save.put("playerName", "player" + random.nextInt(10000));
+        save.put("level", random.nextInt(50));
+        save.put("experiencePoints", random.nextLong());
+        save.put("inventory", new String[]{"sword of the ancients", "healing potion", "map of the northern woods"});
+        save.put("checkpoint", "dungeon-" + random.nextInt(20) + "-entrance");
+        save.put("achievements", new int[]{random.nextInt(100), random.nextInt(100)});
+        return serializer.serialize(save);
+    }
+}
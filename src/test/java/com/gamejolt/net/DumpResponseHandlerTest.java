@@ -0,0 +1,69 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class DumpResponseHandlerTest {
+    @Test
+    public void test_success() {
+        RecordingHandler handler = handle("SUCCESS\r\nH4sIdata\r\n");
+
+        assertEquals("H4sIdata", handler.data);
+    }
+
+    @Test
+    public void test_success_UnixLineEndingsAndLowerCase() {
+        RecordingHandler handler = handle("success\nH4sIdata");
+
+        assertEquals("H4sIdata", handler.data);
+    }
+
+    @Test
+    public void test_success_NoData() {
+        RecordingHandler handler = handle("SUCCESS");
+
+        assertEquals("", handler.data);
+    }
+
+    @Test
+    public void test_failure() {
+        RecordingHandler handler = handle("FAILURE\r\nNo item with that key could be found.");
+
+        assertTrue(handler.failed);
+    }
+
+    private RecordingHandler handle(String content) {
+        RecordingHandler handler = new RecordingHandler();
+        handler.handle(new MockHttpResponse(true, content));
+        return handler;
+    }
+
+    private static class RecordingHandler extends DumpResponseHandler {
+        private String data;
+        private boolean failed;
+
+        protected void handleSuccess(byte[] content, int offset, int length) {
+            data = new String(content, offset, length);
+        }
+
+        protected void handleFailure() {
+            failed = true;
+        }
+    }
+}
@@ -84,6 +84,127 @@ public class RequestFactoryTest {
         assertEquals("http://gamejolt.com/api/game/v1/scores?game_id=1111&limit=10&signature=sign-hash", request.getUrl());
     }
 
+    @Test
+    public void test_buildAllHighscoresRequest_Table() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("table_id", "7");
+        signatureParameters.put("limit", String.valueOf(10) + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1/scores", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildAllHighscoresRequest(10, 7);
+
+        assertEquals("http://gamejolt.com/api/game/v1/scores?game_id=1111&table_id=7&limit=10&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildHighscoresPageRequest() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("table_id", "7");
+        signatureParameters.put("limit", "100");
+        signatureParameters.put("worse_than", "2500" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1_2/scores", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildHighscoresPageRequest(100, 7, 2500);
+
+        assertEquals("http://gamejolt.com/api/game/v1_2/scores?game_id=1111&table_id=7&limit=100&worse_than=2500&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildHighscoresPageRequest_FirstPage() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("limit", "100" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1_2/scores", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildHighscoresPageRequest(100, null, null);
+
+        assertEquals("http://gamejolt.com/api/game/v1_2/scores?game_id=1111&limit=100&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildUserHighscoresRequest_Table() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("table_id", "7");
+        signatureParameters.put("limit", String.valueOf(10));
+        signatureParameters.put("username", "username");
+        signatureParameters.put("user_token", "userToken" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1/scores", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildUserHighscoresRequest("username", "userToken", 10, 7);
+
+        assertEquals("http://gamejolt.com/api/game/v1/scores?game_id=1111&table_id=7&limit=10&username=username&user_token=userToken&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildUserAchievedHighscoreRequest_Table() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("username", "username");
+        signatureParameters.put("sort", String.valueOf(10));
+        signatureParameters.put("score", "score");
+        signatureParameters.put("extra_data", "extra");
+        signatureParameters.put("table_id", "7");
+        signatureParameters.put("user_token", "userToken" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1/scores/add", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildUserAchievedHighscoreRequest("username", "userToken", "score", 10, "extra", 7);
+
+        assertEquals("http://gamejolt.com/api/game/v1/scores/add?game_id=1111&username=username&sort=10&score=score&extra_data=extra&table_id=7&user_token=userToken&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildGuestAchievedHighscoreRequest() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("guest", "Guest");
+        signatureParameters.put("sort", String.valueOf(10));
+        signatureParameters.put("score", "score");
+        signatureParameters.put("extra_data", "extra" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1/scores/add", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildGuestAchievedHighscoreRequest("Guest", "score", 10, "extra");
+
+        assertEquals("http://gamejolt.com/api/game/v1/scores/add?game_id=1111&guest=Guest&sort=10&score=score&extra_data=extra&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildGuestAchievedHighscoreRequest_Table() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("guest", "Guest");
+        signatureParameters.put("sort", String.valueOf(10));
+        signatureParameters.put("score", "score");
+        signatureParameters.put("extra_data", "extra");
+        signatureParameters.put("table_id", "7" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1/scores/add", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildGuestAchievedHighscoreRequest("Guest", "score", 10, "extra", 7);
+
+        assertEquals("http://gamejolt.com/api/game/v1/scores/add?game_id=1111&guest=Guest&sort=10&score=score&extra_data=extra&table_id=7&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildHighscoreTablesRequest() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID) + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1/scores/tables", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildHighscoreTablesRequest();
+
+        assertEquals("http://gamejolt.com/api/game/v1/scores/tables?game_id=1111&signature=sign-hash", request.getUrl());
+    }
+
     @Test
     public void test_buildUserDataKeysRequest() {
         Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
@@ -110,6 +231,34 @@ public class RequestFactoryTest {
         assertEquals("http://gamejolt.com/api/game/v1/data-store/get-keys?game_id=1111&signature=sign-hash", request.getUrl());
     }
 
+    @Test
+    public void test_buildGameDataKeysRequest_Pattern() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("pattern", "level_*" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1_2/data-store/get-keys", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildGameDataKeysRequest("level_*");
+
+        assertEquals("http://gamejolt.com/api/game/v1_2/data-store/get-keys?game_id=1111&pattern=level_*&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildUserDataKeysRequest_Pattern() {
+        Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
+        signatureParameters.put("game_id", String.valueOf(GAME_ID));
+        signatureParameters.put("username", "username");
+        signatureParameters.put("pattern", "season3/*");
+        signatureParameters.put("user_token", "userToken" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1_2/data-store/get-keys", signatureParameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildUserDataKeysRequest("username", "userToken", "season3/*");
+
+        assertEquals("http://gamejolt.com/api/game/v1_2/data-store/get-keys?game_id=1111&username=username&pattern=season3%2F*&user_token=userToken&signature=sign-hash", request.getUrl());
+    }
+
     @Test
     public void test_buildRemoveGameDataRequest() {
         Map<String, String> signatureParameters = new LinkedHashMap<String, String>();
@@ -256,6 +405,40 @@ public class RequestFactoryTest {
         assertEquals("http://gamejolt.com/api/game/v1/data-store/?game_id=1111&format=dump&key=name&signature=sign-hash", request.getUrl());
     }
 
+    @Test
+    public void test_buildUpdateGameDataRequest() {
+        Map<String, String> parameters = new LinkedHashMap<String, String>();
+        parameters.put("game_id", String.valueOf(GAME_ID));
+        parameters.put("format", "dump");
+        parameters.put("operation", "add");
+        parameters.put("value", "5");
+        parameters.put("key", "name" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1_2/data-store/update", parameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildUpdateGameDataRequest("name", DataStoreOperation.ADD, "5");
+
+        assertEquals("http://gamejolt.com/api/game/v1_2/data-store/update?game_id=1111&format=dump&operation=add&value=5&key=name&signature=sign-hash", request.getUrl());
+    }
+
+    @Test
+    public void test_buildUpdateUserDataRequest() {
+        Map<String, String> parameters = new LinkedHashMap<String, String>();
+        parameters.put("game_id", String.valueOf(GAME_ID));
+        parameters.put("username", "username");
+        parameters.put("format", "dump");
+        parameters.put("key", "name");
+        parameters.put("operation", "append");
+        parameters.put("value", "text");
+        parameters.put("user_token", "userToken" + PRIVATE_KEY);
+
+        when(signatureFactory.build("http://gamejolt.com/api/game/v1_2/data-store/update", parameters)).thenReturn("sign-hash");
+
+        HttpRequest request = factory.buildUpdateUserDataRequest("username", "userToken", "name", DataStoreOperation.APPEND, "text");
+
+        assertEquals("http://gamejolt.com/api/game/v1_2/data-store/update?game_id=1111&username=username&format=dump&key=name&operation=append&value=text&user_token=userToken&signature=sign-hash", request.getUrl());
+    }
+
     @Test
     public void test_buildGetUserDataRequest() {
         Map<String, String> parameters = new LinkedHashMap<String, String>();
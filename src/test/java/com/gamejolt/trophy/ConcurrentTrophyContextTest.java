@@ -0,0 +1,162 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.trophy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+
+public class ConcurrentTrophyContextTest {
+    private static final StatKey KILLS = StatKey.of("kills");
+    private static final StatKey DISTANCE = StatKey.of("distance");
+    private ConcurrentTrophyContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new ConcurrentTrophyContext();
+    }
+
+    @Test
+    public void test_add_FromMultipleThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Void>> workers = new ArrayList<Future<Void>>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(executor.submit(new Callable<Void>() {
+                public Void call() {
+                    for (int j = 0; j < 10000; j++) {
+                        context.increment(KILLS);
+                        context.add(DISTANCE, 0.5);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        assertEquals(40000, context.getInt(KILLS));
+        assertEquals(20000.0, context.getDouble(DISTANCE), 0.0);
+    }
+
+    @Test
+    public void test_set_FromMultipleThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Void>> workers = new ArrayList<Future<Void>>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(executor.submit(new Callable<Void>() {
+                public Void call() {
+                    for (int j = 0; j < 10000; j++) {
+                        context.set(KILLS, 5);
+                        context.set(DISTANCE, 2.5);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        assertEquals(5, context.getInt(KILLS));
+        assertEquals(2.5, context.getDouble(DISTANCE), 0.0);
+    }
+
+    @Test
+    public void test_snapshot_WhileUpdating() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Void> writer = executor.submit(new Callable<Void>() {
+            public Void call() {
+                for (int j = 0; j < 20000; j++) {
+                    context.increment(KILLS);
+                }
+                return null;
+            }
+        });
+
+        long previous = 0;
+        while (!writer.isDone()) {
+            long kills = context.snapshot().getLong(KILLS);
+            assertTrue(kills >= previous && kills <= 20000);
+            previous = kills;
+        }
+        writer.get();
+        executor.shutdown();
+
+        assertEquals(20000, context.snapshot().getInt(KILLS));
+    }
+
+    @Test
+    public void test_add_DoubleToCounter() {
+        context.add(KILLS, 2);
+        context.add(KILLS, 0.5);
+        context.add(KILLS, 1);
+
+        assertEquals(3.5, context.get("kills"));
+        assertEquals(3, context.getLong(KILLS));
+    }
+
+    @Test
+    public void test_snapshot() {
+        context.put("level", "castle");
+        context.set(KILLS, 10);
+
+        TrophyContext snapshot = context.snapshot();
+        context.increment(KILLS);
+        context.put("level", "dungeon");
+
+        assertFalse(snapshot instanceof ConcurrentTrophyContext);
+        assertEquals(10, snapshot.getInt(KILLS));
+        assertEquals(10, snapshot.get("kills"));
+        assertEquals("castle", snapshot.get("level"));
+        assertEquals(11, context.getInt(KILLS));
+    }
+
+    @Test
+    public void test_set_ReplacesCounter() {
+        context.add(KILLS, 5);
+        context.set(KILLS, 2);
+
+        assertEquals(2, context.get("kills"));
+    }
+
+    @Test
+    public void test_put_NumberUnderStatNameSetsTheStat() {
+        context.put("kills", 10L);
+        context.increment(KILLS);
+
+        assertEquals(11L, context.get("kills"));
+        assertEquals(11, context.snapshot().getInt(KILLS));
+    }
+
+    @Test
+    public void test_put_NullRemovesKey() {
+        context.put("level", "castle");
+        context.put("level", null);
+
+        assertNull(context.get("level"));
+        assertFalse(context.keys().contains("level"));
+    }
+}
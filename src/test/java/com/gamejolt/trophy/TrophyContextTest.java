@@ -0,0 +1,129 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.trophy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+
+public class TrophyContextTest {
+    private static final StatKey KILLS = StatKey.of("kills");
+    private static final StatKey DISTANCE = StatKey.of("distance");
+    private static final StatKey PLAY_TIME = StatKey.of("play-time");
+    private static final StatKey BOSS_DEFEATED = StatKey.of("boss-defeated");
+    private TrophyContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new TrophyContext();
+    }
+
+    @Test
+    public void test_of_SameNameReturnsSameKey() {
+        assertSame(KILLS, StatKey.of("kills"));
+    }
+
+    @Test
+    public void test_increment() {
+        context.increment(KILLS);
+        context.increment(KILLS);
+        context.add(KILLS, 3);
+
+        assertEquals(5, context.getInt(KILLS));
+        assertEquals(5, context.get("kills"));
+    }
+
+    @Test
+    public void test_add_Long() {
+        context.add(PLAY_TIME, 5000000000L);
+
+        assertEquals(5000000000L, context.getLong(PLAY_TIME));
+        assertEquals(5000000000L, context.get("play-time"));
+    }
+
+    @Test
+    public void test_add_Double() {
+        context.add(DISTANCE, 1.5);
+        context.add(DISTANCE, 2.25);
+
+        assertEquals(3.75, context.getDouble(DISTANCE), 0.0);
+        assertEquals(3, context.getInt(DISTANCE));
+        assertEquals(3.75, context.get("distance", Double.class), 0.0);
+    }
+
+    @Test
+    public void test_add_DoubleToCounter() {
+        context.set(KILLS, 2);
+        context.add(KILLS, 0.5);
+
+        assertEquals(2.5, context.getDouble(KILLS), 0.0);
+    }
+
+    @Test
+    public void test_set_Flag() {
+        assertFalse(context.isSet(BOSS_DEFEATED));
+
+        context.set(BOSS_DEFEATED, true);
+
+        assertTrue(context.isSet(BOSS_DEFEATED));
+        assertEquals(Boolean.TRUE, context.get("boss-defeated"));
+    }
+
+    @Test
+    public void test_get_UnsetStat() {
+        assertEquals(0, context.getInt(KILLS));
+        assertEquals(0.0, context.getDouble(DISTANCE), 0.0);
+        assertNull(context.get("kills"));
+    }
+
+    @Test
+    public void test_keysAndValues_IncludeStats() {
+        context.put("level", "castle");
+        context.set(KILLS, 10);
+
+        assertEquals(Arrays.asList("level", "kills"), context.keys());
+        assertEquals(Arrays.<Object>asList("castle", 10), context.values());
+    }
+
+    @Test
+    public void test_put_NumberUnderStatNameSetsTheStat() {
+        context.put("kills", 10);
+        context.increment(KILLS);
+        context.put("distance", 2.5f);
+
+        assertEquals(11, context.getInt(KILLS));
+        assertEquals(11, context.get("kills"));
+        assertEquals(2.5, context.getDouble(DISTANCE), 0.0);
+        assertEquals(Arrays.asList("kills", "distance"), context.keys());
+    }
+
+    @Test
+    public void test_put_NullUnderStatNameClearsTheStat() {
+        context.set(KILLS, 10);
+        context.put("kills", null);
+
+        assertEquals(0, context.getInt(KILLS));
+        assertNull(context.get("kills"));
+        assertFalse(context.keys().contains("kills"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_put_ObjectUnderStatNameIsRejected() {
+        context.put("kills", "many");
+    }
+}
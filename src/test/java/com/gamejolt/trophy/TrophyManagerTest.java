@@ -14,14 +14,29 @@
 package com.gamejolt.trophy;
 
 
+import com.gamejolt.GameJoltException;
 import com.gamejolt.MockGameJolt;
+import com.gamejolt.MockTicker;
 import com.gamejolt.Trophy;
+import com.gamejolt.UnverifiedUserException;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.fail;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +47,7 @@ public class TrophyManagerTest {
     private AcquiredTrophyRule rule;
     private TrophyContext context;
     private TrophyManagerListener listener;
+    private MockTicker ticker;
 
     @Before
     public void setUp() throws Exception {
@@ -39,8 +55,10 @@ public class TrophyManagerTest {
         rule = mock(AcquiredTrophyRule.class);
         listener = mock(TrophyManagerListener.class);
 
-        manager = new TrophyManager(gameJolt);
+        ticker = new MockTicker();
+        manager = new TrophyManager(gameJolt, ticker);
         manager.addListener(listener);
+        manager.setAchievementDispatcher(MoreExecutors.sameThreadExecutor());
 
         context = new TrophyContext();
     }
@@ -176,6 +194,206 @@ public class TrophyManagerTest {
     }
 
 
+    @Test
+    public void test_manage_singleRule_TrophySentToGameJolt() {
+        Trophy trophy = new Trophy();
+        trophy.setId(123);
+        gameJolt.addTrophy(123, trophy);
+        when(rule.acquired(context)).thenReturn(true);
+
+        manager.registerRule(123, rule);
+        manager.manage(context);
+        manager.manage(context);
+
+        assertEquals(asList(123), gameJolt.getSentTrophies());
+    }
+
+    @Test
+    public void test_manage_singleRule_SendingTrophyFails() {
+        Trophy trophy = new Trophy();
+        trophy.setId(123);
+        gameJolt.addTrophy(123, trophy);
+        gameJolt.whenAchievingTrophiesFails(new GameJoltException("offline"));
+        when(rule.acquired(context)).thenReturn(true);
+
+        manager.registerRule(123, rule);
+        try {
+            manager.manage(context);
+            fail();
+        } catch (GameJoltException err) {
+            assertEquals("offline", err.getMessage());
+        }
+
+        assertFalse(trophy.isAchieved());
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void test_manage_singleRule_SendingTrophyFailsAsynchronously() {
+        QueuedExecutor dispatcher = new QueuedExecutor();
+        manager.setAchievementDispatcher(dispatcher);
+        Trophy trophy = new Trophy();
+        trophy.setId(123);
+        gameJolt.addTrophy(123, trophy);
+        gameJolt.whenAchievingTrophiesFails(new UnverifiedUserException());
+        when(rule.acquired(context)).thenReturn(true);
+
+        manager.registerRule(123, rule);
+        manager.manage(context);
+        dispatcher.runAll();
+
+        assertFalse(trophy.isAchieved());
+        try {
+            manager.manage(context);
+            fail();
+        } catch (UnverifiedUserException err) {
+            verify(rule).acquired(context);
+        }
+        manager.manage(context);
+        verify(rule).acquired(context);
+        ticker.advance(TimeUnit.SECONDS.toNanos(5));
+        manager.manage(context);
+        verify(rule, times(2)).acquired(context);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void test_manage_FailedTrophyBacksOffLongerEveryTime() {
+        Trophy trophy = new Trophy();
+        trophy.setId(123);
+        gameJolt.addTrophy(123, trophy);
+        gameJolt.whenAchievingTrophiesFails(new GameJoltException("offline"));
+        when(rule.acquired(context)).thenReturn(true);
+        manager.registerRule(123, rule);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                manager.manage(context);
+                fail();
+            } catch (GameJoltException err) {
+                ticker.advance(TimeUnit.SECONDS.toNanos(5));
+            }
+        }
+        manager.manage(context);
+        verify(rule, times(2)).acquired(context);
+
+        ticker.advance(TimeUnit.SECONDS.toNanos(5));
+        try {
+            manager.manage(context);
+            fail();
+        } catch (GameJoltException err) {
+            verify(rule, times(3)).acquired(context);
+        }
+    }
+
+    @Test
+    public void test_manage_NothingDispatchedWhenNoRuleFired() {
+        QueuedExecutor dispatcher = new QueuedExecutor();
+        manager.setAchievementDispatcher(dispatcher);
+        Trophy trophy = new Trophy();
+        trophy.setId(123);
+        gameJolt.addTrophy(123, trophy);
+        when(rule.acquired(context)).thenReturn(false);
+
+        manager.registerRule(123, rule);
+        manager.manage(context);
+
+        assertTrue(dispatcher.queued.isEmpty());
+    }
+
+    @Test
+    public void test_manage_singleRule_ListenersNotifiedOnceTrophySent() {
+        QueuedExecutor dispatcher = new QueuedExecutor();
+        manager.setAchievementDispatcher(dispatcher);
+        Trophy trophy = new Trophy();
+        trophy.setId(123);
+        gameJolt.addTrophy(123, trophy);
+        when(rule.acquired(context)).thenReturn(true);
+
+        manager.registerRule(123, rule);
+        manager.manage(context);
+
+        verifyZeroInteractions(listener);
+        dispatcher.runAll();
+        verify(listener).trophiesAcquired(asList(trophy), context);
+    }
+
+    @Test
+    public void test_manage_mutipleRules_EvaluatedInParallel() {
+        ExecutorService ruleEvaluator = Executors.newFixedThreadPool(2);
+        manager.setRuleEvaluator(ruleEvaluator);
+        manager.setParallelEvaluationThreshold(1);
+
+        Trophy trophy = new Trophy();
+        Trophy trophy2 = new Trophy();
+        Trophy trophy3 = new Trophy();
+        AcquiredTrophyRule rule2 = mock(AcquiredTrophyRule.class);
+        AcquiredTrophyRule rule3 = mock(AcquiredTrophyRule.class);
+
+        gameJolt.addTrophy(123, trophy);
+        gameJolt.addTrophy(456, trophy2);
+        gameJolt.addTrophy(789, trophy3);
+
+        when(rule.acquired(context)).thenReturn(true);
+        when(rule2.acquired(context)).thenReturn(false);
+        when(rule3.acquired(context)).thenReturn(true);
+
+        manager.registerRule(123, rule);
+        manager.registerRule(456, rule2);
+        manager.registerRule(789, rule3);
+        manager.manage(context);
+        ruleEvaluator.shutdown();
+
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).trophiesAcquired(asList(trophy), context);
+        inOrder.verify(listener).trophiesAcquired(asList(trophy3), context);
+        verifyNoMoreInteractions(listener);
+        assertFalse(trophy2.isAchieved());
+    }
+
+    @Test
+    public void test_manage_RuleFailsDuringParallelEvaluation() {
+        ExecutorService ruleEvaluator = Executors.newFixedThreadPool(2);
+        manager.setRuleEvaluator(ruleEvaluator);
+        manager.setParallelEvaluationThreshold(1);
+
+        AcquiredTrophyRule rule2 = mock(AcquiredTrophyRule.class);
+        gameJolt.addTrophy(123, new Trophy());
+        gameJolt.addTrophy(456, new Trophy());
+        when(rule2.acquired(context)).thenThrow(new IllegalStateException("broken rule"));
+
+        manager.registerRule(123, rule);
+        manager.registerRule(456, rule2);
+        try {
+            manager.manage(context);
+            fail();
+        } catch (IllegalStateException err) {
+            assertEquals("broken rule", err.getMessage());
+        } finally {
+            ruleEvaluator.shutdown();
+        }
+
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void test_manage_ConcurrentContext_RulesSeeSnapshot() {
+        ConcurrentTrophyContext concurrentContext = new ConcurrentTrophyContext();
+        concurrentContext.put("level", "castle");
+        Trophy trophy = new Trophy();
+        gameJolt.addTrophy(123, trophy);
+        when(rule.acquired(any(TrophyContext.class))).thenReturn(true);
+
+        manager.registerRule(123, rule);
+        manager.manage(concurrentContext);
+
+        ArgumentCaptor<TrophyContext> evaluated = ArgumentCaptor.forClass(TrophyContext.class);
+        verify(rule).acquired(evaluated.capture());
+        assertNotSame(concurrentContext, evaluated.getValue());
+        assertEquals("castle", evaluated.getValue().get("level"));
+        verify(listener).trophiesAcquired(asList(trophy), evaluated.getValue());
+    }
+
     @Test
     public void test_registerRule_CouldNotFindTrophy() {
         try {
@@ -186,4 +404,18 @@ public class TrophyManagerTest {
         }
     }
 
+    private static class QueuedExecutor implements Executor {
+        private final List<Runnable> queued = new ArrayList<Runnable>();
+
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        void runAll() {
+            for (Runnable command : queued) {
+                command.run();
+            }
+            queued.clear();
+        }
+    }
 }
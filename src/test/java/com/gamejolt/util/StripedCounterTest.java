@@ -0,0 +1,37 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class StripedCounterTest {
+    @Test
+    public void test() {
+        StripedCounter counter = new StripedCounter(3);
+
+        counter.increment();
+        counter.add(41);
+        assertEquals(42, counter.sum());
+
+        assertEquals(42, counter.sumThenReset());
+        assertEquals(0, counter.sum());
+
+        counter.add(-5);
+        counter.reset();
+        assertEquals(0, counter.sum());
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class StripedDoubleCounterTest {
+    @Test
+    public void test() {
+        StripedDoubleCounter counter = new StripedDoubleCounter(3);
+
+        counter.add(0.5);
+        counter.add(41.5);
+        assertEquals(42.0, counter.sum(), 0.0);
+
+        counter.add(-2.25);
+        assertEquals(39.75, counter.sum(), 0.0);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+package com.gamejolt.util;
+
+import com.gamejolt.GameJoltException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+
+public class ThreadsTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_runAll_KeepsTheOrderOfTheTasks() {
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            tasks.add(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    Thread.sleep(20 - value);
+                    return value;
+                }
+            });
+        }
+
+        List<Integer> results = Threads.runAll(executor, tasks, 5);
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), results.get(i));
+        }
+    }
+
+    @Test
+    public void test_runAll_LimitsConcurrency() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger mostRunning = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    int now = running.incrementAndGet();
+                    synchronized (mostRunning) {
+                        mostRunning.set(Math.max(mostRunning.get(), now));
+                    }
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return now;
+                }
+            });
+        }
+
+        Threads.runAll(executor, tasks, 3);
+
+        assertTrue(mostRunning.get() <= 3);
+    }
+
+    @Test
+    public void test_runAll_RethrowsAFailure() {
+        final GameJoltException failure = new GameJoltException("offline");
+        List<Callable<Integer>> tasks = Arrays.<Callable<Integer>>asList(new Callable<Integer>() {
+            public Integer call() {
+                return 1;
+            }
+        }, new Callable<Integer>() {
+            public Integer call() {
+                throw failure;
+            }
+        });
+
+        try {
+            Threads.runAll(executor, tasks, 2);
+            fail();
+        } catch (GameJoltException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void test_runAll_Nothing() {
+        assertEquals(Collections.emptyList(), Threads.runAll(executor, new ArrayList<Callable<Integer>>(), 4));
+    }
+}